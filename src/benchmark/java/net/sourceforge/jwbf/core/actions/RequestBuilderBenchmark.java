@@ -0,0 +1,56 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RequestBuilderBenchmark {
+
+  private ParamJoiner joiner;
+
+  @Setup
+  public void setup() {
+    joiner = newQuery().lazy();
+  }
+
+  private static RequestBuilder newQuery() {
+    return new RequestBuilder("/api.php") //
+        .param("action", "query") //
+        .param("list", "categorymembers") //
+        .param("cmtitle", "Category:Living people") //
+        .param("cmnamespace", "0|2|14") //
+        .param("cmlimit", "max") //
+        .param("cmcontinue", "page|4a4f484e|12345") //
+        .param("format", "xml");
+  }
+
+  @Benchmark
+  public Get buildGet() {
+    return newQuery().buildGet();
+  }
+
+  @Benchmark
+  public String buildAndJoin() {
+    return newQuery().build();
+  }
+
+  @Benchmark
+  public String join() {
+    return joiner.get();
+  }
+}
@@ -0,0 +1,53 @@
+package net.sourceforge.jwbf.core.internal;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeConverterBenchmark {
+
+  private final String timestamp = "2014-10-24T18:41:45Z";
+  private final Date date = new Date(1414176105000L);
+
+  @Benchmark
+  public Optional<Date> parse() {
+    return TimeConverter.from(timestamp, TimeConverter.YYYYMMDD_T_HHMMSS_Z);
+  }
+
+  @Benchmark
+  public String format() {
+    return TimeConverter.valueOf(date);
+  }
+
+  @Benchmark
+  public long parseIsoMillis() {
+    return TimeConverter.parseIsoMillis(timestamp);
+  }
+
+  @Benchmark
+  public Date parseWithSimpleDateFormat() throws ParseException {
+    return TimeConverter.newFormatter(TimeConverter.YYYYMMDD_T_HHMMSS_Z).parse(timestamp);
+  }
+
+  @Benchmark
+  public String formatWithSimpleDateFormat() {
+    return TimeConverter.newFormatter(TimeConverter.YYYYMMDD_T_HHMMSS_Z).format(date);
+  }
+}
@@ -0,0 +1,81 @@
+package net.sourceforge.jwbf.mediawiki;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.core.contentRep.SearchResult;
+import net.sourceforge.jwbf.core.contentRep.SearchResultList;
+import net.sourceforge.jwbf.mapper.JsonMapper;
+import net.sourceforge.jwbf.mapper.JsonPage;
+import net.sourceforge.jwbf.mediawiki.actions.queries.WatchListResults;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonMapperBenchmark {
+
+  private final JsonMapper mapper = new JsonMapper();
+  private String search;
+  private String watchList;
+
+  @Setup
+  public void setup() {
+    search = TestHelper.wikiResponse(MediaWiki.Version.MW1_23, "search.json");
+    watchList = TestHelper.anyWikiResponse("watchlist.json");
+  }
+
+  @Benchmark
+  public SearchResultList searchResultList() {
+    return mapper.get(search, SearchResultList.class);
+  }
+
+  @Benchmark
+  public WatchListResults watchListResults() {
+    return mapper.get(watchList, WatchListResults.class);
+  }
+
+  @Benchmark
+  public void searchResultPage(Blackhole blackhole) {
+    JsonPage<SearchResult> page = JsonPage.of(search, "search", SearchResult.class);
+    while (page.hasNext()) {
+      blackhole.consume(page.next());
+    }
+    blackhole.consume(page.getContinue("sroffset"));
+  }
+
+  /**
+   * Baseline: a new {@link ObjectMapper} for every page, like before readers were shared.
+   */
+  @Benchmark
+  public SearchResultList searchResultListWithNewMapper() throws IOException {
+    return newObjectMapper().readValue(search, SearchResultList.class);
+  }
+
+  @Benchmark
+  public WatchListResults watchListResultsWithNewMapper() throws IOException {
+    return newObjectMapper().readValue(watchList, WatchListResults.class);
+  }
+
+  private static ObjectMapper newObjectMapper() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    return objectMapper;
+  }
+}
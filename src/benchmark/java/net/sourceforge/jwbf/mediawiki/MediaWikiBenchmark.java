@@ -0,0 +1,35 @@
+package net.sourceforge.jwbf.mediawiki;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MediaWikiBenchmark {
+
+  private final String title = "Category:Ärzte (Weimarer Republik)/Übersicht & Liste";
+  private final String escaped = "&lt;b&gt;Tom &amp; Jerry&lt;/b&gt; &quot;cartoon&quot; &#039;s";
+
+  @Benchmark
+  public String urlEncode() {
+    return MediaWiki.urlEncode(title);
+  }
+
+  @Benchmark
+  public String htmlUnescape() {
+    return MediaWiki.htmlUnescape(escaped);
+  }
+}
@@ -0,0 +1,71 @@
+package net.sourceforge.jwbf.mediawiki;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.mapper.CompiledXpath;
+import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.XmlElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlConverterBenchmark {
+
+  private static final String REVISION_TITLE = "/api/query/pages/page[1]/@title";
+
+  private String categoryMembers;
+  private String revisions;
+  private CompiledXpath revisionTitle;
+
+  @Setup
+  public void setup() {
+    categoryMembers = TestHelper.wikiResponse(MediaWiki.Version.MW1_23, "category1.xml");
+    revisions = TestHelper.anyWikiResponse("revisions.xml");
+    revisionTitle = XmlConverter.compileXpath(REVISION_TITLE);
+  }
+
+  @Benchmark
+  public XmlElement rootElementOfCategoryMembers() {
+    return XmlConverter.getRootElement(categoryMembers);
+  }
+
+  @Benchmark
+  public XmlElement rootElementOfRevisions() {
+    return XmlConverter.getRootElement(revisions);
+  }
+
+  @Benchmark
+  public Optional<XmlElement> childOfCategoryMembers() {
+    return XmlConverter.getChildOpt(categoryMembers, "query", "categorymembers");
+  }
+
+  @Benchmark
+  public Optional<XmlElement> childOfRevisions() {
+    return XmlConverter.getChildOpt(revisions, "query", "pages");
+  }
+
+  @Benchmark
+  public String xpathOfRevisions() {
+    return XmlConverter.evaluateXpath(revisions, REVISION_TITLE);
+  }
+
+  @Benchmark
+  public String compiledXpathOfRevisions() {
+    return revisionTitle.evaluate(revisions);
+  }
+}
@@ -0,0 +1,129 @@
+package net.sourceforge.jwbf.mediawiki.actions.queries;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import net.sourceforge.jwbf.JettyServer;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.core.actions.HttpActionClient;
+import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Iterates all pages of a query. The responses are recorded once from a local server and replayed
+ * for every iteration, so only request building, parsing and iteration are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BaseQueryBenchmark {
+
+  private static final int PAGES = 20;
+  private static final int TITLES_PER_PAGE = 50;
+  private static final String SITEINFO =
+      TestHelper.wikiResponse(MediaWiki.Version.MW1_23, "siteinfo_detail.xml");
+
+  private File archive;
+  private MediaWikiBot bot;
+
+  @Setup
+  public void setup() throws IOException {
+    archive = File.createTempFile("jwbf-benchmark", ".replay");
+    String url;
+    try (JettyServer server = new JettyServer()) {
+      server.setHandler(embeddedInHandler());
+      server.startSilent();
+      url = server.getTestUrl();
+      MediaWikiBot recordingBot = new MediaWikiBot(HttpActionClient.builder() //
+          .withUrl(url) //
+          .withRecordingTo(archive) //
+          .build());
+      checkSize(iterate(recordingBot));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+    bot = new MediaWikiBot(HttpActionClient.builder() //
+        .withUrl(url) //
+        .withReplayFrom(archive, false) //
+        .build());
+  }
+
+  @TearDown
+  public void tearDown() {
+    archive.delete();
+  }
+
+  @Benchmark
+  public ImmutableList<String> iterateAllPages() {
+    return iterate(bot);
+  }
+
+  private static ImmutableList<String> iterate(MediaWikiBot bot) {
+    BaseQuery<String> query = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER);
+    return ImmutableList.copyOf(query.lazy());
+  }
+
+  private static void checkSize(ImmutableList<String> titles) {
+    if (titles.size() != PAGES * TITLES_PER_PAGE) {
+      throw new IllegalStateException("unexpected number of titles: " + titles.size());
+    }
+  }
+
+  private static ContextHandler embeddedInHandler() {
+    return new ContextHandler() {
+      @Override
+      public void doHandle(String target, Request request, HttpServletRequest req,
+          HttpServletResponse response) throws IOException {
+        String continueParam = Strings.nullToEmpty(request.getParameter("eicontinue"));
+        int page = 0;
+        if (!continueParam.isEmpty()) {
+          page = Integer.parseInt(continueParam);
+        }
+        response.setContentType("text/xml; charset=utf-8");
+        if ("siteinfo".equals(request.getParameter("meta"))) {
+          response.getWriter().print(SITEINFO);
+        } else {
+          response.getWriter().print(embeddedInPage(page));
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        request.setHandled(true);
+      }
+    };
+  }
+
+  private static String embeddedInPage(int page) {
+    StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?><api>");
+    if (page + 1 < PAGES) {
+      xml.append("<query-continue><embeddedin eicontinue=\"").append(page + 1)
+          .append("\" /></query-continue>");
+    }
+    xml.append("<query><embeddedin>");
+    for (int i = 0; i < TITLES_PER_PAGE; i++) {
+      int id = page * TITLES_PER_PAGE + i;
+      xml.append("<ei pageid=\"").append(id).append("\" ns=\"2\" title=\"User:Babel ")
+          .append(id).append("\" />");
+    }
+    return xml.append("</embeddedin></query></api>").toString();
+  }
+}
@@ -81,7 +81,7 @@ public class BacklinkTitlesIT extends ParamHelper {
   private void doTest(ImmutableList<String> expected, RedirectFilter rf) {
 
     ImmutableList<Integer> namespaces = ImmutableList.of(MediaWiki.NS_MAIN, MediaWiki.NS_CATEGORY);
-    BacklinkTitles gbt = new BacklinkTitles(bot, BACKLINKS, 5, rf, namespaces);
+    BaseQuery<String> gbt = new BacklinkTitles(bot, BACKLINKS, rf, namespaces).withLimit(5);
 
     List<String> vx = Lists.newArrayList();
     Iterator<String> is = gbt.iterator();
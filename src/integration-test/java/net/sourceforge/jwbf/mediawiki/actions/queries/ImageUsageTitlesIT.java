@@ -42,7 +42,7 @@ public class ImageUsageTitlesIT extends ParamHelper {
     ImmutableList<String> expectedTitles = TestHelper.createNames("TitleWithImg", limit);
 
     ImmutableList<String> initPageTitles =
-        new ImageUsageTitles(bot(), 3, IMAGE_NAME, MediaWiki.NS_EVERY).getCopyOf(limit);
+        new ImageUsageTitles(bot(), IMAGE_NAME, MediaWiki.NS_EVERY).withLimit(3).getCopyOf(limit);
     ImmutableList<String> pageTitles;
     if (initPageTitles.size() < limit) {
       prepare(expectedTitles);
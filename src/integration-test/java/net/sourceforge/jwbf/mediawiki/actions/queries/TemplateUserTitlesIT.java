@@ -41,8 +41,9 @@ public class TemplateUserTitlesIT extends ParamHelper {
 
   @Test
   public void doRegularTest() {
-    TemplateUserTitles testee = //
-        new TemplateUserTitles(bot, 3, TESTPATTERNNAME, MWAction.nullSafeCopyOf(MediaWiki.NS_ALL));
+    BaseQuery<String> testee = //
+        new TemplateUserTitles(bot, TESTPATTERNNAME, MWAction.nullSafeCopyOf(MediaWiki.NS_ALL)) //
+            .withLimit(3);
 
     ImmutableList<String> titles = testTitles(4);
     ImmutableList<String> templateUserTitles = testee.getCopyOf(4);
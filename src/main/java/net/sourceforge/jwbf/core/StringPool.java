@@ -0,0 +1,81 @@
+package net.sourceforge.jwbf.core;
+
+import javax.annotation.CheckForNull;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+
+/**
+ * Deduplicates repetitive strings of parsed responses, like titles, user names and log types, so
+ * that items kept for a long time share one instance per value.
+ * <p>
+ * The pool has a fixed number of slots; a string is stored in the slot of its hash code and
+ * replaces a different value in that slot. The slots hold weak references, so the pool never
+ * keeps a string alive. All methods are thread safe and do not lock.
+ */
+@Beta
+public final class StringPool {
+
+  private static final StringPool NONE = new StringPool(null);
+
+  private final AtomicReferenceArray<WeakReference<String>> slots;
+  private final int mask;
+
+  private StringPool(@CheckForNull AtomicReferenceArray<WeakReference<String>> slots) {
+    this.slots = slots;
+    this.mask = slots == null ? 0 : slots.length() - 1;
+  }
+
+  /**
+   * @return a pool, which returns every string unchanged
+   */
+  public static StringPool none() {
+    return NONE;
+  }
+
+  /**
+   * @param capacity the number of slots; is rounded up to a power of two
+   */
+  public static StringPool withCapacity(int capacity) {
+    Preconditions.checkArgument(capacity > 0 && capacity <= 1 << 30,
+        "capacity must be in (0, 2^30]");
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    return new StringPool(new AtomicReferenceArray<WeakReference<String>>(size));
+  }
+
+  /**
+   * @return a pooled instance, which is equal to the given string
+   */
+  @CheckForNull
+  public String intern(@CheckForNull String value) {
+    if (slots == null || value == null) {
+      return value;
+    }
+    int hash = value.hashCode();
+    int index = (hash ^ (hash >>> 16)) & mask;
+    WeakReference<String> reference = slots.get(index);
+    if (reference != null) {
+      String pooled = reference.get();
+      if (value.equals(pooled)) {
+        return pooled;
+      }
+    }
+    slots.set(index, new WeakReference<>(value));
+    return value;
+  }
+
+  /**
+   * @return the number of slots; zero for {@link #none()}
+   */
+  public int capacity() {
+    if (slots == null) {
+      return 0;
+    }
+    return slots.length();
+  }
+}
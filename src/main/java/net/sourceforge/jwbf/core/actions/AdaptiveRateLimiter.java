@@ -0,0 +1,208 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.RateLimiter;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A rate limiter with additive increase and multiplicative decrease. The rate grows slowly while
+ * responses are faster than the target latency; it drops sharply on slow responses and on
+ * congestion signals like the status codes 429 and 503. Add MediaWiki's <code>maxlag</code> with
+ * {@link Builder#withCongestionSignal(Predicate)}.
+ * <pre>
+ * AdaptiveRateLimiter.builder() //
+ *     .withCongestionSignal(ApiException.withCode("maxlag")) //
+ *     .build();
+ * </pre>
+ */
+@Beta
+public class AdaptiveRateLimiter implements RequestRateLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+
+  private static final Predicate<RuntimeException> OVERLOADED_STATUS =
+      new Predicate<RuntimeException>() {
+        @Override
+        public boolean apply(RuntimeException input) {
+          if (input instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) input).getStatusCode();
+            return statusCode == 429 || statusCode == 503;
+          }
+          return false;
+        }
+      };
+
+  private final RateLimiter rateLimiter;
+  private final double minRate;
+  private final double maxRate;
+  private final double increase;
+  private final double decreaseFactor;
+  private final long targetLatencyMillis;
+  private final Predicate<? super RuntimeException> congestion;
+  private final Ticker ticker;
+
+  private double rate;
+  private long lastDecreaseNanos;
+
+  private AdaptiveRateLimiter(Builder builder) {
+    minRate = builder.minRate;
+    maxRate = builder.maxRate;
+    increase = builder.increase;
+    decreaseFactor = builder.decreaseFactor;
+    targetLatencyMillis = builder.targetLatencyMillis;
+    congestion = builder.congestion;
+    ticker = builder.ticker;
+    rate = Math.min(maxRate, Math.max(minRate, builder.initialRate));
+    rateLimiter = RateLimiter.create(rate);
+    lastDecreaseNanos = ticker.read() - TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public void acquire() {
+    rateLimiter.acquire();
+  }
+
+  @Override
+  public void onResponse(long latencyMillis) {
+    if (latencyMillis > targetLatencyMillis) {
+      decrease("latency of " + latencyMillis + " ms");
+    } else {
+      increase();
+    }
+  }
+
+  @Override
+  public void onFailure(RuntimeException failure) {
+    if (congestion.apply(failure)) {
+      decrease(failure.getMessage());
+    }
+  }
+
+  @Override
+  public synchronized double getRate() {
+    return rate;
+  }
+
+  /**
+   * Raises the rate by about {@link #increase} per second, because every successful response of
+   * the last second adds a fraction.
+   */
+  private synchronized void increase() {
+    double newRate = Math.min(maxRate, rate + increase / Math.max(rate, 1));
+    if (newRate != rate) {
+      setRate(newRate);
+    }
+  }
+
+  /**
+   * Decreases at most once per target latency, because concurrent requests report the same
+   * congestion.
+   */
+  private synchronized void decrease(String reason) {
+    long now = ticker.read();
+    if (now - lastDecreaseNanos >= TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)) {
+      lastDecreaseNanos = now;
+      double newRate = Math.max(minRate, rate * decreaseFactor);
+      if (newRate != rate) {
+        log.info("decrease rate to {} requests/s because of: {}", newRate, reason);
+        setRate(newRate);
+      }
+    }
+  }
+
+  private void setRate(double newRate) {
+    rate = newRate;
+    rateLimiter.setRate(newRate);
+  }
+
+  public static class Builder {
+
+    private double initialRate = 1;
+    private double minRate = 0.1;
+    private double maxRate = 50;
+    private double increase = 1;
+    private double decreaseFactor = 0.5;
+    private long targetLatencyMillis = TimeUnit.SECONDS.toMillis(1);
+    private Predicate<? super RuntimeException> congestion = OVERLOADED_STATUS;
+    private Ticker ticker = Ticker.systemTicker();
+
+    /**
+     * @param requestsPerSecond to start with; default is 1
+     */
+    public Builder withInitialRate(double requestsPerSecond) {
+      Preconditions.checkArgument(requestsPerSecond > 0, "rate must be > 0");
+      this.initialRate = requestsPerSecond;
+      return this;
+    }
+
+    /**
+     * @param min requests per second; default is 0.1
+     * @param max requests per second; default is 50
+     */
+    public Builder withRateBounds(double min, double max) {
+      Preconditions.checkArgument(min > 0 && min <= max, "expected 0 < min <= max");
+      this.minRate = min;
+      this.maxRate = max;
+      return this;
+    }
+
+    /**
+     * @param requestsPerSecond added to the rate per second without congestion; default is 1
+     */
+    public Builder withIncrease(double requestsPerSecond) {
+      Preconditions.checkArgument(requestsPerSecond > 0, "increase must be > 0");
+      this.increase = requestsPerSecond;
+      return this;
+    }
+
+    /**
+     * @param factor applied to the rate on congestion; default is 0.5
+     */
+    public Builder withDecreaseFactor(double factor) {
+      Preconditions.checkArgument(factor > 0 && factor < 1, "factor must be in (0, 1)");
+      this.decreaseFactor = factor;
+      return this;
+    }
+
+    /**
+     * @param latency slower responses are treated as congestion; default is one second
+     */
+    public Builder withTargetLatency(long latency, TimeUnit unit) {
+      Preconditions.checkArgument(latency > 0, "latency must be > 0");
+      this.targetLatencyMillis = unit.toMillis(latency);
+      return this;
+    }
+
+    /**
+     * @param signal failures which are treated as congestion, in addition to the status codes 429
+     *               and 503
+     */
+    public Builder withCongestionSignal(Predicate<? super RuntimeException> signal) {
+      this.congestion = Predicates.or(congestion, signal);
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder withTicker(Ticker ticker) {
+      this.ticker = ticker;
+      return this;
+    }
+
+    public AdaptiveRateLimiter build() {
+      return new AdaptiveRateLimiter(this);
+    }
+  }
+}
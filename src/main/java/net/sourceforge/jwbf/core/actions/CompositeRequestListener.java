@@ -0,0 +1,67 @@
+package net.sourceforge.jwbf.core.actions;
+
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notifies all listeners; a failing listener does not affect the request or other listeners.
+ */
+class CompositeRequestListener implements RequestListener {
+
+  private static final Logger log = LoggerFactory.getLogger(CompositeRequestListener.class);
+
+  private final ImmutableList<RequestListener> listeners;
+
+  CompositeRequestListener(ImmutableList<RequestListener> listeners) {
+    this.listeners = listeners;
+  }
+
+  @Override
+  public void onStart(RequestEvent event) {
+    for (RequestListener listener : listeners) {
+      try {
+        listener.onStart(event);
+      } catch (RuntimeException e) {
+        logFailure(listener, e);
+      }
+    }
+  }
+
+  @Override
+  public void onFirstByte(RequestEvent event) {
+    for (RequestListener listener : listeners) {
+      try {
+        listener.onFirstByte(event);
+      } catch (RuntimeException e) {
+        logFailure(listener, e);
+      }
+    }
+  }
+
+  @Override
+  public void onComplete(RequestEvent event) {
+    for (RequestListener listener : listeners) {
+      try {
+        listener.onComplete(event);
+      } catch (RuntimeException e) {
+        logFailure(listener, e);
+      }
+    }
+  }
+
+  @Override
+  public void onFailure(RequestEvent event, RuntimeException failure) {
+    for (RequestListener listener : listeners) {
+      try {
+        listener.onFailure(event, failure);
+      } catch (RuntimeException e) {
+        logFailure(listener, e);
+      }
+    }
+  }
+
+  private static void logFailure(RequestListener listener, RuntimeException e) {
+    log.warn("request listener " + listener.getClass().getName() + " has failed", e);
+  }
+}
@@ -0,0 +1,35 @@
+package net.sourceforge.jwbf.core.actions;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Ignores all feedback and keeps the rate of the given limiter.
+ */
+class FixedRateLimiter implements RequestRateLimiter {
+
+  private final RateLimiter rateLimiter;
+
+  FixedRateLimiter(RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Override
+  public void acquire() {
+    rateLimiter.acquire();
+  }
+
+  @Override
+  public void onResponse(long latencyMillis) {
+    // do nothing
+  }
+
+  @Override
+  public void onFailure(RuntimeException failure) {
+    // do nothing
+  }
+
+  @Override
+  public double getRate() {
+    return rateLimiter.getRate();
+  }
+}
@@ -22,6 +22,7 @@ package net.sourceforge.jwbf.core.actions;
 import javax.annotation.Nonnull;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -30,27 +31,45 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.io.CharStreams;
+import com.google.common.io.LineProcessor;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.sourceforge.jwbf.JWBF;
 import net.sourceforge.jwbf.core.Transform;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
 import net.sourceforge.jwbf.core.internal.Checked;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
+import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
@@ -60,10 +79,14 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClientVersion;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,16 +99,31 @@ public class HttpActionClient {
 
   private static final Logger log = LoggerFactory.getLogger(HttpActionClient.class);
 
+  /**
+   * Same as the default number of connections per route of the apache http client.
+   */
+  private static final int DEFAULT_ASYNC_THREADS = 2;
+
   private final HttpClient client;
 
   private final String path;
 
   private final HttpHost host;
 
-  private final Optional<RateLimiter> rateLimiter;
+  private final Optional<RequestRateLimiter> rateLimiter;
 
   private final URL url;
 
+  private final Supplier<ListeningExecutorService> executor;
+
+  private final TransferCounter transferCounter;
+
+  private final RetryPolicy retryPolicy;
+
+  private final Optional<ResponseCache> responseCache;
+
+  private final RequestListener requestListener;
+
   public HttpActionClient(final URL url) {
     this(HttpClientBuilder.create(), url);
   }
@@ -98,6 +136,12 @@ public class HttpActionClient {
     path = pathOf(url);
     host = newHost(url);
     rateLimiter = Optional.absent();
+    executor = newDefaultExecutor(DEFAULT_ASYNC_THREADS);
+    transferCounter = new TransferCounter();
+    transferCounter.registerWith(clientBuilder);
+    retryPolicy = RetryPolicy.none();
+    responseCache = Optional.absent();
+    requestListener = new CompositeRequestListener(ImmutableList.<RequestListener>of());
     this.client = clientBuilder.build();
   }
 
@@ -106,10 +150,33 @@ public class HttpActionClient {
     host = newHost(builder.url);
     path = pathOf(builder.url);
     rateLimiter = builder.rateLimiter;
+    if (builder.executor.isPresent()) {
+      executor = Suppliers.ofInstance(MoreExecutors.listeningDecorator(builder.executor.get()));
+    } else {
+      executor = newDefaultExecutor(builder.asyncThreads());
+    }
 
+    transferCounter = builder.transferCounter;
+    retryPolicy = builder.retryPolicy;
+    responseCache = builder.responseCache;
+    requestListener = new CompositeRequestListener(builder.requestListeners.build());
     this.client = builder.client;
   }
 
+  private static Supplier<ListeningExecutorService> newDefaultExecutor(final int threads) {
+    return Suppliers.memoize(new Supplier<ListeningExecutorService>() {
+      @Override
+      public ListeningExecutorService get() {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder() //
+            .setNameFormat("jwbf-http-%d") //
+            .setDaemon(true) //
+            .build();
+        return MoreExecutors.listeningDecorator( //
+            Executors.newFixedThreadPool(threads, threadFactory));
+      }
+    });
+  }
+
   private HttpHost newHost(final URL url) {
     return new HttpHost(url.getHost(), url.getPort(), url.getProtocol());
   }
@@ -124,24 +191,50 @@ public class HttpActionClient {
   }
 
   /**
+   * Different actions can be performed concurrently; see {@link Builder#withConnectionPool(int,
+   * int)}. Every action is locked while its messages are processed, because its state is not
+   * shared with other actions but also not thread safe.
+   *
    * @return message, never null
    */
   @Nonnull
-  public synchronized String performAction(ContentProcessable contentProcessable) {
-    String out = "";
-    while (contentProcessable.hasMoreMessages()) {
-      HttpAction httpAction = contentProcessable.getNextMessage();
-      ReturningTextProcessor answerParser = contentProcessable;
-      out = processAction(httpAction, answerParser);
+  public String performAction(ContentProcessable contentProcessable) {
+    synchronized (contentProcessable) {
+      String out = "";
+      while (contentProcessable.hasMoreMessages()) {
+        HttpAction httpAction = contentProcessable.getNextMessage();
+        ReturningTextProcessor answerParser = contentProcessable;
+        out = processAction(httpAction, answerParser);
+      }
+      return out;
     }
-    return out;
   }
 
+  /**
+   * Performs the given action in the background. Requests are queued and executed by a bounded
+   * number of threads, so callers can have many outstanding actions without blocking one thread
+   * for each of them. Use {@link Builder#withExecutor(ExecutorService)} to control these threads.
+   *
+   * @return a future of the message, like {@link #performAction(ContentProcessable)}
+   */
   @Beta
-  public synchronized void performAction(ActionHandler actionHandler) {
-    while (actionHandler.hasMoreActions()) {
-      HttpAction httpAction = actionHandler.popAction();
-      processAction(httpAction, new ResponseHandler(actionHandler));
+  public ListenableFuture<String> performActionAsync(final ContentProcessable contentProcessable) {
+    Checked.nonNull(contentProcessable, "contentProcessable");
+    return executor.get().submit(new Callable<String>() {
+      @Override
+      public String call() {
+        return performAction(contentProcessable);
+      }
+    });
+  }
+
+  @Beta
+  public void performAction(ActionHandler actionHandler) {
+    synchronized (actionHandler) {
+      while (actionHandler.hasMoreActions()) {
+        HttpAction httpAction = actionHandler.popAction();
+        processAction(httpAction, new ResponseHandler(actionHandler));
+      }
     }
   }
 
@@ -235,17 +328,141 @@ public class HttpActionClient {
     log.debug("message {} is: " + //
         "\n\t hostPath : {} " + //
         "\n\t queryPath: {}", debug(requestBase, ha, cp));
-    HttpResponse res = execute(requestBase);
+    int attempt = 1;
+    while (true) {
+      HttpResponse res = null;
+      RequestEvent event = new RequestEvent(actionTypeOf(ha, cp), requestBase.getMethod(),
+          requestBase.getURI(), attempt);
+      requestListener.onStart(event);
+      boolean processing = false;
+      BodyStream body = null;
+      // keeps the transfer counts, even if the entity is replaced
+      HttpContext context = new BasicHttpContext();
+      try {
+        res = execute(requestBase, ha, event, context);
+        String out;
+        try {
+          String text = null;
+          if (cp instanceof ReturningStreamProcessor) {
+            // a stream processor reads the body itself
+            body = new BodyStream(res.getEntity().getContent());
+          } else {
+            text = writeToString(ha, res);
+          }
+          processing = true;
+          out = process(cp, ha, body, text);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        } finally {
+          completed(requestBase, context, res, event);
+        }
+        requestListener.onComplete(event);
+        return out;
+      } catch (RuntimeException failure) {
+        RuntimeException e = failure;
+        if (body != null && body.readFailure != null) {
+          // the connection failed while the body was read, like in writeToString
+          e = new IllegalStateException(body.readFailure);
+          processing = false;
+        }
+        event.failed();
+        requestListener.onFailure(event, e);
+        if (rateLimiter.isPresent()) {
+          rateLimiter.get().onFailure(e);
+        }
+        Optional<Long> delay;
+        if (processing && !retryPolicy.isRetryableWhileProcessing(e)) {
+          // the processor may have kept a part of the body, e.g. elements of a truncated page
+          delay = Optional.absent();
+        } else {
+          delay = retryPolicy.getDelayMillis(attempt, e, ha, retryAfterMillisOf(e, res));
+        }
+        if (!delay.isPresent()) {
+          throw e;
+        }
+        log.warn("attempt {} of {} failed with \"{}\"; retry in {} ms", attempt,
+            requestBase.getURI(), e.getMessage(), delay.get());
+        sleep(delay.get());
+        requestBase.reset();
+        attempt++;
+      }
+    }
+  }
+
+  private static Optional<Long> retryAfterMillisOf(RuntimeException e, HttpResponse res) {
+    if (e instanceof HttpStatusException) {
+      return ((HttpStatusException) e).getRetryAfterMillis();
+    } else if (res != null) {
+      return retryAfterMillisOf(res);
+    }
+    return Optional.absent();
+  }
+
+  @VisibleForTesting
+  static Optional<Long> retryAfterMillisOf(HttpResponse res) {
+    Header header = res.getFirstHeader(HttpHeaders.RETRY_AFTER);
+    if (header != null) {
+      String value = header.getValue().trim();
+      if (CharMatcher.DIGIT.matchesAllOf(value) && !value.isEmpty()) {
+        return Optional.of(TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+      }
+      Date date = DateUtils.parseDate(value);
+      if (date != null) {
+        return Optional.of(Math.max(0, date.getTime() - System.currentTimeMillis()));
+      }
+    }
+    return Optional.absent();
+  }
 
-    final String out = writeToString(ha, res);
+  @VisibleForTesting
+  void sleep(long millis) {
     try {
-      if (cp != null) {
-        return cp.processReturningText(out, ha);
-      } else {
-        return out;
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @param body of the response for a {@link ReturningStreamProcessor}; otherwise null
+   * @param text of the body; null for a {@link ReturningStreamProcessor}
+   */
+  private String process(ReturningTextProcessor cp, HttpAction ha, InputStream body,
+      String text) {
+    if (cp instanceof ReturningStreamProcessor) {
+      return processStream((ReturningStreamProcessor) cp, ha, body);
+    } else if (cp != null) {
+      return cp.processReturningText(text, ha);
+    } else {
+      return text;
+    }
+  }
+
+  private void completed(HttpRequestBase requestBase, HttpContext context, HttpResponse res,
+      RequestEvent event) {
+    consume(res);
+    logTransfer(requestBase, context);
+    event.completed(TransferCounter.wireBytesOf(context),
+        TransferCounter.contentBytesOf(context));
+  }
+
+  private void logTransfer(HttpRequestBase requestBase, HttpContext context) {
+    if (log.isDebugEnabled()) {
+      String transfer = TransferCounter.describe(context);
+      if (!transfer.isEmpty()) {
+        log.debug("received {} for {}", transfer, requestBase.getURI());
       }
-    } finally {
-      consume(res);
+    }
+  }
+
+  private String processStream(ReturningStreamProcessor processor, HttpAction ha,
+      InputStream body) {
+    Charset charSet = Charset.forName(ha.getCharset());
+    try (InputStream content = body) {
+      return processor.processReturningStream(content, charSet, ha);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
     }
   }
 
@@ -266,26 +483,66 @@ public class HttpActionClient {
   }
 
   private String toString(BufferedReader br) throws IOException {
-    return Joiner.on("\n").join(CharStreams.readLines(br)) + "\n"; // TODO remove trailing newline
+    return CharStreams.readLines(br, new LineProcessor<String>() {
+      private final StringBuilder builder = new StringBuilder();
+
+      @Override
+      public boolean processLine(String line) {
+        builder.append(line).append('\n');
+        return true;
+      }
+
+      @Override
+      public String getResult() {
+        if (builder.length() == 0) {
+          return "\n"; // TODO remove trailing newline
+        }
+        return builder.toString();
+      }
+    });
+  }
+
+  private HttpResponse execute(HttpRequestBase requestBase, HttpAction ha, RequestEvent event,
+      HttpContext context) {
+    if (responseCache.isPresent() && ha instanceof Get) {
+      String key = ha.getRequest();
+      Optional<ResponseCache.CachedResponse> cached = responseCache.get().prepare(requestBase, key);
+      return responseCache.get().handle(key, cached, execute(requestBase, event, context));
+    }
+    return execute(requestBase, event, context);
   }
 
   @VisibleForTesting
   HttpResponse execute(HttpRequestBase requestBase) {
+    RequestEvent event = new RequestEvent(HttpRequestBase.class.getName(),
+        requestBase.getMethod(), requestBase.getURI(), 1);
+    return execute(requestBase, event, new BasicHttpContext());
+  }
+
+  private HttpResponse execute(HttpRequestBase requestBase, RequestEvent event,
+      HttpContext context) {
     if (rateLimiter.isPresent()) {
       rateLimiter.get().acquire();
     }
+    event.sent();
     HttpResponse res;
+    long start = System.nanoTime();
     try {
-      res = client.execute(requestBase);
+      res = client.execute(requestBase, context);
     } catch (IOException e) {
       throw new IllegalStateException(e);
     }
     StatusLine statusLine = res.getStatusLine();
     int code = statusLine.getStatusCode();
+    event.firstByte(code);
+    requestListener.onFirstByte(event);
     if (code >= HttpStatus.SC_BAD_REQUEST) {
       consume(res);
-      throw new IllegalStateException(
-          "invalid status: " + statusLine + "; for " + requestBase.getURI());
+      throw new HttpStatusException("invalid status: " + statusLine + "; for " +
+          requestBase.getURI(), code, retryAfterMillisOf(res));
+    }
+    if (rateLimiter.isPresent()) {
+      rateLimiter.get().onResponse(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
     return res;
   }
@@ -307,6 +564,15 @@ public class HttpActionClient {
     return requestString;
   }
 
+  private static String actionTypeOf(HttpAction ha, ReturningTextProcessor cp) {
+    if (cp instanceof ResponseHandler) {
+      return ((ResponseHandler) cp).actionHandler.getClass().getName();
+    } else if (cp != null) {
+      return cp.getClass().getName();
+    }
+    return ha.getClass().getName();
+  }
+
   private String debugTypeOf(HttpAction ha, ReturningTextProcessor cp) {
     String className = cp.getClass().getName();
     final String suffix = className + ")";
@@ -326,6 +592,34 @@ public class HttpActionClient {
     return host.toURI();
   }
 
+  /**
+   * @return the counted bytes of all responses; stays zero, if the http client was not created by
+   * this class, see {@link Builder#withClient(HttpClient)}
+   */
+  @Beta
+  public TransferCounter getTransferCounter() {
+    return transferCounter;
+  }
+
+  /**
+   * @return the current number of permitted requests per second; absent if unlimited
+   */
+  @Beta
+  public Optional<Double> getRequestRate() {
+    if (rateLimiter.isPresent()) {
+      return Optional.of(rateLimiter.get().getRate());
+    }
+    return Optional.absent();
+  }
+
+  /**
+   * @return the cache for responses of {@link Get} actions; e.g. for its hit rate
+   */
+  @Beta
+  public Optional<ResponseCache> getResponseCache() {
+    return responseCache;
+  }
+
   /**
    * @return like http://localhost/a/b?c=d
    */
@@ -350,7 +644,17 @@ public class HttpActionClient {
           }
         };
 
-    private Optional<RateLimiter> rateLimiter = Optional.absent();
+    private Optional<RequestRateLimiter> rateLimiter = Optional.absent();
+    private Optional<PoolingHttpClientConnectionManager> connectionManager = Optional.absent();
+    private Optional<ExecutorService> executor = Optional.absent();
+    private boolean compression = true;
+    private RetryPolicy retryPolicy = RetryPolicy.none();
+    private Optional<ResponseCache> responseCache = Optional.absent();
+    private final ImmutableList.Builder<RequestListener> requestListeners = ImmutableList.builder();
+    private final TransferCounter transferCounter = new TransferCounter();
+    private Optional<File> recordTo = Optional.absent();
+    private Optional<File> replayFrom = Optional.absent();
+    private boolean recordedTimings = false;
     private HttpClient client;
     private URL url;
     @VisibleForTesting
@@ -373,16 +677,31 @@ public class HttpActionClient {
     }
 
     public HttpActionClient build() {
-      if (client == null) {
+      if (replayFrom.isPresent()) {
+        withClient(new ReplayHttpClient(replayFrom.get(), recordedTimings));
+      } else if (client == null) {
         if (userAgentParts.isEmpty()) {
           withUserAgent("Unknown", "Unknown");
         }
         withUserAgent("JWBF", trimAndReplaceWhitespace(getJwbfVersion()));
         HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
         httpClientBuilder.setUserAgent(makeUserAgentString(userAgentParts));
+        if (connectionManager.isPresent()) {
+          httpClientBuilder.setConnectionManager(connectionManager.get());
+        }
+        if (!compression) {
+          httpClientBuilder.disableContentCompression();
+        }
+        transferCounter.registerWith(httpClientBuilder);
         withClient(httpClientBuilder.build());
       } else {
         log.warn("a User-Agent must be set in your client");
+        if (connectionManager.isPresent()) {
+          log.warn("connection pool settings are ignored, because a client was set");
+        }
+      }
+      if (recordTo.isPresent()) {
+        withClient(new RecordingHttpClient(client, recordTo.get()));
       }
       return new HttpActionClient(this);
     }
@@ -419,9 +738,113 @@ public class HttpActionClient {
     }
 
     Builder withRateLimiter(RateLimiter rateLimiter) {
-      this.rateLimiter = Optional.of(rateLimiter);
+      return withRateLimiter(new FixedRateLimiter(rateLimiter));
+    }
+
+    /**
+     * @see AdaptiveRateLimiter
+     */
+    @Beta
+    public Builder withRateLimiter(RequestRateLimiter rateLimiter) {
+      this.rateLimiter = Optional.of(Checked.nonNull(rateLimiter, "rateLimiter"));
+      return this;
+    }
+
+    /**
+     * Allows requests of different threads to run in parallel. Without this setting the defaults
+     * of the apache http client are used, which allows only two parallel connections per host.
+     *
+     * @param maxTotal    max number of open connections
+     * @param maxPerRoute max number of open connections to one host; e.g. your wiki
+     */
+    public Builder withConnectionPool(int maxTotal, int maxPerRoute) {
+      Preconditions.checkArgument(maxTotal > 0, "maxTotal must be > 0, but was " + maxTotal);
+      Preconditions.checkArgument(maxPerRoute > 0 && maxPerRoute <= maxTotal,
+          "maxPerRoute must be in (0, " + maxTotal + "], but was " + maxPerRoute);
+      PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+      manager.setMaxTotal(maxTotal);
+      manager.setDefaultMaxPerRoute(maxPerRoute);
+      this.connectionManager = Optional.of(manager);
       return this;
     }
+
+    /**
+     * Sets the threads for {@link HttpActionClient#performActionAsync(ContentProcessable)}. If not
+     * set, a fixed pool of daemon threads is created on first use; with one thread for each
+     * connection to your wiki.
+     */
+    public Builder withExecutor(ExecutorService executor) {
+      this.executor = Optional.of(Checked.nonNull(executor, "executor"));
+      return this;
+    }
+
+    /**
+     * Enables (default) or disables gzip/deflate compression of responses. Compressed responses
+     * are decoded while they are read by the response processors.
+     */
+    public Builder withCompression(boolean compression) {
+      this.compression = compression;
+      return this;
+    }
+
+    /**
+     * Failed requests are not retried by default.
+     *
+     * @see RetryPolicy#builder()
+     */
+    public Builder withRetryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = Checked.nonNull(retryPolicy, "retryPolicy");
+      return this;
+    }
+
+    /**
+     * Responses of {@link Get} actions are not cached by default.
+     */
+    @Beta
+    public Builder withResponseCache(ResponseCache responseCache) {
+      this.responseCache = Optional.of(Checked.nonNull(responseCache, "responseCache"));
+      return this;
+    }
+
+    /**
+     * Adds a listener for all requests; e.g. {@link RequestMetrics}.
+     */
+    @Beta
+    public Builder withRequestListener(RequestListener requestListener) {
+      this.requestListeners.add(Checked.nonNull(requestListener, "requestListener"));
+      return this;
+    }
+
+    /**
+     * Writes all responses to the given archive, which can be used with
+     * {@link #withReplayFrom(File, boolean)}; e.g. for benchmarks without network.
+     */
+    @Beta
+    public Builder withRecordingTo(File archive) {
+      this.recordTo = Optional.of(Checked.nonNull(archive, "archive"));
+      return this;
+    }
+
+    /**
+     * Answers all requests with the responses of an archive, which was written with
+     * {@link #withRecordingTo(File)}. No request is sent to the wiki and any client is ignored.
+     *
+     * @param recordedTimings if true, responses are delayed like they were during recording
+     */
+    @Beta
+    public Builder withReplayFrom(File archive, boolean recordedTimings) {
+      this.replayFrom = Optional.of(Checked.nonNull(archive, "archive"));
+      this.recordedTimings = recordedTimings;
+      return this;
+    }
+
+    int asyncThreads() {
+      if (connectionManager.isPresent()) {
+        return connectionManager.get().getDefaultMaxPerRoute();
+      } else {
+        return DEFAULT_ASYNC_THREADS;
+      }
+    }
   }
 
   private static String trimAndRemoveWhitespace(String in) {
@@ -475,6 +898,48 @@ public class HttpActionClient {
     return new Builder();
   }
 
+  /**
+   * Remembers a failure of the connection, even if a processor wraps or swallows it.
+   */
+  private static class BodyStream extends FilterInputStream {
+
+    private volatile IOException readFailure;
+
+    BodyStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      try {
+        return super.read();
+      } catch (IOException e) {
+        readFailure = e;
+        throw e;
+      }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      try {
+        return super.read(b, off, len);
+      } catch (IOException e) {
+        readFailure = e;
+        throw e;
+      }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      try {
+        return super.skip(n);
+      } catch (IOException e) {
+        readFailure = e;
+        throw e;
+      }
+    }
+  }
+
   private static class ResponseHandler implements ReturningTextProcessor {
 
     private final ActionHandler actionHandler;
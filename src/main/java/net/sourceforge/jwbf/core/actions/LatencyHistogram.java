@@ -0,0 +1,132 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+
+/**
+ * A lock free histogram of latencies with buckets of powers of two; bucket <code>i</code> counts
+ * latencies from <code>2^(i-1)</code> to <code>2^i - 1</code> milliseconds.
+ */
+@Beta
+public class LatencyHistogram {
+
+  private static final int BUCKETS = Long.SIZE + 1;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+  private final AtomicLong totalMillis = new AtomicLong();
+  private final AtomicLong totalBytes = new AtomicLong();
+
+  void record(long latencyMillis, long bytes) {
+    add(latencyMillis);
+    if (bytes > 0) {
+      totalBytes.addAndGet(bytes);
+    }
+  }
+
+  /**
+   * @param latencyMillis negative, if the request failed before it was sent; then it is only
+   *                      counted as failure
+   */
+  void recordFailure(long latencyMillis) {
+    failureCount.incrementAndGet();
+    if (latencyMillis >= 0) {
+      add(latencyMillis);
+    }
+  }
+
+  private void add(long latencyMillis) {
+    long millis = Math.max(0, latencyMillis);
+    buckets.incrementAndGet(bucketOf(millis));
+    count.incrementAndGet();
+    totalMillis.addAndGet(millis);
+  }
+
+  private static int bucketOf(long millis) {
+    return Long.SIZE - Long.numberOfLeadingZeros(millis);
+  }
+
+  /**
+   * @return number of requests; including failures
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getFailureCount() {
+    return failureCount.get();
+  }
+
+  /**
+   * @return sum of the latencies of all requests
+   */
+  public long getTotalMillis() {
+    return totalMillis.get();
+  }
+
+  /**
+   * @return sum of the received bytes (after decompression)
+   */
+  public long getTotalBytes() {
+    return totalBytes.get();
+  }
+
+  public double getMeanMillis() {
+    long requests = count.get();
+    if (requests == 0) {
+      return 0;
+    }
+    return (double) totalMillis.get() / requests;
+  }
+
+  /**
+   * @param percentile like 0.5 or 0.99
+   * @return the upper bound of the bucket containing this percentile
+   */
+  public long getPercentileMillis(double percentile) {
+    Preconditions.checkArgument(percentile > 0 && percentile <= 1, "percentile must be in (0, 1]");
+    long[] counts = getBucketCounts();
+    long total = 0;
+    for (long bucketCount : counts) {
+      total += bucketCount;
+    }
+    long rank = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank && seen > 0) {
+        return upperBoundOf(i);
+      }
+    }
+    return 0;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket >= Long.SIZE - 1) {
+      return Long.MAX_VALUE;
+    }
+    return (1L << bucket) - 1;
+  }
+
+  /**
+   * @return a copy of all bucket counts
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+    }
+    return counts;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + getCount() + ", failures=" + getFailureCount() + ", total=" +
+        getTotalMillis() + "ms, mean=" + Math.round(getMeanMillis()) + "ms, p50<=" +
+        getPercentileMillis(0.5) + "ms, p99<=" + getPercentileMillis(0.99) + "ms";
+  }
+}
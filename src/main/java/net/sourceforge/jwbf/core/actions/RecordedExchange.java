@@ -0,0 +1,222 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+import com.google.common.net.HttpHeaders;
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+/**
+ * One request/response pair of an archive, which is written by {@link RecordingHttpClient} and
+ * read by {@link ReplayHttpClient}. An archive is a gzipped stream of
+ * <pre>
+ * "jwbf-replay" version (exchange)*
+ * exchange = key status reason headerCount (name value)* bodyLength body elapsedMillis
+ * </pre>
+ * All strings after the version are written as length and UTF-8 bytes, so they are not limited
+ * to 64KB like {@link DataOutputStream#writeUTF(String)}.
+ */
+class RecordedExchange {
+
+  static final String MAGIC = "jwbf-replay";
+  static final int VERSION = 3;
+
+  /**
+   * These headers describe the transfer and not the (decoded) body.
+   */
+  private static final ImmutableSet<String> TRANSFER_HEADERS = ImmutableSet.of( //
+      HttpHeaders.CONTENT_ENCODING.toLowerCase(), //
+      HttpHeaders.CONTENT_LENGTH.toLowerCase(), //
+      HttpHeaders.TRANSFER_ENCODING.toLowerCase());
+
+  final String key;
+  final int status;
+  final String reason;
+  final ImmutableList<Map.Entry<String, String>> headers;
+  final byte[] body;
+  final long elapsedMillis;
+
+  RecordedExchange(String key, int status, String reason,
+      ImmutableList<Map.Entry<String, String>> headers, byte[] body, long elapsedMillis) {
+    this.key = key;
+    this.status = status;
+    this.reason = reason;
+    this.headers = headers;
+    this.body = body;
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  static RecordedExchange of(String key, HttpResponse response, byte[] body, long elapsedMillis) {
+    ImmutableList.Builder<Map.Entry<String, String>> headers = ImmutableList.builder();
+    for (Header header : response.getAllHeaders()) {
+      if (!TRANSFER_HEADERS.contains(header.getName().toLowerCase())) {
+        headers.add(Maps.immutableEntry(header.getName(), header.getValue()));
+      }
+    }
+    return new RecordedExchange(key, response.getStatusLine().getStatusCode(),
+        response.getStatusLine().getReasonPhrase(), headers.build(), body, elapsedMillis);
+  }
+
+  /**
+   * A request with a body, which is not repeatable, gets a copy of it, because the body is read
+   * for the key.
+   *
+   * @return like "GET http://localhost/api.php?action=query"; with the SHA-1 digest of the body
+   * for a POST, like "POST http://localhost/api.php 3f2a..."
+   */
+  static String keyOf(HttpHost target, HttpRequest request) throws IOException {
+    String uri = request.getRequestLine().getUri();
+    if (target != null && uri.startsWith("/")) {
+      uri = target.toURI() + uri;
+    }
+    String key = request.getRequestLine().getMethod() + " " + uri;
+    if (request instanceof HttpEntityEnclosingRequest) {
+      HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+      HttpEntity entity = entityRequest.getEntity();
+      if (entity != null) {
+        // a multipart entity only supports writeTo, not getContent
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        entity.writeTo(body);
+        if (!entity.isRepeatable()) {
+          ByteArrayEntity copy = new ByteArrayEntity(body.toByteArray());
+          copy.setContentType(entity.getContentType());
+          copy.setContentEncoding(entity.getContentEncoding());
+          entityRequest.setEntity(copy);
+        }
+        key += " " + digestOf(body.toByteArray(), entity.getContentType());
+      }
+    }
+    return key;
+  }
+
+  /**
+   * The boundary of a multipart body is random, so it is removed before the body is hashed.
+   */
+  private static String digestOf(byte[] bytes, Header contentType) {
+    // ISO-8859-1 keeps every byte
+    String body = new String(bytes, StandardCharsets.ISO_8859_1);
+    if (contentType != null) {
+      for (HeaderElement element : contentType.getElements()) {
+        NameValuePair boundary = element.getParameterByName("boundary");
+        if (boundary != null && !boundary.getValue().isEmpty()) {
+          body = body.replace(boundary.getValue(), "");
+        }
+      }
+    }
+    return Hashing.sha1().hashString(body, StandardCharsets.ISO_8859_1).toString();
+  }
+
+  CloseableHttpResponse toResponse() {
+    ReplayResponse response = new ReplayResponse(status, reason);
+    for (Map.Entry<String, String> header : headers) {
+      response.addHeader(header.getKey(), header.getValue());
+    }
+    ByteArrayEntity entity = new ByteArrayEntity(body);
+    Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+    if (contentType != null) {
+      entity.setContentType(contentType);
+    }
+    response.setEntity(entity);
+    return response;
+  }
+
+  static void writeHeader(DataOutputStream out) throws IOException {
+    out.writeUTF(MAGIC);
+    out.writeInt(VERSION);
+  }
+
+  static void readHeader(DataInputStream in) throws IOException {
+    if (!MAGIC.equals(in.readUTF()) || in.readInt() != VERSION) {
+      throw new IOException("unknown archive format");
+    }
+  }
+
+  void writeTo(DataOutputStream out) throws IOException {
+    writeString(out, key);
+    out.writeInt(status);
+    writeString(out, reason);
+    out.writeInt(headers.size());
+    for (Map.Entry<String, String> header : headers) {
+      writeString(out, header.getKey());
+      writeString(out, header.getValue());
+    }
+    out.writeInt(body.length);
+    out.write(body);
+    out.writeLong(elapsedMillis);
+  }
+
+  /**
+   * @return null, if the end of the archive is reached
+   */
+  static RecordedExchange readFrom(DataInputStream in) throws IOException {
+    String key;
+    try {
+      key = readString(in);
+    } catch (EOFException e) {
+      return null;
+    }
+    int status = in.readInt();
+    String reason = readString(in);
+    int headerCount = in.readInt();
+    ImmutableList.Builder<Map.Entry<String, String>> headers = ImmutableList.builder();
+    for (int i = 0; i < headerCount; i++) {
+      String name = readString(in);
+      headers.add(Maps.immutableEntry(name, readString(in)));
+    }
+    byte[] body = readBytes(in);
+    long elapsedMillis = in.readLong();
+    return new RecordedExchange(key, status, reason, headers.build(), body, elapsedMillis);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("invalid length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static class ReplayResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+    ReplayResponse(int status, String reason) {
+      super(HttpVersion.HTTP_1_1, status, reason);
+    }
+
+    @Override
+    public void close() {
+      // nothing to release
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.annotations.Beta;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Writes all requests and their (decoded) responses to an archive, which can be replayed with
+ * {@link ReplayHttpClient}. Every exchange is flushed, so the archive is usable even if this
+ * client is never closed.
+ *
+ * @see HttpActionClient.Builder#withRecordingTo(File)
+ */
+@Beta
+@SuppressWarnings("deprecation")
+public class RecordingHttpClient extends CloseableHttpClient {
+
+  private final HttpClient delegate;
+  private final DataOutputStream out;
+
+  public RecordingHttpClient(HttpClient delegate, File archive) {
+    this.delegate = delegate;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(
+          new GZIPOutputStream(new FileOutputStream(archive), true)));
+      RecordedExchange.writeHeader(out);
+      out.flush();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request,
+      HttpContext context) throws IOException {
+    // before the request is sent, because the body of a POST is part of the key
+    String key = RecordedExchange.keyOf(target, request);
+    long start = System.nanoTime();
+    HttpResponse response = delegate.execute(target, request, context);
+    HttpEntity entity = response.getEntity();
+    byte[] body;
+    if (entity == null) {
+      body = new byte[0];
+    } else {
+      body = EntityUtils.toByteArray(entity);
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    RecordedExchange exchange = RecordedExchange.of(key, response, body, elapsedMillis);
+    synchronized (out) {
+      exchange.writeTo(out);
+      out.flush();
+    }
+    return exchange.toResponse();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (out) {
+      out.close();
+    }
+  }
+
+  @Override
+  public HttpParams getParams() {
+    return delegate.getParams();
+  }
+
+  @Override
+  public ClientConnectionManager getConnectionManager() {
+    return delegate.getConnectionManager();
+  }
+}
@@ -0,0 +1,119 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Maps;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.BasicClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Answers requests with the responses of an archive, which was written by
+ * {@link RecordingHttpClient}; no network is used. Responses for the same request are replayed in
+ * recording order; the last one is repeated, if a request is sent more often than recorded.
+ *
+ * @see HttpActionClient.Builder#withReplayFrom(File, boolean)
+ */
+@Beta
+@SuppressWarnings("deprecation")
+public class ReplayHttpClient extends CloseableHttpClient {
+
+  private final Map<String, Deque<RecordedExchange>> exchanges = Maps.newHashMap();
+  private final boolean recordedTimings;
+  /**
+   * Only for callers of {@link #getConnectionManager()}; no connection is ever requested from it.
+   */
+  private final ClientConnectionManager connectionManager = new BasicClientConnectionManager();
+
+  /**
+   * @param recordedTimings if true, every response is delayed like it was during recording;
+   *                        otherwise responses are returned at full speed
+   */
+  public ReplayHttpClient(File archive, boolean recordedTimings) {
+    this.recordedTimings = recordedTimings;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        new GZIPInputStream(new FileInputStream(archive))))) {
+      RecordedExchange.readHeader(in);
+      readExchanges(in);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void readExchanges(DataInputStream in) throws IOException {
+    try {
+      RecordedExchange exchange = RecordedExchange.readFrom(in);
+      while (exchange != null) {
+        Deque<RecordedExchange> responses = exchanges.get(exchange.key);
+        if (responses == null) {
+          responses = new ArrayDeque<>();
+          exchanges.put(exchange.key, responses);
+        }
+        responses.add(exchange);
+        exchange = RecordedExchange.readFrom(in);
+      }
+    } catch (EOFException e) {
+      // archive of a recording, which was not closed; the last exchange is incomplete
+    }
+  }
+
+  @Override
+  protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request,
+      HttpContext context) throws IOException {
+    String key = RecordedExchange.keyOf(target, request);
+    RecordedExchange exchange = next(key);
+    if (exchange == null) {
+      throw new IOException("no recorded response for " + key);
+    }
+    if (recordedTimings && exchange.elapsedMillis > 0) {
+      try {
+        Thread.sleep(exchange.elapsedMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+    }
+    return exchange.toResponse();
+  }
+
+  private synchronized RecordedExchange next(String key) {
+    Deque<RecordedExchange> responses = exchanges.get(key);
+    if (responses == null) {
+      return null;
+    } else if (responses.size() > 1) {
+      return responses.poll();
+    }
+    return responses.peek();
+  }
+
+  @Override
+  public void close() {
+    connectionManager.shutdown();
+  }
+
+  @Override
+  public HttpParams getParams() {
+    return new BasicHttpParams();
+  }
+
+  @Override
+  public ClientConnectionManager getConnectionManager() {
+    return connectionManager;
+  }
+}
@@ -0,0 +1,137 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Describes one http request of a {@link HttpActionClient}. The values are updated while the
+ * request is running; unknown values are <code>-1</code>.
+ */
+@Beta
+public class RequestEvent {
+
+  private final String actionType;
+  private final String method;
+  private final URI uri;
+  private final int attempt;
+  private final long startNanos = System.nanoTime();
+
+  private volatile long rateLimiterWaitNanos = 0;
+  private volatile long sendNanos = -1;
+  private volatile long firstByteNanos = -1;
+  private volatile long completeNanos = -1;
+  private volatile int statusCode = -1;
+  private volatile long wireBytes = -1;
+  private volatile long contentBytes = -1;
+
+  RequestEvent(String actionType, String method, URI uri, int attempt) {
+    this.actionType = actionType;
+    this.method = method;
+    this.uri = uri;
+    this.attempt = attempt;
+  }
+
+  /**
+   * @return name of the class, which processes the response; like
+   * <code>net.sourceforge.jwbf.mediawiki.actions.editing.GetRevision</code>
+   */
+  public String getActionType() {
+    return actionType;
+  }
+
+  /**
+   * @return like GET or POST
+   */
+  public String getMethod() {
+    return method;
+  }
+
+  public URI getUri() {
+    return uri;
+  }
+
+  /**
+   * @return starting with 1; greater for retries
+   */
+  public int getAttempt() {
+    return attempt;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public long getRateLimiterWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(rateLimiterWaitNanos);
+  }
+
+  /**
+   * @return time from sending the request until the response headers were received
+   */
+  public long getTimeToFirstByteMillis() {
+    return millisBetween(sendNanos, firstByteNanos);
+  }
+
+  /**
+   * @return time from sending the request until its response was processed; without waiting for
+   * the rate limiter
+   */
+  public long getLatencyMillis() {
+    return millisBetween(sendNanos, completeNanos);
+  }
+
+  /**
+   * @return number of received body bytes, before decompression
+   */
+  public long getWireBytes() {
+    return wireBytes;
+  }
+
+  /**
+   * @return number of received body bytes, after decompression
+   */
+  public long getContentBytes() {
+    return contentBytes;
+  }
+
+  private static long millisBetween(long fromNanos, long toNanos) {
+    if (fromNanos < 0 || toNanos < 0) {
+      return -1;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(toNanos - fromNanos);
+  }
+
+  void sent() {
+    long now = System.nanoTime();
+    rateLimiterWaitNanos = now - startNanos;
+    sendNanos = now;
+  }
+
+  void firstByte(int statusCode) {
+    this.statusCode = statusCode;
+    firstByteNanos = System.nanoTime();
+  }
+
+  /**
+   * Ends the latency of a failed request, unless its response was processed already.
+   */
+  void failed() {
+    if (completeNanos < 0) {
+      completeNanos = System.nanoTime();
+    }
+  }
+
+  void completed(long wireBytes, long contentBytes) {
+    this.wireBytes = wireBytes;
+    this.contentBytes = contentBytes;
+    completeNanos = System.nanoTime();
+  }
+
+  @Override
+  public String toString() {
+    return method + " " + uri + " (" + actionType + "; attempt " + attempt + "; status " +
+        statusCode + "; " + getLatencyMillis() + " ms; " + wireBytes + " bytes)";
+  }
+}
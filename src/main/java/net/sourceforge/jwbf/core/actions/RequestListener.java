@@ -0,0 +1,33 @@
+package net.sourceforge.jwbf.core.actions;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Is notified about every http request of a {@link HttpActionClient}; each retry is a new request.
+ * Listeners are called by the requesting threads and must be thread safe.
+ *
+ * @see RequestMetrics
+ */
+@Beta
+public interface RequestListener {
+
+  /**
+   * Before waiting for the rate limiter.
+   */
+  void onStart(RequestEvent event);
+
+  /**
+   * After the status and the headers of the response were received.
+   */
+  void onFirstByte(RequestEvent event);
+
+  /**
+   * After the response was processed.
+   */
+  void onComplete(RequestEvent event);
+
+  /**
+   * After the request or the processing of its response has failed.
+   */
+  void onFailure(RequestEvent event, RuntimeException failure);
+}
@@ -0,0 +1,95 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+
+/**
+ * Collects a {@link LatencyHistogram} for each action type, to find the actions which take most of
+ * the time.
+ * <pre>
+ * RequestMetrics metrics = new RequestMetrics();
+ * HttpActionClient client = HttpActionClient.builder() //
+ *     .withUrl(url) //
+ *     .withRequestListener(metrics) //
+ *     .build();
+ * ...
+ * log.info(metrics.toString());
+ * </pre>
+ */
+@Beta
+public class RequestMetrics implements RequestListener {
+
+  private static final Function<Map.Entry<String, LatencyHistogram>, Long> TOTAL_TIME =
+      new Function<Map.Entry<String, LatencyHistogram>, Long>() {
+        @Override
+        public Long apply(Map.Entry<String, LatencyHistogram> input) {
+          return input.getValue().getTotalMillis();
+        }
+      };
+
+  private static final Ordering<Map.Entry<String, LatencyHistogram>> BY_TOTAL_TIME = //
+      Ordering.<Long>natural().onResultOf(TOTAL_TIME);
+
+  private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public void onStart(RequestEvent event) {
+    // do nothing
+  }
+
+  @Override
+  public void onFirstByte(RequestEvent event) {
+    // do nothing
+  }
+
+  @Override
+  public void onComplete(RequestEvent event) {
+    histogramOf(event.getActionType()).record(event.getLatencyMillis(), event.getContentBytes());
+  }
+
+  @Override
+  public void onFailure(RequestEvent event, RuntimeException failure) {
+    histogramOf(event.getActionType()).recordFailure(event.getLatencyMillis());
+  }
+
+  private LatencyHistogram histogramOf(String actionType) {
+    LatencyHistogram histogram = histograms.get(actionType);
+    if (histogram == null) {
+      LatencyHistogram newHistogram = new LatencyHistogram();
+      histogram = histograms.putIfAbsent(actionType, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * @return histograms by action type; ordered by total time, descending
+   */
+  public ImmutableMap<String, LatencyHistogram> getHistograms() {
+    ImmutableList<Map.Entry<String, LatencyHistogram>> entries = //
+        BY_TOTAL_TIME.reverse().immutableSortedCopy(histograms.entrySet());
+    ImmutableMap.Builder<String, LatencyHistogram> builder = ImmutableMap.builder();
+    for (Map.Entry<String, LatencyHistogram> entry : entries) {
+      builder.put(entry);
+    }
+    return builder.build();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (Map.Entry<String, LatencyHistogram> entry : getHistograms().entrySet()) {
+      builder.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,33 @@
+package net.sourceforge.jwbf.core.actions;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Limits the rate of requests of a {@link HttpActionClient}. Implementations can use the feedback
+ * of every request to adjust their rate; they must be thread safe.
+ *
+ * @see AdaptiveRateLimiter
+ */
+@Beta
+public interface RequestRateLimiter {
+
+  /**
+   * Blocks until the next request is allowed.
+   */
+  void acquire();
+
+  /**
+   * @param latencyMillis time until the response headers were received
+   */
+  void onResponse(long latencyMillis);
+
+  /**
+   * @param failure of a request or of processing its response
+   */
+  void onFailure(RuntimeException failure);
+
+  /**
+   * @return the current number of permitted requests per second
+   */
+  double getRate();
+}
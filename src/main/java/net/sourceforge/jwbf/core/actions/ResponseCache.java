@@ -0,0 +1,191 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.net.HttpHeaders;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Caches the responses of {@link Get} actions, which have an <code>ETag</code> or a
+ * <code>Last-Modified</code> header. Cached responses are revalidated with every request; if the
+ * server answers with 304 (not modified), the cached body is used instead of downloading it again.
+ * The least recently used responses are evicted, if the cache is full or they are too old.
+ *
+ * @see HttpActionClient.Builder#withResponseCache(ResponseCache)
+ */
+@Beta
+public class ResponseCache {
+
+  private final Cache<String, CachedResponse> cache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  private ResponseCache(Builder builder) {
+    cache = CacheBuilder.newBuilder() //
+        .maximumSize(builder.maximumSize) //
+        .expireAfterWrite(builder.expireAfterWriteMillis, TimeUnit.MILLISECONDS) //
+        .build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return number of responses which were served from cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return number of responses which were downloaded
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * @return ratio of hits to all requests or 1, if there were no requests
+   */
+  public double getHitRate() {
+    long hits = hitCount.get();
+    long requests = hits + missCount.get();
+    if (requests == 0) {
+      return 1;
+    }
+    return (double) hits / requests;
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Adds conditional headers to the request, if a response for the given key is cached.
+   */
+  Optional<CachedResponse> prepare(HttpRequestBase request, String key) {
+    CachedResponse cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.etag.isPresent()) {
+        request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.etag.get());
+      }
+      if (cached.lastModified.isPresent()) {
+        request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified.get());
+      }
+    }
+    return Optional.fromNullable(cached);
+  }
+
+  /**
+   * @return a response with the cached body, if the server has answered "not modified";
+   * otherwise the given response, which is buffered, if it can be cached
+   */
+  HttpResponse handle(String key, Optional<CachedResponse> cached, HttpResponse response) {
+    int statusCode = response.getStatusLine().getStatusCode();
+    if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached.isPresent()) {
+      hitCount.incrementAndGet();
+      EntityUtils.consumeQuietly(response.getEntity());
+      response.setStatusCode(HttpStatus.SC_OK);
+      response.setEntity(cached.get().toEntity());
+      return response;
+    }
+    missCount.incrementAndGet();
+    Optional<String> etag = headerValue(response, HttpHeaders.ETAG);
+    Optional<String> lastModified = headerValue(response, HttpHeaders.LAST_MODIFIED);
+    boolean noStore = headerValue(response, HttpHeaders.CACHE_CONTROL).or("").contains("no-store");
+    HttpEntity entity = response.getEntity();
+    if (statusCode == HttpStatus.SC_OK && entity != null && !noStore &&
+        (etag.isPresent() || lastModified.isPresent())) {
+      CachedResponse newCached =
+          new CachedResponse(toByteArray(entity), ContentType.get(entity), etag, lastModified);
+      cache.put(key, newCached);
+      response.setEntity(newCached.toEntity());
+    } else if (cached.isPresent()) {
+      cache.invalidate(key);
+    }
+    return response;
+  }
+
+  private static byte[] toByteArray(HttpEntity entity) {
+    try {
+      return EntityUtils.toByteArray(entity);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Optional<String> headerValue(HttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    if (header == null) {
+      return Optional.absent();
+    }
+    return Optional.fromNullable(Strings.emptyToNull(header.getValue()));
+  }
+
+  static class CachedResponse {
+    private final byte[] body;
+    private final ContentType contentType;
+    private final Optional<String> etag;
+    private final Optional<String> lastModified;
+
+    CachedResponse(byte[] body, ContentType contentType, Optional<String> etag,
+        Optional<String> lastModified) {
+      this.body = body;
+      this.contentType = contentType;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    HttpEntity toEntity() {
+      return new ByteArrayEntity(body, contentType);
+    }
+  }
+
+  public static class Builder {
+
+    private long maximumSize = 100;
+    private long expireAfterWriteMillis = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * @param maximumSize number of cached responses; default is 100
+     */
+    public Builder withMaximumSize(long maximumSize) {
+      Preconditions.checkArgument(maximumSize > 0, "maximumSize must be > 0");
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * @param duration after responses are evicted; default is one hour
+     */
+    public Builder withExpireAfterWrite(long duration, TimeUnit unit) {
+      Preconditions.checkArgument(duration > 0, "duration must be > 0");
+      this.expireAfterWriteMillis = unit.toMillis(duration);
+      return this;
+    }
+
+    public ResponseCache build() {
+      return new ResponseCache(this);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
+import org.apache.http.HttpStatus;
+import org.apache.http.conn.ConnectTimeoutException;
+
+/**
+ * Decides if and when a failed request is sent again. Delays grow exponentially with random
+ * jitter; a <code>Retry-After</code> of the server is respected.
+ * <p>
+ * A {@link Post} is only retried, if the failure signals that the server has not processed it:
+ * the connection could not be established, the status is 429 or 503, or the failure matches
+ * {@link Builder#retryOn(Predicate)}. Thus edits are never sent twice because of a lost response.
+ * <p>
+ * A failure of the processor of a response, e.g. at an invalid body, is only retried if it matches
+ * {@link Builder#retryOn(Predicate)}, because the processor may have kept a part of the response.
+ * A failure of the connection while a {@link ReturningStreamProcessor} reads the body is retried
+ * like one before the body was read.
+ */
+@Beta
+public class RetryPolicy {
+
+  private static final ImmutableSet<Integer> REJECTED_STATUS =
+      ImmutableSet.of(429, HttpStatus.SC_SERVICE_UNAVAILABLE);
+
+  private static final RetryPolicy NONE = builder().withMaxAttempts(1).build();
+
+  private final int maxAttempts;
+  private final long initialDelayMillis;
+  private final long maxDelayMillis;
+  private final ImmutableSet<Integer> retryStatus;
+  private final Predicate<? super RuntimeException> retryOn;
+
+  private RetryPolicy(Builder builder) {
+    maxAttempts = builder.maxAttempts;
+    initialDelayMillis = builder.initialDelayMillis;
+    maxDelayMillis = builder.maxDelayMillis;
+    retryStatus = builder.retryStatus;
+    retryOn = builder.retryOn;
+  }
+
+  /**
+   * @return a policy which never retries
+   */
+  public static RetryPolicy none() {
+    return NONE;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @param attempt          number of the failed attempt; starting with 1
+   * @param failure          of this attempt
+   * @param action           which has failed
+   * @param retryAfterMillis requested by the server
+   * @return the delay before the next attempt or absent, if the failure should be thrown
+   */
+  public Optional<Long> getDelayMillis(int attempt, RuntimeException failure, HttpAction action,
+      Optional<Long> retryAfterMillis) {
+    if (attempt >= maxAttempts || !isRetryable(failure, action)) {
+      return Optional.absent();
+    }
+    long backoff = (long) Math.min(maxDelayMillis, initialDelayMillis * Math.pow(2, attempt - 1));
+    long jittered = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    if (retryAfterMillis.isPresent()) {
+      return Optional.of(Math.max(jittered, Math.min(retryAfterMillis.get(), maxDelayMillis)));
+    }
+    return Optional.of(jittered);
+  }
+
+  /**
+   * @return true, if a failure thrown by the processor of a response may be retried at all
+   */
+  boolean isRetryableWhileProcessing(RuntimeException failure) {
+    return retryOn.apply(failure);
+  }
+
+  private boolean isRetryable(RuntimeException failure, HttpAction action) {
+    boolean idempotent = !(action instanceof Post);
+    if (retryOn.apply(failure)) {
+      return true;
+    } else if (failure instanceof HttpStatusException) {
+      int statusCode = ((HttpStatusException) failure).getStatusCode();
+      return retryStatus.contains(statusCode) &&
+          (idempotent || REJECTED_STATUS.contains(statusCode));
+    }
+    Throwable cause = failure.getCause();
+    if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+      return true;
+    } else if (cause instanceof IOException && !(cause instanceof InterruptedIOException)) {
+      return idempotent;
+    }
+    return false;
+  }
+
+  public static class Builder {
+
+    private int maxAttempts = 5;
+    private long initialDelayMillis = TimeUnit.SECONDS.toMillis(1);
+    private long maxDelayMillis = TimeUnit.MINUTES.toMillis(2);
+    private ImmutableSet<Integer> retryStatus = ImmutableSet.of(429, //
+        HttpStatus.SC_BAD_GATEWAY, HttpStatus.SC_SERVICE_UNAVAILABLE,
+        HttpStatus.SC_GATEWAY_TIMEOUT);
+    private Predicate<? super RuntimeException> retryOn = Predicates.alwaysFalse();
+
+    /**
+     * @param maxAttempts including the first one
+     */
+    public Builder withMaxAttempts(int maxAttempts) {
+      Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be > 0");
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * @param initialDelay before the first retry; doubled for every further retry
+     * @param maxDelay     upper bound of all delays, including <code>Retry-After</code>
+     */
+    public Builder withBackoff(long initialDelay, long maxDelay, TimeUnit unit) {
+      Preconditions.checkArgument(initialDelay > 0, "initialDelay must be > 0");
+      Preconditions.checkArgument(maxDelay >= initialDelay, "maxDelay must be >= initialDelay");
+      this.initialDelayMillis = unit.toMillis(initialDelay);
+      this.maxDelayMillis = unit.toMillis(maxDelay);
+      return this;
+    }
+
+    /**
+     * @param statusCodes which are retried; defaults are 429, 502, 503 and 504
+     */
+    public Builder retryOnStatus(int... statusCodes) {
+      this.retryStatus = ImmutableSet.copyOf(Ints.asList(statusCodes));
+      return this;
+    }
+
+    /**
+     * Failures matching this predicate are retried for every kind of request. Use it only for
+     * failures which signal that a request was rejected, e.g. MediaWiki's <code>maxlag</code>.
+     */
+    public Builder retryOn(Predicate<? super RuntimeException> failures) {
+      this.retryOn = failures;
+      return this;
+    }
+
+    public RetryPolicy build() {
+      return new RetryPolicy(this);
+    }
+  }
+}
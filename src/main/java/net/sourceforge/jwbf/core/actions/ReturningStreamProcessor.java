@@ -0,0 +1,28 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import com.google.common.annotations.Beta;
+import net.sourceforge.jwbf.core.actions.util.HttpAction;
+
+/**
+ * Can be implemented by a {@link ReturningTextProcessor} to read the response body directly,
+ * instead of receiving it as one {@link String}. Useful for large responses, because the body is
+ * not copied in memory before parsing.
+ * <p>
+ * If the connection fails while the body is read, the request may be sent again; so a processor
+ * must discard, what it has kept from an earlier body of the same action.
+ */
+@Beta
+public interface ReturningStreamProcessor {
+
+  /**
+   * @param body    the returning content; is closed by the caller
+   * @param charset of the requesting action
+   * @return the retruning text or a modification of it
+   */
+  String processReturningStream(InputStream body, Charset charset, HttpAction action)
+      throws IOException;
+}
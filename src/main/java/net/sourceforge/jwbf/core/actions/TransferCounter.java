@@ -0,0 +1,172 @@
+package net.sourceforge.jwbf.core.actions;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.annotations.Beta;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Counts the bytes of all response bodies; as received from the wire (maybe compressed) and after
+ * decoding. Only bytes which are read by a response processor are counted. The counts of one
+ * response are kept in the {@link HttpContext} of its request, so they are still known, if the
+ * entity is replaced later, e.g. by a {@link ResponseCache}.
+ */
+@Beta
+public class TransferCounter {
+
+  private static final String WIRE_BYTES = TransferCounter.class.getName() + ".wire";
+  private static final String CONTENT_BYTES = TransferCounter.class.getName() + ".content";
+
+  private final AtomicLong wireBytes = new AtomicLong();
+  private final AtomicLong contentBytes = new AtomicLong();
+
+  /**
+   * @return number of received body bytes, before decompression
+   */
+  public long getWireBytes() {
+    return wireBytes.get();
+  }
+
+  /**
+   * @return number of received body bytes, after decompression
+   */
+  public long getContentBytes() {
+    return contentBytes.get();
+  }
+
+  /**
+   * Adds interceptors which wrap the response entity before and after content decoding.
+   */
+  void registerWith(HttpClientBuilder clientBuilder) {
+    clientBuilder.addInterceptorFirst(new HttpResponseInterceptor() {
+      @Override
+      public void process(HttpResponse response, HttpContext context) {
+        // a response without body, like 304 (not modified), is counted with 0 bytes
+        AtomicLong responseBytes = new AtomicLong();
+        context.setAttribute(WIRE_BYTES, responseBytes);
+        context.setAttribute(CONTENT_BYTES, new AtomicLong());
+        HttpEntity entity = response.getEntity();
+        if (entity != null) {
+          response.setEntity(new CountingEntity(entity, wireBytes, responseBytes));
+        }
+      }
+    });
+    clientBuilder.addInterceptorLast(new HttpResponseInterceptor() {
+      @Override
+      public void process(HttpResponse response, HttpContext context) {
+        HttpEntity entity = response.getEntity();
+        Object responseBytes = context.getAttribute(CONTENT_BYTES);
+        if (entity != null && responseBytes instanceof AtomicLong) {
+          response.setEntity(new CountingEntity(entity, contentBytes, (AtomicLong) responseBytes));
+        }
+      }
+    });
+  }
+
+  /**
+   * @param context of the request
+   * @return like "1024 bytes (4711 decoded)" or an empty string, if the response was not counted
+   */
+  static String describe(HttpContext context) {
+    long wire = wireBytesOf(context);
+    if (wire >= 0) {
+      return wire + " bytes (" + contentBytesOf(context) + " decoded)";
+    }
+    return "";
+  }
+
+  /**
+   * @param context of the request
+   * @return the number of bytes read from the wire so far or -1, if the response is not counted
+   */
+  static long wireBytesOf(HttpContext context) {
+    return bytesOf(context, WIRE_BYTES);
+  }
+
+  /**
+   * @param context of the request
+   * @return the number of decoded bytes read so far or -1, if the response is not counted
+   */
+  static long contentBytesOf(HttpContext context) {
+    return bytesOf(context, CONTENT_BYTES);
+  }
+
+  private static long bytesOf(HttpContext context, String attribute) {
+    Object bytes = context.getAttribute(attribute);
+    if (bytes instanceof AtomicLong) {
+      return ((AtomicLong) bytes).get();
+    }
+    return -1;
+  }
+
+  private static class CountingEntity extends HttpEntityWrapper {
+
+    private final AtomicLong total;
+    private final AtomicLong responseBytes;
+    private InputStream content;
+
+    CountingEntity(HttpEntity wrappedEntity, AtomicLong total, AtomicLong responseBytes) {
+      super(wrappedEntity);
+      this.total = total;
+      this.responseBytes = responseBytes;
+    }
+
+    @Override
+    public synchronized InputStream getContent() throws IOException {
+      if (content == null || !isStreaming()) {
+        content = new CountingInputStream(super.getContent());
+      }
+      return content;
+    }
+
+    private void add(long count) {
+      if (count > 0) {
+        responseBytes.addAndGet(count);
+        total.addAndGet(count);
+      }
+    }
+
+    private class CountingInputStream extends FilterInputStream {
+
+      CountingInputStream(InputStream in) {
+        super(in);
+      }
+
+      @Override
+      public int read() throws IOException {
+        int result = in.read();
+        if (result != -1) {
+          add(1);
+        }
+        return result;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        int result = in.read(b, off, len);
+        add(result);
+        return result;
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+        long result = in.skip(n);
+        add(result);
+        return result;
+      }
+
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+    }
+  }
+}
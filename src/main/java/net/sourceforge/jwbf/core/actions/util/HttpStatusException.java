@@ -0,0 +1,31 @@
+package net.sourceforge.jwbf.core.actions.util;
+
+import com.google.common.base.Optional;
+
+/**
+ * Signals a response with a client or server error status.
+ */
+public class HttpStatusException extends IllegalStateException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int statusCode;
+  private final Optional<Long> retryAfterMillis;
+
+  public HttpStatusException(String message, int statusCode, Optional<Long> retryAfterMillis) {
+    super(message);
+    this.statusCode = statusCode;
+    this.retryAfterMillis = retryAfterMillis;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  /**
+   * @return the delay requested by the server with a <code>Retry-After</code> header
+   */
+  public Optional<Long> getRetryAfterMillis() {
+    return retryAfterMillis;
+  }
+}
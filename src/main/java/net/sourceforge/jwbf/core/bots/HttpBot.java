@@ -20,6 +20,8 @@ package net.sourceforge.jwbf.core.bots;
 
 import java.net.URL;
 
+import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.sourceforge.jwbf.core.actions.ContentProcessable;
 import net.sourceforge.jwbf.core.actions.GetPage;
 import net.sourceforge.jwbf.core.actions.HttpActionClient;
@@ -53,10 +55,19 @@ public class HttpBot {
   /**
    * @return http raw content
    */
-  public synchronized String performAction(final ContentProcessable a) {
+  public String performAction(final ContentProcessable a) {
     return actionClient.performAction(a);
   }
 
+  /**
+   * @return future of the http raw content
+   * @see HttpActionClient#performActionAsync(ContentProcessable)
+   */
+  @Beta
+  public ListenableFuture<String> performActionAsync(final ContentProcessable a) {
+    return actionClient.performActionAsync(a);
+  }
+
   public static String getPage(final HttpActionClient client) {
     GetPage gp = new GetPage(client.getUrl());
     new HttpBot(client).performAction(gp);
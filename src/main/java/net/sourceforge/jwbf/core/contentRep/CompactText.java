@@ -0,0 +1,219 @@
+package net.sourceforge.jwbf.core.contentRep;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Charsets;
+import net.sourceforge.jwbf.core.internal.Checked;
+
+/**
+ * Article text, which is kept as UTF-8 bytes and decoded on demand; mostly ASCII wiki text needs
+ * half the memory of a {@link String}. The bytes may be on or off the heap.
+ * <p>
+ * {@link #charAt(int)} is fast for ASCII text and for forward scans, like a
+ * {@link java.util.regex.Matcher} does; random access into non ASCII text decodes from the last
+ * position. {@link #toString()} decodes the whole text every time. Expects valid UTF-8.
+ */
+@Beta
+public final class CompactText implements CharSequence, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient ByteBuffer utf8;
+  private transient volatile Stats stats;
+  private transient volatile Cursor cursor = new Cursor(0, 0);
+
+  private CompactText(ByteBuffer utf8) {
+    this.utf8 = utf8;
+  }
+
+  /**
+   * @param utf8 is not copied, so do not change it later
+   */
+  public static CompactText of(byte[] utf8) {
+    return new CompactText(ByteBuffer.wrap(Checked.nonNull(utf8, "utf8 bytes")));
+  }
+
+  /**
+   * @param utf8 the bytes between position and limit; e.g. a direct buffer. Is not copied, so do
+   *             not change it later
+   */
+  public static CompactText of(ByteBuffer utf8) {
+    return new CompactText(Checked.nonNull(utf8, "utf8 bytes").slice().asReadOnlyBuffer());
+  }
+
+  public static CompactText of(CharSequence text) {
+    return of(text.toString().getBytes(Charsets.UTF_8));
+  }
+
+  /**
+   * @return the number of encoded bytes
+   */
+  public int byteLength() {
+    return utf8.limit();
+  }
+
+  @Override
+  public int length() {
+    return stats().length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length()) {
+      throw new IndexOutOfBoundsException("index: " + index + ", length: " + length());
+    }
+    if (stats().ascii) {
+      return (char) utf8.get(index);
+    }
+    Cursor current = cursor;
+    if (current.charIndex > index) {
+      current = new Cursor(0, 0);
+    }
+    int charIndex = current.charIndex;
+    int byteIndex = current.byteIndex;
+    while (true) {
+      int lead = utf8.get(byteIndex) & 0xff;
+      int size = sequenceLength(lead);
+      int chars = size == 4 ? 2 : 1;
+      if (index < charIndex + chars) {
+        cursor = new Cursor(charIndex, byteIndex);
+        return decode(byteIndex, lead, size, index - charIndex);
+      }
+      charIndex += chars;
+      byteIndex += size;
+    }
+  }
+
+  private char decode(int byteIndex, int lead, int size, int surrogate) {
+    switch (size) {
+      case 1:
+        return (char) lead;
+      case 2:
+        return (char) ((lead & 0x1f) << 6 | continuation(byteIndex + 1));
+      case 3:
+        return (char) ((lead & 0x0f) << 12 | continuation(byteIndex + 1) << 6 |
+            continuation(byteIndex + 2));
+      default:
+        int codePoint = (lead & 0x07) << 18 | continuation(byteIndex + 1) << 12 |
+            continuation(byteIndex + 2) << 6 | continuation(byteIndex + 3);
+        return Character.toChars(codePoint)[surrogate];
+    }
+  }
+
+  private int continuation(int byteIndex) {
+    return utf8.get(byteIndex) & 0x3f;
+  }
+
+  private static int sequenceLength(int lead) {
+    if (lead < 0x80) {
+      return 1;
+    } else if (lead < 0xe0) {
+      return 2;
+    } else if (lead < 0xf0) {
+      return 3;
+    } else {
+      return 4;
+    }
+  }
+
+  private Stats stats() {
+    Stats current = stats;
+    if (current == null) {
+      int length = 0;
+      boolean ascii = true;
+      int byteIndex = 0;
+      while (byteIndex < utf8.limit()) {
+        int size = sequenceLength(utf8.get(byteIndex) & 0xff);
+        ascii &= size == 1;
+        length += size == 4 ? 2 : 1;
+        byteIndex += size;
+      }
+      current = new Stats(length, ascii);
+      stats = current;
+    }
+    return current;
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    if (start < 0 || end > length() || start > end) {
+      throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+    }
+    StringBuilder builder = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      builder.append(charAt(i));
+    }
+    return builder.toString();
+  }
+
+  private byte[] bytes() {
+    if (utf8.hasArray()) {
+      return Arrays.copyOfRange(utf8.array(), utf8.arrayOffset(),
+          utf8.arrayOffset() + utf8.limit());
+    }
+    byte[] bytes = new byte[utf8.limit()];
+    utf8.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    if (utf8.hasArray()) {
+      return new String(utf8.array(), utf8.arrayOffset(), utf8.limit(), Charsets.UTF_8);
+    }
+    return new String(bytes(), Charsets.UTF_8);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof CompactText) {
+      return utf8.equals(((CompactText) obj).utf8);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return utf8.hashCode();
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(bytes());
+  }
+
+  private static class Stats {
+    final int length;
+    final boolean ascii;
+
+    Stats(int length, boolean ascii) {
+      this.length = length;
+      this.ascii = ascii;
+    }
+  }
+
+  private static class Cursor {
+    final int charIndex;
+    final int byteIndex;
+
+    Cursor(int charIndex, int byteIndex) {
+      this.charIndex = charIndex;
+      this.byteIndex = byteIndex;
+    }
+  }
+
+  private static class SerializedForm implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private final byte[] utf8;
+
+    SerializedForm(byte[] utf8) {
+      this.utf8 = utf8;
+    }
+
+    private Object readResolve() {
+      return CompactText.of(utf8);
+    }
+  }
+}
@@ -4,7 +4,9 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import net.sourceforge.jwbf.mapper.PooledStringDeserializer;
 
 @JsonNaming(PropertyNamingStrategy.LowerCaseStrategy.class)
 @JsonInclude(Include.NON_DEFAULT)
@@ -22,7 +24,8 @@ public class SearchResult {
   private final String sectionSnippet;
   private final String sectionTitle;
 
-  public SearchResult(@JsonProperty("ns") int ns, @JsonProperty("title") String title,
+  public SearchResult(@JsonProperty("ns") int ns,
+      @JsonProperty("title") @JsonDeserialize(using = PooledStringDeserializer.class) String title,
       @JsonProperty("size") int size, @JsonProperty("wordcount") int wordCount,
       @JsonProperty("timestamp") String timestamp, @JsonProperty("snippet") String snippet,
       @JsonProperty("titlesnippet") String titleSnippet,
@@ -19,6 +19,8 @@
 package net.sourceforge.jwbf.core.contentRep;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.Objects;
@@ -28,6 +30,7 @@ import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
+import net.sourceforge.jwbf.core.internal.Checked;
 import net.sourceforge.jwbf.core.internal.TimeConverter;
 
 /**
@@ -42,6 +45,11 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
   private String title = "";
   private String editSummary = "";
   private String text = "";
+  /**
+   * Not serialized; {@link #writeObject(ObjectOutputStream)} writes it as {@link #text}, like
+   * before compact texts existed.
+   */
+  private transient CompactText compactText = null;
   private String editor = "";
   private boolean minorEdit = false;
   private long editTimestamp = newZeroDate().getTime();
@@ -71,7 +79,12 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
           getClass().getCanonicalName() + ", because its very expensive");
     }
     title = Optional.fromNullable(ca.getTitle()).or("");
-    text = Optional.fromNullable(ca.getText()).or("");
+    if (ca instanceof SimpleArticle && ((SimpleArticle) ca).compactText != null) {
+      compactText = ((SimpleArticle) ca).compactText;
+      text = null;
+    } else {
+      text = Optional.fromNullable(ca.getText()).or("");
+    }
     editSummary = Optional.fromNullable(ca.getEditSummary()).or("");
     editor = Optional.fromNullable(ca.getEditor()).or("");
 
@@ -171,12 +184,37 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
    */
   @Override
   public String getText() {
+    if (compactText != null) {
+      text = compactText.toString();
+      compactText = null;
+    }
+    return text;
+  }
+
+  /**
+   * @return the text without decoding a {@link CompactText} into a {@link String}
+   */
+  @Beta
+  public CharSequence getTextSequence() {
+    if (compactText != null) {
+      return compactText;
+    }
     return text;
   }
 
   @Override
   public void setText(final String text) {
     this.text = text;
+    compactText = null;
+  }
+
+  /**
+   * Keeps the text as UTF-8 bytes until {@link #getText()} is called.
+   */
+  @Beta
+  public void setCompactText(final CompactText text) {
+    compactText = Checked.nonNull(text, "compact text");
+    this.text = null;
   }
 
   // TODO check mutation
@@ -207,7 +245,7 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
   @Beta
   @Override
   public boolean isRedirect() {
-    if (redirectPattern.matcher(text).matches()) {
+    if (redirectPattern.matcher(getTextSequence()).matches()) {
       return true;
     }
     return false;
@@ -219,14 +257,21 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
   }
 
   public void setEditTimestamp(String editTimestamp) {
-    Date parsedDate = tryParse(editTimestamp);
-    setEditTimestamp(parsedDate);
+    long millis = TimeConverter.parseIsoMillis(editTimestamp);
+    if (millis != TimeConverter.INVALID_MILLIS) {
+      this.editTimestamp = millis;
+    } else {
+      setEditTimestamp(tryParse(editTimestamp));
+    }
   }
 
   private Date tryParse(String editTimestamp) {
     Optional<Date> parsedDate = //
         TimeConverter.from(editTimestamp, TimeConverter.YYYYMMDD_T_HHMMSS_Z);
-    return parsedDate.or(TimeConverter.from(editTimestamp, "MM/dd/yy' 'HH:mm:ss")).get();
+    if (parsedDate.isPresent()) {
+      return parsedDate.get();
+    }
+    return TimeConverter.from(editTimestamp, "MM/dd/yy' 'HH:mm:ss").get();
   }
 
   public void setEditTimestamp(@Nullable Date d) {
@@ -241,7 +286,7 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
       SimpleArticle that = (SimpleArticle) obj;
       return Objects.equals(this.editTimestamp, that.editTimestamp) && //
           Objects.equals(this.revId, that.revId) && //
-          Objects.equals(this.text, that.text) && //
+          textEquals(getTextSequence(), that.getTextSequence()) && //
           Objects.equals(this.title, that.title) //
           ;
     } else {
@@ -254,7 +299,7 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
     return MoreObjects.toStringHelper(this) //
         .add("title", title) //
         .add("editSummary", editSummary) // XXX check equals
-        .add("text", text) //
+        .add("text", getTextSequence()) //
         .add("editor", editor) // XXX check equals
         .add("minorEdit", minorEdit) // XXX check equals
         .add("editTimestamp", editTimestamp) //
@@ -264,7 +309,53 @@ public class SimpleArticle implements ArticleMeta, Serializable, ContentSetable
 
   @Override
   public int hashCode() {
-    return Objects.hash(editTimestamp, revId, text, title);
+    return Objects.hash(editTimestamp, revId, textHashCode(getTextSequence()), title);
+  }
+
+  /**
+   * Compares a {@link CompactText} without decoding it into a {@link String}.
+   */
+  private static boolean textEquals(@Nullable CharSequence a, @Nullable CharSequence b) {
+    if (a == null || b == null) {
+      return a == b;
+    } else if (a.getClass() == b.getClass()) {
+      return a.equals(b);
+    } else if (a.length() != b.length()) {
+      return false;
+    }
+    for (int i = 0; i < a.length(); i++) {
+      if (a.charAt(i) != b.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return like {@link String#hashCode()}, so that equal texts have equal hashes in both forms
+   */
+  private static int textHashCode(@Nullable CharSequence text) {
+    if (text == null || text instanceof String) {
+      return Objects.hashCode(text);
+    }
+    int hash = 0;
+    for (int i = 0; i < text.length(); i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    return hash;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    if (compactText == null) {
+      out.defaultWriteObject();
+    } else {
+      text = compactText.toString();
+      try {
+        out.defaultWriteObject();
+      } finally {
+        text = null;
+      }
+    }
   }
 
   /**
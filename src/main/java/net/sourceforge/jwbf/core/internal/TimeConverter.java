@@ -1,5 +1,6 @@
 package net.sourceforge.jwbf.core.internal;
 
+import javax.annotation.CheckForNull;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -7,14 +8,27 @@ import java.util.TimeZone;
 
 import com.google.common.base.Optional;
 
+/**
+ * Converts MediaWiki timestamps. The {@link #YYYYMMDD_T_HHMMSS_Z} format is parsed and formatted
+ * without a {@link SimpleDateFormat}; all methods are thread safe.
+ */
 public class TimeConverter {
 
   public static final String YYYYMMDD_T_HHMMSS_Z = "yyyy-MM-dd'T'HH:mm:ss'Z'";
 
+  /**
+   * Returned by {@link #parseIsoMillis(CharSequence)} for other formats.
+   */
+  public static final long INVALID_MILLIS = Long.MIN_VALUE;
+
+  private static final int ISO_LENGTH = 20;
+  private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+  // 1583-01-01T00:00:00Z; the calendar of SimpleDateFormat is julian before october 1582
+  private static final long FIRST_GREGORIAN_MILLIS = -12212553600000L;
+  private static final long LAST_FOUR_DIGIT_MILLIS = 253402300799999L;
+
   public static String valueOf(Date date) {
-    // XXX change with java8
-    SimpleDateFormat simpleDateFormat = newFormatter(YYYYMMDD_T_HHMMSS_Z);
-    return simpleDateFormat.format(date);
+    return formatIso(date.getTime());
   }
 
   static SimpleDateFormat newFormatter(String pattern) {
@@ -24,6 +38,12 @@ public class TimeConverter {
   }
 
   public static Optional<Date> from(String timestamp, String pattern) {
+    if (YYYYMMDD_T_HHMMSS_Z.equals(pattern)) {
+      long millis = parseIsoMillis(timestamp);
+      if (millis != INVALID_MILLIS) {
+        return Optional.of(new Date(millis));
+      }
+    }
     SimpleDateFormat sdf = newFormatter(pattern);
     try {
       return Optional.of(sdf.parse(timestamp));
@@ -31,4 +51,124 @@ public class TimeConverter {
       return Optional.absent();
     }
   }
+
+  /**
+   * @param timestamp like <code>2014-10-24T18:41:45Z</code>
+   * @return the epoch millis of the timestamp or {@link #INVALID_MILLIS}, if it does not exactly
+   * match {@link #YYYYMMDD_T_HHMMSS_Z} or is before 1583
+   */
+  public static long parseIsoMillis(@CheckForNull CharSequence timestamp) {
+    if (timestamp == null || timestamp.length() != ISO_LENGTH || //
+        timestamp.charAt(4) != '-' || timestamp.charAt(7) != '-' || //
+        timestamp.charAt(10) != 'T' || timestamp.charAt(13) != ':' || //
+        timestamp.charAt(16) != ':' || timestamp.charAt(19) != 'Z') {
+      return INVALID_MILLIS;
+    }
+    int year = digits(timestamp, 0, 4);
+    int month = digits(timestamp, 5, 2);
+    int day = digits(timestamp, 8, 2);
+    int hour = digits(timestamp, 11, 2);
+    int minute = digits(timestamp, 14, 2);
+    int second = digits(timestamp, 17, 2);
+    if (year < 1583 || month < 1 || month > 12 || day < 1 || day > daysOfMonth(year, month) || //
+        hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return INVALID_MILLIS;
+    }
+    long seconds = ((daysOfEpoch(year, month, day) * 24 + hour) * 60 + minute) * 60 + second;
+    return seconds * 1000;
+  }
+
+  /**
+   * @return digits as number or a negative value, if there is a non digit
+   */
+  private static int digits(CharSequence s, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return Integer.MIN_VALUE;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static boolean isLeapYear(int year) {
+    return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+  }
+
+  private static int daysOfMonth(int year, int month) {
+    if (month == 2) {
+      return isLeapYear(year) ? 29 : 28;
+    } else if (month == 4 || month == 6 || month == 9 || month == 11) {
+      return 30;
+    }
+    return 31;
+  }
+
+  /**
+   * Days since 1970-01-01 of the given proleptic gregorian date.
+   */
+  private static long daysOfEpoch(int year, int month, int day) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = (y >= 0 ? y : y - 399) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468;
+  }
+
+  /**
+   * @return the given epoch millis in the format {@link #YYYYMMDD_T_HHMMSS_Z}
+   */
+  public static String formatIso(long millis) {
+    return appendIso(new StringBuilder(ISO_LENGTH), millis).toString();
+  }
+
+  /**
+   * Like {@link #formatIso(long)}, but appends to the given builder.
+   */
+  public static StringBuilder appendIso(StringBuilder builder, long millis) {
+    if (millis < FIRST_GREGORIAN_MILLIS || millis > LAST_FOUR_DIGIT_MILLIS) {
+      return builder.append(newFormatter(YYYYMMDD_T_HHMMSS_Z).format(new Date(millis)));
+    }
+    long days = floorDiv(millis, MILLIS_PER_DAY);
+    int secondOfDay = (int) ((millis - days * MILLIS_PER_DAY) / 1000);
+    // civil date from days, see daysOfEpoch
+    long z = days + 719468;
+    long era = floorDiv(z, 146097);
+    int dayOfEra = (int) (z - era * 146097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int mp = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+    int month = mp < 10 ? mp + 3 : mp - 9;
+    int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+
+    append(builder, year, 4).append('-');
+    append(builder, month, 2).append('-');
+    append(builder, day, 2).append('T');
+    append(builder, secondOfDay / 3600, 2).append(':');
+    append(builder, secondOfDay / 60 % 60, 2).append(':');
+    return append(builder, secondOfDay % 60, 2).append('Z');
+  }
+
+  private static StringBuilder append(StringBuilder builder, int value, int width) {
+    int divisor = 1;
+    for (int i = 1; i < width; i++) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      builder.append((char) ('0' + value / divisor % 10));
+    }
+    return builder;
+  }
+
+  private static long floorDiv(long x, long y) {
+    long result = x / y;
+    if ((x % y != 0) && ((x ^ y) < 0)) {
+      result--;
+    }
+    return result;
+  }
 }
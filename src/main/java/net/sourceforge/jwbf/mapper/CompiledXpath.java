@@ -0,0 +1,65 @@
+package net.sourceforge.jwbf.mapper;
+
+import javax.annotation.Nonnull;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+
+import net.sourceforge.jwbf.core.internal.Checked;
+import org.xml.sax.InputSource;
+
+/**
+ * An xpath expression, which is compiled once and can be evaluated by many threads. Compiled
+ * {@link XPathExpression}s are not thread safe, so every thread gets its own one on first use.
+ * Get instances with {@link XmlConverter#compileXpath(String)}.
+ */
+public final class CompiledXpath {
+
+  private static final ThreadLocal<XPath> XPATH = new ThreadLocal<XPath>() {
+    @Override
+    protected XPath initialValue() {
+      return XPathFactory.newInstance().newXPath();
+    }
+  };
+
+  private final String xpath;
+  private final ThreadLocal<XPathExpression> expression = new ThreadLocal<XPathExpression>() {
+    @Override
+    protected XPathExpression initialValue() {
+      return compile(xpath);
+    }
+  };
+
+  CompiledXpath(String xpath) {
+    this.xpath = Checked.nonNull(xpath, "xpath");
+    // fail early on invalid expressions
+    expression.get();
+  }
+
+  private static XPathExpression compile(String xpath) {
+    try {
+      return XPATH.get().compile(xpath);
+    } catch (XPathExpressionException e) {
+      throw new IllegalArgumentException("invalid xpath: " + xpath, e);
+    }
+  }
+
+  /**
+   * @return the string value of this expression in the given document; empty, if nothing matches
+   */
+  @Nonnull
+  public String evaluate(String xml) {
+    try {
+      return expression.get().evaluate(new InputSource(new StringReader(xml)));
+    } catch (XPathExpressionException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return xpath;
+  }
+}
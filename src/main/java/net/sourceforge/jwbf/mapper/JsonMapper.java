@@ -5,14 +5,23 @@ import java.io.IOException;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import net.sourceforge.jwbf.core.internal.Checked;
 
 public class JsonMapper {
 
+  private static final JacksonToJsonFunction SHARED = new JacksonToJsonFunction();
+
   private final ToJsonFunction transfomer;
 
+  /**
+   * All instances created with this constructor share one Jackson configuration and its caches.
+   */
   public JsonMapper() {
-    this(new JacksonToJsonFunction());
+    this(SHARED);
   }
 
   public <T> JsonMapper(ToJsonFunction transfomer) {
@@ -24,26 +33,53 @@ public class JsonMapper {
     return (T) Checked.nonNull(transfomer.toJson(nonNullJson, clazz), "a json mapping result");
   }
 
+  /**
+   * @return the shared reader for the given class
+   */
+  static ObjectReader readerOf(Class<?> clazz) {
+    return SHARED.readerOf(clazz);
+  }
+
   public interface ToJsonFunction {
     @Nonnull
     Object toJson(@Nonnull String jsonString, Class<?> clazz);
   }
 
+  /**
+   * Maps with one {@link ObjectReader} per class. Readers are immutable and thread-safe, so they
+   * are created once and keep Jackson's deserializer caches for all following responses.
+   */
   static class JacksonToJsonFunction implements ToJsonFunction {
 
+    private final ObjectMapper mapper = newObjectMapper();
+    private final LoadingCache<Class<?>, ObjectReader> readers = CacheBuilder.newBuilder() //
+        .build(new CacheLoader<Class<?>, ObjectReader>() {
+          @Override
+          public ObjectReader load(@Nonnull Class<?> clazz) {
+            return newReader(clazz);
+          }
+        });
+
     ObjectMapper newObjectMapper() {
-      ObjectMapper mapper = new ObjectMapper();
+      ObjectMapper objectMapper = new ObjectMapper();
       // TODO: find a better way to do this
-      mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-      return mapper;
+      objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+      return objectMapper;
+    }
+
+    ObjectReader newReader(Class<?> clazz) {
+      return mapper.reader(clazz);
+    }
+
+    ObjectReader readerOf(Class<?> clazz) {
+      return readers.getUnchecked(clazz);
     }
 
     @Nonnull
     @Override
     public Object toJson(@Nonnull String jsonString, Class<?> clazz) {
       try {
-        // ObjectMapper stores mutable data so each mapping uses a fresh instance
-        return newObjectMapper().readValue(jsonString, clazz);
+        return readerOf(clazz).readValue(jsonString);
       } catch (IOException e) {
         throw new IllegalArgumentException(e);
       }
@@ -0,0 +1,191 @@
+package net.sourceforge.jwbf.mapper;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import net.sourceforge.jwbf.core.StringPool;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+
+/**
+ * Iterates the items of one list in a JSON query response, like <code>query.search[]</code>,
+ * while they are parsed. Only the current item is bound to an object; there is no tree of the
+ * whole response. The <code>continue</code> block and the other fields of <code>query</code> are
+ * kept as small trees. An <code>error</code> is thrown as {@link ApiException}.
+ * <p>
+ * If the <code>continue</code> block or a query field is requested before it was parsed, the
+ * remaining items are parsed and buffered.
+ */
+@Beta
+public final class JsonPage<T> implements Iterator<T> {
+
+  private enum Level {
+    ROOT, QUERY, LIST, END
+  }
+
+  private final JsonParser parser;
+  private final ObjectReader itemReader;
+  private final String listName;
+  private final Deque<T> buffered = new ArrayDeque<>();
+  private final Map<String, JsonNode> queryFields = Maps.newHashMap();
+  private Optional<JsonNode> continueNode = Optional.absent();
+  private Level level = Level.ROOT;
+  private boolean atItem = false;
+
+  private JsonPage(String json, String listName, Class<T> itemClass, StringPool pool)
+      throws IOException {
+    this.listName = listName;
+    itemReader = JsonMapper.readerOf(itemClass).withAttribute(StringPool.class, pool);
+    parser = itemReader.getFactory().createParser(json);
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new IllegalArgumentException("expected a json object, but was: " + json);
+    }
+    advance();
+  }
+
+  /**
+   * @param listName like "search" for <code>query.search[]</code>
+   */
+  public static <T> JsonPage<T> of(String json, String listName, Class<T> itemClass) {
+    return of(json, listName, itemClass, StringPool.none());
+  }
+
+  /**
+   * Like {@link #of(String, String, Class)}, but item fields, which are read with a
+   * {@link PooledStringDeserializer}, are deduplicated with the given pool.
+   */
+  public static <T> JsonPage<T> of(String json, String listName, Class<T> itemClass,
+      StringPool pool) {
+    try {
+      return new JsonPage<>(json, listName, itemClass, pool);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !buffered.isEmpty() || atItem;
+  }
+
+  @Override
+  public T next() {
+    if (!buffered.isEmpty()) {
+      return buffered.poll();
+    } else if (!atItem) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return readItem();
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("do not change this iteration");
+  }
+
+  /**
+   * @param key like "sroffset"
+   * @return a value of the <code>continue</code> block
+   */
+  public Optional<String> getContinue(String key) {
+    if (!continueNode.isPresent()) {
+      parseAll();
+    }
+    if (continueNode.isPresent() && continueNode.get().hasNonNull(key)) {
+      return Optional.of(continueNode.get().get(key).asText());
+    }
+    return Optional.absent();
+  }
+
+  /**
+   * @param name like "searchinfo" for <code>query.searchinfo</code>
+   */
+  public Optional<JsonNode> getQueryField(String name) {
+    if (!queryFields.containsKey(name)) {
+      parseAll();
+    }
+    return Optional.fromNullable(queryFields.get(name));
+  }
+
+  private void parseAll() {
+    try {
+      while (atItem) {
+        buffered.add(readItem());
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  private T readItem() throws IOException {
+    T item = itemReader.readValue(parser);
+    atItem = false;
+    advance();
+    return item;
+  }
+
+  /**
+   * Moves the parser to the start of the next list item or to the end of the response.
+   */
+  private void advance() throws IOException {
+    while (level != Level.END) {
+      JsonToken token = parser.nextToken();
+      if (token == null) {
+        finish();
+      } else if (level == Level.LIST) {
+        if (token == JsonToken.END_ARRAY) {
+          level = Level.QUERY;
+        } else {
+          atItem = true;
+          return;
+        }
+      } else if (token == JsonToken.END_OBJECT) {
+        if (level == Level.QUERY) {
+          level = Level.ROOT;
+        } else {
+          finish();
+        }
+      } else {
+        readField(parser.getCurrentName(), parser.nextToken());
+      }
+    }
+  }
+
+  private void readField(String name, JsonToken value) throws IOException {
+    if (level == Level.ROOT) {
+      if (name.equals("query") && value == JsonToken.START_OBJECT) {
+        level = Level.QUERY;
+      } else if (name.equals("continue")) {
+        continueNode = Optional.<JsonNode>of(parser.<JsonNode>readValueAsTree());
+      } else if (name.equals("error")) {
+        JsonNode error = parser.readValueAsTree();
+        throw new ApiException(error.path("code").asText(), error.path("info").asText());
+      } else {
+        parser.skipChildren();
+      }
+    } else if (name.equals(listName) && value == JsonToken.START_ARRAY) {
+      level = Level.LIST;
+    } else {
+      queryFields.put(name, parser.<JsonNode>readValueAsTree());
+    }
+  }
+
+  private void finish() throws IOException {
+    level = Level.END;
+    parser.close();
+  }
+}
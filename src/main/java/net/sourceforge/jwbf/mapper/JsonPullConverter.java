@@ -0,0 +1,131 @@
+package net.sourceforge.jwbf.mapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableSet;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps JSON responses while they are parsed, like {@link XmlPullConverter} does for XML. Fields
+ * are selected by their dotted path from the root object, like <code>query.categorymembers</code>;
+ * only the selected values are read as (small) trees, everything else is skipped. If a selected
+ * value is an array, each of its elements is visited. An <code>error</code> object of the root is
+ * thrown as {@link ApiException}.
+ * <pre>
+ * JsonPullConverter.visit(json, new JsonPullConverter.Visitor() {
+ *   public void visit(String path, JsonNode node) {
+ *     titles.add(node.path("title").asText());
+ *   }
+ * }, "query.categorymembers");
+ * </pre>
+ */
+public final class JsonPullConverter {
+
+  private static final Logger log = LoggerFactory.getLogger(JsonPullConverter.class);
+
+  private static final String ERROR = "error";
+
+  private JsonPullConverter() {
+    // do nothing
+  }
+
+  public interface Visitor {
+    void visit(String path, JsonNode node);
+  }
+
+  /**
+   * Visits all values with one of the given paths in document order.
+   */
+  public static void visit(String json, Visitor visitor, String... paths) {
+    try {
+      visit(factory().createParser(json), visitor, paths);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(json + " is no valid json", e);
+    }
+  }
+
+  /**
+   * Like {@link #visit(String, Visitor, String...)}, but parses the given stream without reading
+   * it into a {@link String} first. UTF-8 bytes are decoded by the parser itself.
+   */
+  public static void visit(InputStream json, Charset charset, Visitor visitor, String... paths) {
+    try {
+      if (Charsets.UTF_8.equals(charset)) {
+        visit(factory().createParser(json), visitor, paths);
+      } else {
+        visit(factory().createParser(new InputStreamReader(json, charset)), visitor, paths);
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid JSON", e);
+    }
+  }
+
+  private static JsonFactory factory() {
+    return JsonMapper.readerOf(JsonNode.class).getFactory();
+  }
+
+  private static void visit(JsonParser parser, Visitor visitor, String... paths)
+      throws IOException {
+    try {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("expected a json object");
+      }
+      ImmutableSet<String> pathSet = ImmutableSet.copyOf(paths);
+      visitObject(parser, "", visitor, pathSet, parentsOf(pathSet));
+    } finally {
+      parser.close();
+    }
+  }
+
+  private static ImmutableSet<String> parentsOf(ImmutableSet<String> paths) {
+    ImmutableSet.Builder<String> parents = ImmutableSet.builder();
+    for (String path : paths) {
+      int index = path.indexOf('.');
+      while (index > 0) {
+        parents.add(path.substring(0, index));
+        index = path.indexOf('.', index + 1);
+      }
+    }
+    return parents.build();
+  }
+
+  private static void visitObject(JsonParser parser, String prefix, Visitor visitor,
+      ImmutableSet<String> paths, ImmutableSet<String> parents) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String path = prefix + parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (prefix.isEmpty() && ERROR.equals(path)) {
+        throw toApiException(parser.<JsonNode>readValueAsTree());
+      } else if (paths.contains(path)) {
+        if (value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            visitor.visit(path, parser.<JsonNode>readValueAsTree());
+          }
+        } else {
+          visitor.visit(path, parser.<JsonNode>readValueAsTree());
+        }
+      } else if (value == JsonToken.START_OBJECT && parents.contains(path)) {
+        visitObject(parser, path + ".", visitor, paths, parents);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static ApiException toApiException(JsonNode error) {
+    String code = error.path("code").asText();
+    String info = error.path("info").asText();
+    log.error(code + ": " + info);
+    return new ApiException(code, info);
+  }
+}
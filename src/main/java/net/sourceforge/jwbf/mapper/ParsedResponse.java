@@ -0,0 +1,222 @@
+package net.sourceforge.jwbf.mapper;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import net.sourceforge.jwbf.core.internal.Checked;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+
+/**
+ * One api response, which is created once per http exchange and passed to every step that reads
+ * it; e.g. to the element and to the continuation extraction of a query. The response text is
+ * parsed at most once:
+ * <ul>
+ * <li>{@link #getRootElement()} builds the document tree on first use and keeps it.</li>
+ * <li>{@link #visit(XmlPullConverter.Visitor, String...)} and
+ * {@link #visitJson(JsonPullConverter.Visitor, String...)} build no tree, but remember the
+ * <code>continue</code> values they pass by; see {@link #getVisitedContinue()}.</li>
+ * </ul>
+ * A response can also be created from the bytes of the response body; they are fed to the parsers
+ * directly and only decoded to a {@link String}, if {@link #getText()} is called. Instances are
+ * not thread safe.
+ */
+@Beta
+public final class ParsedResponse {
+
+  private static final String CONTINUE = "continue";
+  private static final String QUERY_CONTINUE = "query-continue";
+
+  private final byte[] body;
+  private final Charset charset;
+  private String text;
+  private Optional<XmlElement> rootElement = null;
+  private ImmutableMap<String, String> continueValues = null;
+  private boolean hasQueryContinue = false;
+
+  private ParsedResponse(String text) {
+    this.text = Checked.nonNull(text, "response text");
+    this.body = null;
+    this.charset = null;
+  }
+
+  private ParsedResponse(byte[] body, Charset charset) {
+    this.body = Checked.nonNull(body, "response body");
+    this.charset = Checked.nonNull(charset, "charset");
+  }
+
+  public static ParsedResponse of(String text) {
+    return new ParsedResponse(text);
+  }
+
+  /**
+   * @param body of the response; is not copied, so do not change it later
+   */
+  public static ParsedResponse of(byte[] body, Charset charset) {
+    return new ParsedResponse(body, charset);
+  }
+
+  public String getText() {
+    if (text == null) {
+      text = new String(body, charset);
+    }
+    return text;
+  }
+
+  /**
+   * @return true, if the response text is available without decoding the body
+   */
+  public boolean isTextDecoded() {
+    return text != null;
+  }
+
+  /**
+   * @return true, if the document tree was built
+   */
+  public boolean isTreeParsed() {
+    return rootElement != null;
+  }
+
+  /**
+   * Like {@link XmlConverter#getRootElementWithError(String)}.
+   */
+  @Nonnull
+  public XmlElement getRootElementWithError() {
+    Optional<XmlElement> root = parseTree();
+    if (!root.isPresent()) {
+      throw new IllegalArgumentException("Invalid XML: " + getText());
+    }
+    return root.get();
+  }
+
+  private Optional<XmlElement> parseTree() {
+    if (rootElement == null) {
+      if (body != null) {
+        rootElement = XmlConverter.getRootElementWithErrorOpt(bodyStream(), charset);
+      } else {
+        rootElement = XmlConverter.getRootElementWithErrorOpt(text);
+      }
+    }
+    return rootElement;
+  }
+
+  private InputStream bodyStream() {
+    return new ByteArrayInputStream(body);
+  }
+
+  /**
+   * Like {@link XmlConverter#getRootElement(String)}.
+   */
+  @Nonnull
+  public XmlElement getRootElement() {
+    if (!parseTree().isPresent()) {
+      throw new IllegalArgumentException(getText() + " is no valid xml");
+    }
+    Optional<ApiException> apiException = XmlConverter.getErrorElement(rootElement.get()) //
+        .transform(XmlConverter.toApiException());
+    if (apiException.isPresent()) {
+      throw apiException.get();
+    }
+    return rootElement.get();
+  }
+
+  /**
+   * Like {@link XmlConverter#getChildOpt(String, String, String...)}.
+   */
+  public Optional<XmlElement> getChildOpt(String first, String... childNames) {
+    XmlElement child = XmlConverter.getChild(getRootElement(), //
+        ImmutableList.<String>builder().add(first).add(childNames).build());
+    if (child == null || XmlElement.NULL_XML == child) {
+      return Optional.absent();
+    }
+    return Optional.of(child);
+  }
+
+  /**
+   * Like {@link XmlPullConverter#visit(String, XmlPullConverter.Visitor, String...)}.
+   */
+  public void visit(final XmlPullConverter.Visitor visitor, String... elementNames) {
+    final ImmutableMap.Builder<String, String> values = ImmutableMap.builder();
+    final ImmutableList<String> names = ImmutableList.copyOf(elementNames);
+    hasQueryContinue = false;
+    XmlPullConverter.Visitor continueVisitor = new XmlPullConverter.Visitor() {
+      @Override
+      public void visit(XmlPullElement element) {
+        boolean isChildOfRoot = element.getParentName().equals("api");
+        if (isChildOfRoot && element.getName().equals(CONTINUE)) {
+          values.putAll(element.getAttributes());
+        } else if (isChildOfRoot && element.getName().equals(QUERY_CONTINUE)) {
+          hasQueryContinue = true;
+        }
+        if (names.contains(element.getName())) {
+          visitor.visit(element);
+        }
+      }
+    };
+    String[] visitedNames = ImmutableList.<String>builder() //
+        .addAll(names).add(CONTINUE, QUERY_CONTINUE).build().toArray(new String[0]);
+    if (body != null) {
+      XmlPullConverter.visit(bodyStream(), charset, continueVisitor, visitedNames);
+    } else {
+      XmlPullConverter.visit(text, continueVisitor, visitedNames);
+    }
+    continueValues = values.build();
+  }
+
+  /**
+   * Like {@link JsonPullConverter#visit(String, JsonPullConverter.Visitor, String...)}.
+   */
+  public void visitJson(final JsonPullConverter.Visitor visitor, String... paths) {
+    final ImmutableMap.Builder<String, String> values = ImmutableMap.builder();
+    final ImmutableList<String> pathList = ImmutableList.copyOf(paths);
+    hasQueryContinue = false;
+    JsonPullConverter.Visitor continueVisitor = new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode node) {
+        if (path.equals(CONTINUE)) {
+          Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+          while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            values.put(field.getKey(), field.getValue().asText());
+          }
+        }
+        if (pathList.contains(path)) {
+          visitor.visit(path, node);
+        }
+      }
+    };
+    String[] visitedPaths = ImmutableList.<String>builder() //
+        .addAll(pathList).add(CONTINUE).build().toArray(new String[0]);
+    if (body != null) {
+      JsonPullConverter.visit(bodyStream(), charset, continueVisitor, visitedPaths);
+    } else {
+      JsonPullConverter.visit(text, continueVisitor, visitedPaths);
+    }
+    continueValues = values.build();
+  }
+
+  /**
+   * @return the values of the <code>continue</code> element or object, which were seen by the last
+   * visit; empty, if it had none. Absent, if there was no visit yet or the continuation is only
+   * found in an old style <code>query-continue</code> element.
+   */
+  public Optional<ImmutableMap<String, String>> getVisitedContinue() {
+    if (continueValues == null || (continueValues.isEmpty() && hasQueryContinue)) {
+      return Optional.absent();
+    }
+    return Optional.of(continueValues);
+  }
+
+  @Override
+  public String toString() {
+    return getText();
+  }
+}
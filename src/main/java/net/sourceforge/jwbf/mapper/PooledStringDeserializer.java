@@ -0,0 +1,33 @@
+package net.sourceforge.jwbf.mapper;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import net.sourceforge.jwbf.core.StringPool;
+
+/**
+ * Reads strings through the {@link StringPool}, which is set as reader attribute with the key
+ * <code>StringPool.class</code>; see {@link JsonPage#of(String, String, Class, StringPool)}.
+ * Without that attribute, strings are returned unchanged.
+ */
+public class PooledStringDeserializer extends StdScalarDeserializer<String> {
+
+  private static final long serialVersionUID = 1L;
+
+  public PooledStringDeserializer() {
+    super(String.class);
+  }
+
+  @Override
+  public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    String value = StringDeserializer.instance.deserialize(p, ctxt);
+    Object pool = ctxt.getAttribute(StringPool.class);
+    if (pool instanceof StringPool) {
+      return ((StringPool) pool).intern(value);
+    }
+    return value;
+  }
+}
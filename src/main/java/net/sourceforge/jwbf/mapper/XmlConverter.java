@@ -2,23 +2,23 @@ package net.sourceforge.jwbf.mapper;
 
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathExpression;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import net.sourceforge.jwbf.core.Optionals;
 import net.sourceforge.jwbf.core.actions.util.ActionException;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
-import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
 import org.jdom2.Document;
 import org.jdom2.JDOMException;
@@ -35,6 +35,15 @@ public final class XmlConverter {
 
   private static final Logger log = LoggerFactory.getLogger(XmlConverter.class);
 
+  private static final LoadingCache<String, CompiledXpath> XPATHS = CacheBuilder.newBuilder() //
+      .maximumSize(128) //
+      .build(new CacheLoader<String, CompiledXpath>() {
+        @Override
+        public CompiledXpath load(@Nonnull String xpath) {
+          return new CompiledXpath(xpath);
+        }
+      });
+
   public static Function<XmlElement, ApiException> toApiException() {
     return new NonnullFunction<XmlElement, ApiException>() {
       @Nonnull
@@ -63,7 +72,7 @@ public final class XmlConverter {
       SAXBuilder builder = new SAXBuilder();
       org.jdom2.Element root;
       try {
-        Document doc = builder.build(new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8)));
+        Document doc = builder.build(new StringReader(xml));
 
         root = doc.getRootElement();
 
@@ -82,6 +91,32 @@ public final class XmlConverter {
     }
   }
 
+  @Nonnull
+  private static XmlElement getRootElementWithError(InputStream xml, Charset charset) {
+    return Optionals.getOrThrow(getRootElementWithErrorOpt(xml, charset), "Invalid XML");
+  }
+
+  /**
+   * Like {@link #getRootElementWithErrorOpt(String)}, but the parser decodes the given bytes
+   * itself.
+   */
+  static Optional<XmlElement> getRootElementWithErrorOpt(InputStream xml, Charset charset) {
+    InputSource source = new InputSource(xml);
+    source.setEncoding(charset.name());
+    try {
+      org.jdom2.Element root = new SAXBuilder().build(source).getRootElement();
+      if (root == null) {
+        throw new ActionException("no root element found");
+      }
+      return Optional.of(new XmlElement(root));
+    } catch (JDOMException e) {
+      log.error("Invalid XML", e);
+      return Optional.absent();
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
   /**
    * Determines if the given XML Document contains an error message which then would printed by the
    * logger.
@@ -112,16 +147,25 @@ public final class XmlConverter {
     return rootXmlElement.get();
   }
 
+  /**
+   * Like {@link CompiledXpath#evaluate(String)}; the expression is taken from a bounded cache of
+   * compiled expressions. Prefer to keep the result of {@link #compileXpath(String)} for
+   * expressions that are evaluated often.
+   */
   public static String evaluateXpath(String xml, String xpath) {
-    XPath parser = XPathFactory.newInstance().newXPath();
+    return compileXpath(xpath).evaluate(xml);
+  }
+
+  /**
+   * @return a compiled and thread safe form of the given expression
+   * @throws IllegalArgumentException if the expression is invalid
+   */
+  public static CompiledXpath compileXpath(String xpath) {
     try {
-      XPathExpression titleParser = parser.compile(xpath);
-      ByteArrayInputStream byteStream //
-          = new ByteArrayInputStream(xml.getBytes(MediaWiki.getCharset()));
-      InputSource in = new InputSource(byteStream);
-      return titleParser.evaluate(in);
-    } catch (XPathExpressionException | UnsupportedEncodingException e) {
-      throw new IllegalArgumentException(e);
+      return XPATHS.getUnchecked(xpath);
+    } catch (UncheckedExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), IllegalArgumentException.class);
+      throw e;
     }
   }
 
@@ -147,8 +191,23 @@ public final class XmlConverter {
     return getChild(rootElement, names);
   }
 
+  /**
+   * Like {@link #getChildOpt(String, String, String...)}, but parses the given stream without
+   * reading it into a {@link String} first.
+   */
+  public static Optional<XmlElement> getChildOpt(InputStream xml, Charset charset, String first,
+      String... childNames) {
+    XmlElement rootElement = getChecked(getRootElementWithError(xml, charset));
+    XmlElement child = getChild(rootElement, //
+        ImmutableList.<String>builder().add(first).add(childNames).build());
+    if (XmlElement.NULL_XML == child) {
+      return Optional.absent();
+    }
+    return Optional.fromNullable(child);
+  }
+
   @CheckForNull
-  private static XmlElement getChild(XmlElement element, ImmutableList<String> names) {
+  static XmlElement getChild(XmlElement element, ImmutableList<String> names) {
     if (element == null) {
       return null;
     } else if (names.isEmpty()) {
@@ -165,7 +224,10 @@ public final class XmlConverter {
   }
 
   public static XmlElement getChecked(String xml) {
-    XmlElement root = getRootElementWithError(xml);
+    return getChecked(getRootElementWithError(xml));
+  }
+
+  private static XmlElement getChecked(XmlElement root) {
     Optional<ApiException> error = root.getErrorElement().transform(toApiException());
     if (error.isPresent()) {
       throw error.get();
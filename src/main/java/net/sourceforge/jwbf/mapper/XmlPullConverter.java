@@ -0,0 +1,116 @@
+package net.sourceforge.jwbf.mapper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps XML responses while they are parsed; unlike {@link XmlConverter} no document tree is built
+ * and only the elements with the requested names are visited. Like
+ * {@link XmlConverter#getRootElement(String)} an <code>error</code> below the root element is
+ * thrown as {@link ApiException}.
+ * <pre>
+ * XmlPullConverter.visit(xml, new XmlPullConverter.Visitor() {
+ *   public void visit(XmlPullElement element) {
+ *     titles.add(element.getAttributeValue("title"));
+ *   }
+ * }, "cm");
+ * </pre>
+ */
+public final class XmlPullConverter {
+
+  private static final Logger log = LoggerFactory.getLogger(XmlPullConverter.class);
+
+  private static final String ERROR = "error";
+
+  private static final XMLInputFactory FACTORY = newFactory();
+
+  private XmlPullConverter() {
+    // do nothing
+  }
+
+  public interface Visitor {
+    void visit(XmlPullElement element);
+  }
+
+  private static XMLInputFactory newFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  }
+
+  /**
+   * Visits all elements with one of the given names in document order.
+   */
+  public static void visit(String xml, Visitor visitor, String... elementNames) {
+    try {
+      XMLStreamReader reader = FACTORY.createXMLStreamReader(new StringReader(xml));
+      visit(reader, visitor, ImmutableSet.copyOf(elementNames));
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException(xml + " is no valid xml", e);
+    }
+  }
+
+  /**
+   * Like {@link #visit(String, Visitor, String...)}, but parses the given stream without reading
+   * it into a {@link String} first.
+   */
+  public static void visit(InputStream xml, Charset charset, Visitor visitor,
+      String... elementNames) {
+    try {
+      XMLStreamReader reader = FACTORY.createXMLStreamReader(xml, charset.name());
+      visit(reader, visitor, ImmutableSet.copyOf(elementNames));
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("Invalid XML", e);
+    }
+  }
+
+  private static void visit(XMLStreamReader reader, Visitor visitor,
+      ImmutableSet<String> elementNames) throws XMLStreamException {
+    Deque<String> path = new ArrayDeque<>();
+    try {
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String name = reader.getLocalName();
+          if (path.size() == 1 && ERROR.equals(name)) {
+            throw toApiException(reader);
+          }
+          if (elementNames.contains(name)) {
+            XmlPullElement element = new XmlPullElement(reader, Strings.nullToEmpty(path.peek()));
+            visitor.visit(element);
+            if (element.isTextRead()) {
+              continue;
+            }
+          }
+          path.push(name);
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          path.pop();
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static ApiException toApiException(XMLStreamReader reader) {
+    String code = reader.getAttributeValue(null, "code");
+    String info = reader.getAttributeValue(null, "info");
+    log.error(code + ": " + info);
+    return new ApiException(code, info);
+  }
+}
@@ -0,0 +1,82 @@
+package net.sourceforge.jwbf.mapper;
+
+import javax.annotation.CheckForNull;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import net.sourceforge.jwbf.core.internal.Checked;
+
+/**
+ * The current start element of a {@link XmlPullConverter}; it has no children, because no
+ * document tree is built. An instance is only valid while it is visited.
+ */
+public final class XmlPullElement {
+
+  private final XMLStreamReader reader;
+  private final String parentName;
+  private boolean textRead = false;
+
+  XmlPullElement(XMLStreamReader reader, String parentName) {
+    this.reader = reader;
+    this.parentName = parentName;
+  }
+
+  public String getName() {
+    return reader.getLocalName();
+  }
+
+  /**
+   * @return the name of the enclosing element or an empty string for the root element
+   */
+  public String getParentName() {
+    return parentName;
+  }
+
+  @CheckForNull
+  public String getAttributeValue(String name) {
+    return reader.getAttributeValue(null, name);
+  }
+
+  public Optional<String> getAttributeValueOpt(String name) {
+    return Optional.fromNullable(getAttributeValue(name));
+  }
+
+  public String getAttributeValueNonNull(String name) {
+    return Checked.nonNull(getAttributeValue(name), "attribute value for key: " + name);
+  }
+
+  public boolean hasAttribute(String name) {
+    return getAttributeValue(name) != null;
+  }
+
+  public ImmutableMap<String, String> getAttributes() {
+    ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+    }
+    return attributes.build();
+  }
+
+  /**
+   * Reads the text of this element, which must not have child elements. Because the text is
+   * read from the stream, it can only be read once and must be read after all attributes.
+   */
+  public String getText() {
+    if (textRead) {
+      throw new IllegalStateException("text of <" + getName() + "> was already read");
+    }
+    try {
+      String text = reader.getElementText();
+      textRead = true;
+      return text;
+    } catch (XMLStreamException e) {
+      throw new IllegalArgumentException("Invalid XML", e);
+    }
+  }
+
+  boolean isTextRead() {
+    return textRead;
+  }
+}
@@ -33,6 +33,19 @@ public class ApiRequestBuilder extends RequestBuilder {
     return this;
   }
 
+  /**
+   * @param format if null, xml is requested
+   */
+  public ApiRequestBuilder format(@CheckForNull ResponseFormat format) {
+    if (format == ResponseFormat.JSON) {
+      param("format", "json");
+      param("formatversion", "2");
+    } else {
+      param("format", "xml");
+    }
+    return this;
+  }
+
   /**
    * https://www.mediawiki.org/wiki/API:Query#Continuing_queries
    *
@@ -0,0 +1,20 @@
+package net.sourceforge.jwbf.mediawiki;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * The wire format of api responses; see
+ * <a href="https://www.mediawiki.org/wiki/API:Data_formats">API:Data formats</a>.
+ */
+@Beta
+public enum ResponseFormat {
+  /**
+   * <code>format=xml</code>; works with every supported version.
+   */
+  XML,
+  /**
+   * <code>format=json&amp;formatversion=2</code>; requires {@link MediaWiki.Version#MW1_25} or
+   * higher. Responses are smaller and cheaper to parse.
+   */
+  JSON
+}
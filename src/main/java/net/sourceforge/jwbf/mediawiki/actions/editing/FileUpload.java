@@ -26,6 +26,7 @@ import net.sourceforge.jwbf.core.actions.Post;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.ActionException;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlConverter;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
@@ -119,14 +120,15 @@ public class FileUpload extends MWAction {
     @Override
     public String handleResponse(String xml, HttpAction hm) {
       log.debug("{}", xml);
-      XmlElement doc = XmlConverter.getRootElementWithError(xml);
+      ParsedResponse response = ParsedResponse.of(xml);
+      XmlElement doc = response.getRootElementWithError();
       Optional<ApiException> exceptionOptional = doc.getErrorElement() //
           .transform(XmlConverter.toApiException());
       if (exceptionOptional.isPresent()) {
         throw exceptionOptional.get();
       } else {
         if (uploadTokenAction != null) {
-          uploadTokenAction.processReturningText(xml, hm);
+          uploadTokenAction.processResponse(response, hm);
           RequestBuilder requestBuilder = new ApiRequestBuilder() //
               .action("upload") //
               .formatXml() //
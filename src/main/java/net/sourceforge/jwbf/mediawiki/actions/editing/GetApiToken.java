@@ -2,18 +2,24 @@ package net.sourceforge.jwbf.mediawiki.actions.editing;
 
 import javax.annotation.Nonnull;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import net.sourceforge.jwbf.core.Optionals;
 import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.ParamTuple;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.internal.Checked;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.util.DequeMWAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -79,21 +85,22 @@ public class GetApiToken extends DequeMWAction<GetApiToken.TokenResponse> {
     DELETE, EDIT, MOVE, PROTECT, EMAIL, BLOCK, UNBLOCK, IMPORT
   }
 
-  private static final ImmutableMap<Intoken, Function<XmlElement, String>> TOKEN_FUNCTIONS =
-      ImmutableMap.<Intoken, Function<XmlElement, String>>builder() //
-          .put(Intoken.DELETE, tokenFunctionOf("deletetoken")) //
-          .put(Intoken.EDIT, tokenFunctionOf("edittoken")) //
-          .put(Intoken.MOVE, tokenFunctionOf("movetoken")) //
-          .put(Intoken.PROTECT, tokenFunctionOf("protecttoken")) //
-          .put(Intoken.EMAIL, tokenFunctionOf("emailtoken")) //
-          .put(Intoken.BLOCK, tokenFunctionOf("blocktoken")) //
-          .put(Intoken.UNBLOCK, tokenFunctionOf("unblocktoken")) //
-          .put(Intoken.IMPORT, tokenFunctionOf("IMPORT")) //
+  private static final ImmutableMap<Intoken, String> TOKEN_KEYS =
+      ImmutableMap.<Intoken, String>builder() //
+          .put(Intoken.DELETE, "deletetoken") //
+          .put(Intoken.EDIT, "edittoken") //
+          .put(Intoken.MOVE, "movetoken") //
+          .put(Intoken.PROTECT, "protecttoken") //
+          .put(Intoken.EMAIL, "emailtoken") //
+          .put(Intoken.BLOCK, "blocktoken") //
+          .put(Intoken.UNBLOCK, "unblocktoken") //
+          .put(Intoken.IMPORT, "IMPORT") //
           .build();
 
   private Optional<String> token = Optional.absent();
 
   private final Intoken intoken;
+  private final ResponseFormat format;
 
   private final HttpAction msg;
 
@@ -104,8 +111,13 @@ public class GetApiToken extends DequeMWAction<GetApiToken.TokenResponse> {
    * @param title   title of the article to generate the token for
    */
   public GetApiToken(Intoken intoken, String title) {
-    super(generateTokenRequest(intoken, title));
+    this(intoken, title, ResponseFormat.XML);
+  }
+
+  public GetApiToken(Intoken intoken, String title, ResponseFormat format) {
+    super(generateTokenRequest(intoken, title, format));
     this.intoken = intoken;
+    this.format = format;
     msg = actions.getFirst(); // XXX realy nesessary?
 
   }
@@ -116,10 +128,11 @@ public class GetApiToken extends DequeMWAction<GetApiToken.TokenResponse> {
    * @param intoken type to get the urlEncodedToken for
    * @param title   title of the article to generate the urlEncodedToken for
    */
-  private static Get generateTokenRequest(Intoken intoken, String title) {
+  private static Get generateTokenRequest(Intoken intoken, String title,
+      ResponseFormat format) {
     return new ApiRequestBuilder() //
         .action("query") //
-        .formatXml() //
+        .format(format) //
         .param("prop", "info") //
         .param("intoken", intoken.toString().toLowerCase()) //
         .param("titles", MediaWiki.urlEncode(title)) //
@@ -132,11 +145,24 @@ public class GetApiToken extends DequeMWAction<GetApiToken.TokenResponse> {
    */
   @Override
   public void processReturningText(String s, HttpAction hm) {
+    processResponse(ParsedResponse.of(s), hm);
+  }
+
+  /**
+   * Like {@link #processReturningText(String, HttpAction)}, but reuses a response that was
+   * already parsed by the calling action.
+   */
+  void processResponse(ParsedResponse response, HttpAction hm) {
     if (hm.getRequest().equals(msg.getRequest())) {
+      String s = response.getText();
       log.debug("Got returning text: \"{}\"", s);
       try {
-        Optional<XmlElement> elem = XmlConverter.getChildOpt(s, "query", "pages", "page");
-        token = elem.transform(TOKEN_FUNCTIONS.get(intoken));
+        if (format == ResponseFormat.JSON) {
+          token = parseJsonToken(response, TOKEN_KEYS.get(intoken));
+        } else {
+          Optional<XmlElement> elem = response.getChildOpt("query", "pages", "page");
+          token = elem.transform(tokenFunctionOf(TOKEN_KEYS.get(intoken)));
+        }
         // TODO check intoken from tokenfunc for null
 
         log.debug("urlEncodedToken = {} for: {}", token, msg.getRequest());
@@ -152,6 +178,17 @@ public class GetApiToken extends DequeMWAction<GetApiToken.TokenResponse> {
     }
   }
 
+  private static Optional<String> parseJsonToken(ParsedResponse response, final String key) {
+    final ImmutableList.Builder<String> tokens = ImmutableList.builder();
+    response.visitJson(new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode page) {
+        tokens.add(Checked.nonNull(page.path(key).textValue(), "token for key: " + key));
+      }
+    }, "query.pages");
+    return Optional.fromNullable(Iterables.getFirst(tokens.build(), null));
+  }
+
   private static Function<XmlElement, String> tokenFunctionOf(final String key) {
     return new NonnullFunction<XmlElement, String>() {
 
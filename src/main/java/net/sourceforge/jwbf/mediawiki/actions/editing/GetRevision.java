@@ -18,21 +18,26 @@
  */
 package net.sourceforge.jwbf.mediawiki.actions.editing;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 
-import com.google.common.annotations.VisibleForTesting;
+import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import net.sourceforge.jwbf.core.StringPool;
 import net.sourceforge.jwbf.core.actions.Get;
+import net.sourceforge.jwbf.core.actions.ReturningStreamProcessor;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.contentRep.CompactText;
 import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
-import net.sourceforge.jwbf.mapper.XmlConverter;
-import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.MediaWiki.Version;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +47,7 @@ import org.slf4j.LoggerFactory;
  *
  * @author Thomas Stock
  */
-public class GetRevision extends MWAction {
+public class GetRevision extends MWAction implements ReturningStreamProcessor {
 
   private static final Logger log = LoggerFactory.getLogger(GetRevision.class);
 
@@ -56,11 +61,30 @@ public class GetRevision extends MWAction {
   public static final int COMMENT = 1 << 4;
   public static final int IDS = 1 << 5;
   public static final int FLAGS = 1 << 6;
+  /**
+   * Keeps the content as {@link CompactText} until it is read as {@link String}.
+   */
+  @Beta
+  public static final int COMPACT_TEXT = 1 << 7;
 
   public static final int FIRST = 1 << 30;
   public static final int LAST = 1 << 31;
 
-  private final int properties;
+  private final ResponseFormat format;
+  private final RevisionParser parser;
+
+  private final RevisionParser.Callback collector = new RevisionParser.Callback() {
+    @Override
+    public void onPage(SimpleArticle sa, boolean hasRevision) {
+      if (hasRevision) {
+        articlesOpt.add(Optional.of(sa));
+      } else {
+        log.warn("Article '{}' is missing", sa.getTitle());
+        articlesOpt.add(Optional.<SimpleArticle>absent());
+      }
+      articles.add(sa);
+    }
+  };
 
   private final Get msg;
 
@@ -72,12 +96,25 @@ public class GetRevision extends MWAction {
   }
 
   public GetRevision(ImmutableList<String> names, int properties) {
-    this.properties = properties;
+    this(names, properties, ResponseFormat.XML);
+  }
+
+  public GetRevision(ImmutableList<String> names, int properties, ResponseFormat format) {
+    this(names, properties, format, StringPool.none());
+  }
+
+  /**
+   * @param stringPool for titles and editors
+   */
+  public GetRevision(ImmutableList<String> names, int properties, ResponseFormat format,
+      StringPool stringPool) {
     this.names = names;
+    this.format = format;
+    this.parser = new RevisionParser(properties, stringPool);
     // TODO continue=-||
     msg = new ApiRequestBuilder() //
         .action("query") //
-        .formatXml() //
+        .format(format) //
         .param("prop", "revisions") //
         .param("titles", MediaWiki.urlEncode(MediaWiki.pipeJoined(names))) //
         .param("rvprop", getDataProperties(properties) + getReversion(properties)) //
@@ -96,8 +133,24 @@ public class GetRevision extends MWAction {
     return "";
   }
 
-  @VisibleForTesting
-  static String getDataProperties(final int property) {
+  /**
+   * Parses the response without copying it into a {@link String}, because revision contents can
+   * be large. Articles of an earlier, failed attempt are discarded.
+   */
+  @Override
+  public String processReturningStream(InputStream body, Charset charset, HttpAction ha) {
+    if (msg.getRequest().equals(ha.getRequest())) {
+      articles.clear();
+      articlesOpt.clear();
+      parser.parse(body, charset, format, collector);
+    }
+    return "";
+  }
+
+  /**
+   * @return the encoded value of the <code>rvprop</code> parameter for the given flags
+   */
+  public static String getDataProperties(final int property) {
     ImmutableList.Builder<String> builder = ImmutableList.builder();
 
     if (hasMarker(property, CONTENT)) {
@@ -134,40 +187,8 @@ public class GetRevision extends MWAction {
     }
   }
 
-  private void parse(final String xml) {
-
-    Optional<XmlElement> childOpt = XmlConverter.getChildOpt(xml, "query", "pages");
-    if (childOpt.isPresent()) {
-      List<XmlElement> pages = childOpt.get().getChildren("page");
-      for (XmlElement page : pages) {
-
-        SimpleArticle sa = new SimpleArticle();
-        sa.setTitle(page.getAttributeValue("title"));
-        Optional<XmlElement> revOpt = page.getChild("revisions").getChildOpt("rev");
-        if (revOpt.isPresent()) {
-          XmlElement rev = revOpt.get();
-          sa.setText(rev.getText());
-          sa.setRevisionId(rev.getAttributeValueOpt("revid").or(""));
-          sa.setEditSummary(rev.getAttributeValueOpt("comment").or(""));
-          sa.setEditor(rev.getAttributeValueOpt("user").or(""));
-          if (hasMarker(properties, TIMESTAMP)) {
-            sa.setEditTimestamp(rev.getAttributeValueOpt("timestamp").or(""));
-          }
-          if (hasMarker(properties, FLAGS)) {
-            if (rev.hasAttribute("minor")) {
-              sa.setMinorEdit(true);
-            } else {
-              sa.setMinorEdit(false);
-            }
-          }
-          articlesOpt.add(Optional.of(sa));
-        } else {
-          log.warn("Article '{}' is missing", sa.getTitle());
-          articlesOpt.add(Optional.<SimpleArticle>absent());
-        }
-        articles.add(sa);
-      }
-    }
+  private void parse(final String s) {
+    parser.parse(ParsedResponse.of(s), format, collector);
   }
 
   public SimpleArticle getArticle() {
@@ -20,6 +20,7 @@ package net.sourceforge.jwbf.mediawiki.actions.editing;
 
 import java.util.Set;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
@@ -30,9 +31,11 @@ import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.contentRep.ContentAccessable;
 import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
 import net.sourceforge.jwbf.core.contentRep.Userinfo;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
 import net.sourceforge.jwbf.mapper.XmlConverter;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
 import net.sourceforge.jwbf.mediawiki.actions.util.VersionException;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
@@ -56,10 +59,21 @@ public class PostModifyContent extends MWAction {
   private GetApiToken editTokeAction = null;
   private HttpAction apiGet = null;
   private Post editRequest = null;
+  private ResponseFormat format = ResponseFormat.XML;
   static final String PARAM_MINOR = "minor";
   static final String PARAM_MINOR_NOT = "notminor";
   static final String PARAM_BOTEDIT = "bot";
 
+  /**
+   * Only checks for errors.
+   */
+  private static final JsonPullConverter.Visitor NO_VISITOR = new JsonPullConverter.Visitor() {
+    @Override
+    public void visit(String path, JsonNode node) {
+      // do nothing
+    }
+  };
+
   public PostModifyContent(MediaWikiBot bot, final SimpleArticle a) {
     if (Strings.isNullOrEmpty(a.getTitle())) {
       throw new ActionException("imposible request, no title");
@@ -84,6 +98,7 @@ public class PostModifyContent extends MWAction {
     }
     if (first) {
       first = false;
+      format = bot.getResponseFormat();
       editTokeAction = newTokenRequest();
       apiGet = editTokeAction.popAction();
       return apiGet;
@@ -91,7 +106,7 @@ public class PostModifyContent extends MWAction {
 
       RequestBuilder builder = new ApiRequestBuilder() //
           .action("edit") //
-          .formatXml() //
+          .format(format) //
           .param("title", MediaWiki.urlEncode(a.getTitle())) //
 
           .postParam("summary", a.getEditSummary()) //
@@ -122,7 +137,7 @@ public class PostModifyContent extends MWAction {
    * TODO only for testing
    */
   GetApiToken newTokenRequest() {
-    return new GetApiToken(GetApiToken.Intoken.EDIT, a.getTitle());
+    return new GetApiToken(GetApiToken.Intoken.EDIT, a.getTitle(), format);
   }
 
   /**
@@ -143,7 +158,11 @@ public class PostModifyContent extends MWAction {
       editTokeAction.processReturningText(xml, hm);
     } else if (request.equals(editRequest.getRequest())) {
       // FIXME feels very strage
-      XmlConverter.getRootElement(xml);
+      if (format == ResponseFormat.JSON) {
+        JsonPullConverter.visit(xml, NO_VISITOR);
+      } else {
+        XmlConverter.getRootElement(xml);
+      }
     } else {
       log.trace(xml);
       throw new ActionException("unknown response");
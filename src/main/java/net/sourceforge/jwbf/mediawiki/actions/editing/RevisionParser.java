@@ -0,0 +1,173 @@
+package net.sourceforge.jwbf.mediawiki.actions.editing;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.Beta;
+import net.sourceforge.jwbf.core.StringPool;
+import net.sourceforge.jwbf.core.contentRep.CompactText;
+import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
+import net.sourceforge.jwbf.core.internal.Checked;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
+
+/**
+ * Reads the pages of a <code>prop=revisions</code> response with their first revision; the
+ * properties are the flags of {@link GetRevision}.
+ */
+@Beta
+public class RevisionParser {
+
+  /**
+   * Receives the pages in the order of the response.
+   */
+  public interface Callback {
+
+    /**
+     * @param hasRevision false, if the response has no revision of this page, e.g. because it is
+     *                    missing
+     */
+    void onPage(SimpleArticle article, boolean hasRevision);
+  }
+
+  private final int properties;
+  private final StringPool stringPool;
+
+  /**
+   * @param stringPool for titles and editors
+   */
+  public RevisionParser(int properties, StringPool stringPool) {
+    this.properties = properties;
+    this.stringPool = Checked.nonNull(stringPool, "string pool");
+  }
+
+  public void parse(ParsedResponse response, ResponseFormat format, Callback callback) {
+    if (format == ResponseFormat.JSON) {
+      response.visitJson(new JsonRevisionVisitor(callback), "query.pages");
+    } else {
+      RevisionVisitor visitor = new RevisionVisitor(callback);
+      response.visit(visitor, "page", "rev");
+      visitor.finishPage();
+    }
+  }
+
+  /**
+   * Like {@link #parse(ParsedResponse, ResponseFormat, Callback)}, but without keeping the whole
+   * response in memory.
+   */
+  public void parse(InputStream body, Charset charset, ResponseFormat format, Callback callback) {
+    if (format == ResponseFormat.JSON) {
+      JsonPullConverter.visit(body, charset, new JsonRevisionVisitor(callback), "query.pages");
+    } else {
+      RevisionVisitor visitor = new RevisionVisitor(callback);
+      XmlPullConverter.visit(body, charset, visitor, "page", "rev");
+      visitor.finishPage();
+    }
+  }
+
+  private boolean hasMarker(int marker) {
+    return (properties & marker) > 0;
+  }
+
+  private void setText(SimpleArticle sa, String text) {
+    if (text != null && hasMarker(GetRevision.COMPACT_TEXT)) {
+      sa.setCompactText(CompactText.of(text));
+    } else {
+      sa.setText(text);
+    }
+  }
+
+  /**
+   * Collects every page with its first revision.
+   */
+  private class RevisionVisitor implements XmlPullConverter.Visitor {
+
+    private final Callback callback;
+    private SimpleArticle sa;
+    private String lastRevisionId;
+    private boolean hasRevision;
+
+    RevisionVisitor(Callback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void visit(XmlPullElement element) {
+      String parentName = element.getParentName();
+      if (element.getName().equals("page") && parentName.equals("pages")) {
+        finishPage();
+        sa = new SimpleArticle();
+        sa.setTitle(stringPool.intern(element.getAttributeValue("title")));
+        // only present with prop=info
+        lastRevisionId = element.getAttributeValueOpt("lastrevid").or("");
+        hasRevision = false;
+      } else if (element.getName().equals("rev") && parentName.equals("revisions") && sa != null &&
+          !hasRevision) {
+        hasRevision = true;
+        sa.setRevisionId(element.getAttributeValueOpt("revid").or(lastRevisionId));
+        sa.setEditSummary(element.getAttributeValueOpt("comment").or(""));
+        sa.setEditor(stringPool.intern(element.getAttributeValueOpt("user").or("")));
+        if (hasMarker(GetRevision.TIMESTAMP)) {
+          sa.setEditTimestamp(element.getAttributeValueOpt("timestamp").or(""));
+        }
+        if (hasMarker(GetRevision.FLAGS)) {
+          if (element.hasAttribute("minor")) {
+            sa.setMinorEdit(true);
+          } else {
+            sa.setMinorEdit(false);
+          }
+        }
+        // the text must be read last, because it moves the stream to the end of the element
+        setText(sa, element.getText());
+      }
+    }
+
+    void finishPage() {
+      if (sa != null) {
+        callback.onPage(sa, hasRevision);
+        sa = null;
+      }
+    }
+  }
+
+  /**
+   * Like {@link RevisionVisitor}, but for pages of <code>formatversion=2</code>.
+   */
+  private class JsonRevisionVisitor implements JsonPullConverter.Visitor {
+
+    private final Callback callback;
+
+    JsonRevisionVisitor(Callback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void visit(String path, JsonNode page) {
+      SimpleArticle sa = new SimpleArticle();
+      sa.setTitle(stringPool.intern(page.path("title").asText()));
+      JsonNode rev = page.path("revisions").path(0);
+      if (!rev.isMissingNode()) {
+        if (rev.has("revid")) {
+          sa.setRevisionId(rev.path("revid").asText());
+        } else {
+          // only present with prop=info
+          sa.setRevisionId(page.path("lastrevid").asText());
+        }
+        sa.setEditSummary(rev.path("comment").asText());
+        sa.setEditor(stringPool.intern(rev.path("user").asText()));
+        if (hasMarker(GetRevision.TIMESTAMP)) {
+          sa.setEditTimestamp(rev.path("timestamp").asText());
+        }
+        if (hasMarker(GetRevision.FLAGS)) {
+          sa.setMinorEdit(rev.path("minor").asBoolean());
+        }
+        setText(sa, rev.path("content").asText());
+      }
+      callback.onPage(sa, !rev.isMissingNode());
+    }
+  }
+}
@@ -21,15 +21,19 @@ package net.sourceforge.jwbf.mediawiki.actions.meta;
 
 import java.util.Set;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
 import net.sourceforge.jwbf.JWBF;
 import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
 import net.sourceforge.jwbf.mapper.XmlConverter;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki.Version;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +48,7 @@ public class GetVersion extends MWAction {
   private static final Logger log = LoggerFactory.getLogger(GetVersion.class);
 
   private final Get msg;
+  private final ResponseFormat format;
   private String generator = "";
   private String sitename = "";
   private String base = "";
@@ -61,17 +66,36 @@ public class GetVersion extends MWAction {
    * Create the request.
    */
   public GetVersion() {
+    this(ResponseFormat.XML);
+  }
+
+  GetVersion(ResponseFormat format) {
+    this.format = format;
     msg = new ApiRequestBuilder() //
         .action("query") //
-        .formatXml() //
+        .format(format) //
         .param("meta", "siteinfo") //
         .buildGet();
   }
 
-  private void parse(final String xml) {
-    XmlElement rootElement = XmlConverter.getRootElementWithError(xml);
-    // XXX ignore errors here => fallback to unknown version
-    findContent(rootElement);
+  private void parse(final String s) {
+    if (format == ResponseFormat.JSON) {
+      try {
+        JsonPullConverter.visit(s, new JsonPullConverter.Visitor() {
+          @Override
+          public void visit(String path, JsonNode node) {
+            findContent(path, node);
+          }
+        }, jsonPaths());
+      } catch (ApiException e) {
+        // XXX ignore errors here => fallback to unknown version
+        log.debug("no siteinfo", e);
+      }
+    } else {
+      XmlElement rootElement = XmlConverter.getRootElementWithError(s);
+      // XXX ignore errors here => fallback to unknown version
+      findContent(rootElement);
+    }
   }
 
   /**
@@ -141,6 +165,23 @@ public class GetVersion extends MWAction {
     return mainpage;
   }
 
+  /**
+   * @return the paths, which are passed to {@link #findContent(String, JsonNode)}
+   */
+  String[] jsonPaths() {
+    return new String[] {"query.general"};
+  }
+
+  void findContent(String path, JsonNode node) {
+    if (path.equals("query.general")) {
+      mainpage = node.path("mainpage").asText();
+      base = node.path("base").asText();
+      sitename = node.path("sitename").asText();
+      generator = node.path("generator").asText();
+      theCase = node.path("case").asText();
+    }
+  }
+
   protected void findContent(final XmlElement root) {
 
     for (XmlElement xmlElement : root.getChildren()) {
@@ -2,6 +2,7 @@ package net.sourceforge.jwbf.mediawiki.actions.meta;
 
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import net.sourceforge.jwbf.core.actions.Get;
@@ -9,6 +10,7 @@ import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 
 /**
  * Gets details from the given MediaWiki installation like installed version.
@@ -51,10 +53,15 @@ public class Siteinfo extends GetVersion {
    * @param types the, see {@link #GENERAL}, {@link #INTERWIKIMAP}, ...
    */
   public Siteinfo(String... types) {
+    this(ResponseFormat.XML, types);
+  }
+
+  public Siteinfo(ResponseFormat format, String... types) {
+    super(format);
     String result = MediaWiki.pipeJoined(types);
     msg = new ApiRequestBuilder() //
         .action("query") //
-        .formatXml() //
+        .format(format) //
         .param("meta", "siteinfo") //
         .param("siprop", MediaWiki.urlEncode(result)) //
         .buildGet();
@@ -69,6 +76,23 @@ public class Siteinfo extends GetVersion {
     return msg;
   }
 
+  @Override
+  String[] jsonPaths() {
+    return new String[] {"query.general", "query.namespaces", "query.interwikimap"};
+  }
+
+  @Override
+  void findContent(String path, JsonNode node) {
+    super.findContent(path, node);
+    if (path.equals("query.namespaces")) {
+      for (JsonNode ns : node) {
+        namespaces.put(ns.path("id").asInt(), ns.path("name").asText());
+      }
+    } else if (path.equals("query.interwikimap") && node.has("prefix")) {
+      interwiki.put(node.path("prefix").asText(), node.path("url").textValue());
+    }
+  }
+
   @Override
   protected void findContent(final XmlElement root) {
     super.findContent(root);
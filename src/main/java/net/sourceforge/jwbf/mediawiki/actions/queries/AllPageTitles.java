@@ -27,7 +27,7 @@ import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
@@ -47,11 +47,6 @@ public class AllPageTitles extends BaseQuery<String> {
 
   private static final Logger log = LoggerFactory.getLogger(AllPageTitles.class);
 
-  /**
-   * Constant value for the aplimit-parameter. *
-   */
-  private static final int LIMIT = 50;
-
   /**
    * Information given in the constructor, necessary for creating next action.
    */
@@ -103,10 +98,10 @@ public class AllPageTitles extends BaseQuery<String> {
     RequestBuilder requestBuilder = new ApiRequestBuilder() //
         .action("query") //
         .paramNewContinue(bot().getVersion()) //
-        .formatXml() //
+        .format(responseFormat()) //
         .param("list", "allpages") //
         .param("apfilterredir", findRedirectFilterValue(rf)) //
-        .param("aplimit", LIMIT) //
+        .param("aplimit", limitValue()) //
         ;
 
     if (from.isPresent()) {
@@ -131,16 +126,24 @@ public class AllPageTitles extends BaseQuery<String> {
     }
   }
 
+  @Override
+  protected boolean parsesResponseOnce() {
+    return true;
+  }
+
   /**
    * Picks the article name from a MediaWiki api response.
    *
-   * @param s text for parsing
+   * @param response for parsing
    * @return a
    */
   @Override
-  protected ImmutableList<String> parseElements(String s) {
+  protected ImmutableList<String> parseElements(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonTitles(response, "query.allpages");
+    }
     ImmutableList.Builder<String> titles = ImmutableList.builder();
-    Optional<XmlElement> child = XmlConverter.getChildOpt(s, "query", "allpages");
+    Optional<XmlElement> child = response.getChildOpt("query", "allpages");
     if (child.isPresent()) {
       for (XmlElement pageElement : child.get().getChildren("p")) {
         String title = pageElement.getAttributeValue("title");
@@ -155,12 +158,15 @@ public class AllPageTitles extends BaseQuery<String> {
    * Gets the information about a follow-up page from a provided api response. If there is one, a
    * new request is added to msgs by calling generateRequest. If no exists, the string is empty.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    * @return the
    */
   @Override
-  protected Optional<String> parseHasMore(final String xml) {
-    return parseXmlHasMore(xml, "allpages", "apfrom", "apcontinue");
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonHasMore(response, "apcontinue");
+    }
+    return parseXmlHasMore(response, "allpages", "apfrom", "apcontinue");
   }
 
   /**
@@ -172,6 +178,11 @@ public class AllPageTitles extends BaseQuery<String> {
 
   }
 
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -28,7 +28,7 @@ import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.Checked;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
@@ -49,18 +49,15 @@ public class BacklinkTitles extends BaseQuery<String> {
 
   private static final Logger log = LoggerFactory.getLogger(BacklinkTitles.class);
 
-  private final int backlinksPerRequestLimit;
-
   private final String articleName;
 
   private final MediaWikiBot bot;
   private final RedirectFilter redirectFilter;
   private final ImmutableList<Integer> namespaces;
 
-  BacklinkTitles(MediaWikiBot bot, String articleName, int backlinksPerRequestLimit,
-      RedirectFilter redirectFilter, ImmutableList<Integer> namespaces) {
+  BacklinkTitles(MediaWikiBot bot, String articleName, RedirectFilter redirectFilter,
+      ImmutableList<Integer> namespaces) {
     super(bot);
-    this.backlinksPerRequestLimit = backlinksPerRequestLimit;
 
     this.bot = Checked.nonNull(bot, "bot");
     this.articleName = Checked.nonNull(articleName, "articleName");
@@ -83,7 +80,7 @@ public class BacklinkTitles extends BaseQuery<String> {
    */
   public BacklinkTitles(MediaWikiBot bot, String articleName, RedirectFilter redirectFilter,
       int... namespaces) {
-    this(bot, articleName, 50, redirectFilter, MWAction.nullSafeCopyOf(namespaces));
+    this(bot, articleName, redirectFilter, MWAction.nullSafeCopyOf(namespaces));
   }
 
   public BacklinkTitles(MediaWikiBot bot, String articleName) {
@@ -91,32 +88,47 @@ public class BacklinkTitles extends BaseQuery<String> {
 
   }
 
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
   @Override
   protected Iterator<String> copy() {
-    return new BacklinkTitles(bot, articleName, backlinksPerRequestLimit, redirectFilter,
-        namespaces);
+    return new BacklinkTitles(bot, articleName, redirectFilter, namespaces);
   }
 
   /**
    * gets the information about a follow-up page from a provided api response. If there is one, the
    * information for the next page parameter is added to the nextPageInfo field.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  protected Optional<String> parseHasMore(final String xml) {
-    return parseXmlHasMore(xml, "backlinks", "blcontinue", "blcontinue");
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonHasMore(response, "blcontinue");
+    }
+    return parseXmlHasMore(response, "backlinks", "blcontinue", "blcontinue");
 
   }
 
+  @Override
+  protected boolean parsesResponseOnce() {
+    return true;
+  }
+
   /**
    * picks the article name from a MediaWiki api response.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  protected ImmutableList<String> parseElements(String xml) {
-    Optional<XmlElement> child = XmlConverter.getChildOpt(xml, "query", "backlinks");
+  protected ImmutableList<String> parseElements(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonTitles(response, "query.backlinks");
+    }
+    Optional<XmlElement> child = response.getChildOpt("query", "backlinks");
     ImmutableList.Builder<String> titleCollection = ImmutableList.builder();
     if (child.isPresent()) {
       List<XmlElement> backlinks = child.get().getChildren("bl");
@@ -134,9 +146,9 @@ public class BacklinkTitles extends BaseQuery<String> {
     RequestBuilder builder = new ApiRequestBuilder() //
         .action("query") //
         .paramNewContinue(bot.getVersion()) //
-        .formatXml() //
+        .format(responseFormat()) //
         .param("list", "backlinks") //
-        .param("bllimit", backlinksPerRequestLimit) //
+        .param("bllimit", limitValue()) //
         .param("bltitle", MediaWiki.urlEncode(title)) //
         .param("blfilterredir", MediaWiki.urlEncode(redirectFilter.toString()));
 
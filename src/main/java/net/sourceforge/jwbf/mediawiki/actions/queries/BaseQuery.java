@@ -1,16 +1,43 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import net.sourceforge.jwbf.core.Optionals;
+import net.sourceforge.jwbf.core.StringPool;
+import net.sourceforge.jwbf.core.actions.ReturningStreamProcessor;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.Checked;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
 import org.slf4j.Logger;
@@ -22,12 +49,31 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneable {
 
+  /**
+   * The value of a limit parameter, which lets the server return as many elements as the user may
+   * request per response; see {@link #maxLimit()}.
+   */
+  public static final String MAX_LIMIT = "max";
+
+  static final String APIHIGHLIMITS = "apihighlimits";
+  private static final int LOW_MAX_LIMIT = 500;
+  private static final int HIGH_MAX_LIMIT = 5000;
+
   private static final Logger log = LoggerFactory.getLogger(BaseQuery.class);
 
   private Iterator<T> titleIterator = ImmutableList.<T>of().iterator();
   private final QueryAction inner;
   private final MediaWikiBot bot;
+  private final ResponseFormat responseFormat;
+  private final StringPool stringPool;
   private ImmutableList<T> oldTitlesForLogging = ImmutableList.of();
+  private Optional<Integer> limit = Optional.absent();
+  private int prefetchDepth = 0;
+  private Prefetch prefetch = null;
+  private Optional<Path> checkpointFile = Optional.absent();
+  private int checkpointInterval = 0;
+  private Optional<QueryCheckpoint> resume = Optional.absent();
+  private long pageCount = 0;
 
   private Optional<String> nextPageInfo = Optional.absent();
 
@@ -50,6 +96,8 @@ public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneabl
 
   protected BaseQuery(MediaWikiBot bot) {
     this.bot = Checked.nonNull(bot, "bot");
+    this.responseFormat = bot.getResponseFormat();
+    this.stringPool = Optional.fromNullable(bot.getStringPool()).or(StringPool.none());
     inner = getInnerAction();
   }
 
@@ -67,12 +115,222 @@ public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneabl
     return ImmutableList.copyOf(Iterables.limit(lazy(), count));
   }
 
+  /**
+   * Like {@link #iterator()}, but each element is the list of elements of one response. The
+   * responses are fetched one after another, while the pages are iterated. If {@link #copy()}
+   * returns no query, its elements are grouped into pages of the limit of this query.
+   */
+  @Beta
+  public Iterable<ImmutableList<T>> pages() {
+    return new Iterable<ImmutableList<T>>() {
+      @Override
+      public Iterator<ImmutableList<T>> iterator() {
+        Iterator<T> elements = BaseQuery.this.iterator();
+        if (!(elements instanceof BaseQuery)) {
+          return Iterators.transform(Iterators.partition(elements, limit.or(LOW_MAX_LIMIT)),
+              new Function<List<T>, ImmutableList<T>>() {
+                @Override
+                public ImmutableList<T> apply(List<T> page) {
+                  return ImmutableList.copyOf(page);
+                }
+              });
+        }
+        final BaseQuery<T> query = (BaseQuery<T>) elements;
+        return new AbstractIterator<ImmutableList<T>>() {
+          @Override
+          protected ImmutableList<T> computeNext() {
+            ImmutableList<T> page = query.nextPageElements();
+            if (page.isEmpty()) {
+              return endOfData();
+            }
+            return page;
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Applies the function to all elements on the given executor. The elements of one page are
+   * transformed concurrently, while the pages are fetched in order, see {@link #pages()}; e.g. for
+   * expensive work per title. Together with {@link #withPrefetch(int)} the next page is fetched
+   * while the current one is transformed.
+   *
+   * @return the transformed elements in the order of this query; pages are transformed when the
+   * returned iterable reaches them
+   */
+  @Beta
+  public <R> Iterable<R> parallelTransform(final Function<? super T, ? extends R> function,
+      final Executor executor) {
+    Checked.nonNull(function, "function");
+    Checked.nonNull(executor, "executor");
+    return Iterables.concat(Iterables.transform(pages(), new Function<ImmutableList<T>, List<R>>() {
+      @Override
+      public List<R> apply(ImmutableList<T> page) {
+        ImmutableList.Builder<ListenableFuture<R>> results = ImmutableList.builder();
+        for (final T element : page) {
+          ListenableFutureTask<R> result = ListenableFutureTask.create(new Callable<R>() {
+            @Override
+            public R call() {
+              return function.apply(element);
+            }
+          });
+          executor.execute(result);
+          results.add(result);
+        }
+        try {
+          return Futures.getUnchecked(Futures.allAsList(results.build()));
+        } catch (UncheckedExecutionException e) {
+          throw Throwables.propagate(e.getCause());
+        }
+      }
+    }));
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public final Iterator<T> iterator() {
-    return copy();
+    Iterator<T> copy = copy();
+    if (copy instanceof BaseQuery) {
+      BaseQuery<?> query = (BaseQuery<?>) copy;
+      if (limit.isPresent()) {
+        query.withLimit(limit.get());
+      }
+      if (prefetchDepth > 0) {
+        query.withPrefetch(prefetchDepth);
+      }
+      if (checkpointFile.isPresent()) {
+        query.withCheckpoints(checkpointFile.get(), checkpointInterval);
+      }
+      if (resume.isPresent()) {
+        query.resumeFrom(resume.get());
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * @param limit the number of elements per response; without it, each request asks for
+   *              {@link #MAX_LIMIT}. Values above {@link #maxLimit()} are reduced to it.
+   * @return this query
+   */
+  @Beta
+  public BaseQuery<T> withLimit(int limit) {
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+    }
+    this.limit = Optional.of(limit);
+    return this;
+  }
+
+  /**
+   * @return the value for the limit parameter of the next request
+   */
+  protected final String limitValue() {
+    if (!limit.isPresent()) {
+      return MAX_LIMIT;
+    }
+    int value = limit.get();
+    if (value > LOW_MAX_LIMIT) {
+      value = Math.min(value, maxLimit());
+    }
+    return Integer.toString(value);
+  }
+
+  /**
+   * @return the largest number of elements per response for the user of the bot: 5000 with the
+   * right {@value #APIHIGHLIMITS}, e.g. for bots and sysops, otherwise 500
+   */
+  protected int maxLimit() {
+    if (bot.getUserinfo().getRights().contains(APIHIGHLIMITS)) {
+      return HIGH_MAX_LIMIT;
+    }
+    return LOW_MAX_LIMIT;
+  }
+
+  /**
+   * Fetches up to the given number of following pages in the background, while the current page
+   * is iterated. The next request is sent as soon as the continuation of the previous response is
+   * parsed; the threads are those of {@link MediaWikiBot#getPerformedActionAsync}. If the
+   * iteration is stopped early, the pages fetched ahead are discarded.
+   *
+   * @param depth the number of pages to fetch ahead; zero to fetch each page when it is needed
+   * @return this query
+   * @throws UnsupportedOperationException if this query does not support prefetching
+   */
+  @Beta
+  public BaseQuery<T> withPrefetch(int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("prefetch depth must not be negative");
+    }
+    if (depth > 0 && !isPrefetchable()) {
+      throw new UnsupportedOperationException(
+          getClass().getSimpleName() + " does not support prefetching");
+    }
+    if (!inner.init) {
+      throw new IllegalStateException("prefetch must be set before the first request");
+    }
+    prefetchDepth = depth;
+    prefetch = depth > 0 ? new Prefetch(depth) : null;
+    return this;
+  }
+
+  /**
+   * Writes a {@link QueryCheckpoint} to the given file before every n-th page, so that a stopped
+   * iteration can be continued with {@link #resumeFrom(QueryCheckpoint)}. A checkpoint points to
+   * the page, which is about to be returned, and all elements of the pages before it were
+   * returned already; so each element is returned at least once, if it is processed before
+   * {@link #hasNext()} is called again. The file is kept after the last page.
+   *
+   * @param everyPages the number of pages from one checkpoint to the next
+   * @return this query
+   */
+  @Beta
+  public BaseQuery<T> withCheckpoints(Path file, int everyPages) {
+    Checked.nonNull(file, "file");
+    if (everyPages <= 0) {
+      throw new IllegalArgumentException(
+          "checkpoint interval must be > 0, but was " + everyPages);
+    }
+    if (!inner.init) {
+      throw new IllegalStateException("checkpoints must be set before the first request");
+    }
+    checkpointFile = Optional.of(file);
+    checkpointInterval = everyPages;
+    return this;
+  }
+
+  /**
+   * Starts with the page of the given checkpoint, which was written by a query with the same
+   * parameters; see {@link #withCheckpoints(Path, int)}. The first request must be equal to the
+   * request of the checkpoint, so all other settings like {@link #withLimit(int)} must be the
+   * same, too.
+   *
+   * @return this query
+   * @throws IllegalStateException on the first page, if the checkpoint belongs to another query
+   */
+  @Beta
+  public BaseQuery<T> resumeFrom(QueryCheckpoint checkpoint) {
+    Checked.nonNull(checkpoint, "checkpoint");
+    if (!inner.init) {
+      throw new IllegalStateException("resume must be set before the first request");
+    }
+    resume = Optional.of(checkpoint);
+    setNextPageInfo(checkpoint.getNextPageInfo().orNull());
+    pageCount = checkpoint.getPageCount();
+    return this;
+  }
+
+  /**
+   * @return true, if the parse methods and {@link #prepareNextRequest()} depend on nothing else
+   * than the given response and {@link #nextPageInfoOpt()}; required by {@link #withPrefetch(int)},
+   * which parses responses concurrently to the iteration
+   */
+  @Beta
+  protected boolean isPrefetchable() {
+    return false;
   }
 
   protected abstract Iterator<T> copy();
@@ -109,14 +367,109 @@ public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneabl
   @Deprecated
   protected Optional<String> parseXmlHasMore(String xml, String elementName, String attributeKey,
       String newContinueKey) {
-    XmlElement rootElement = XmlConverter.getRootElement(xml);
-    Optional<XmlElement> aContinue = rootElement.getChildOpt("continue");
-    if (aContinue.isPresent()) {
-      return aContinue.get().getAttributeValueOpt(newContinueKey);
+    ContinueVisitor visitor = new ContinueVisitor(elementName, attributeKey, newContinueKey);
+    XmlPullConverter.visit(xml, visitor, "continue", elementName);
+    if (visitor.hasContinue) {
+      return visitor.newContinue;
     } else {
       // XXX fallback for < MW1_19
-      XmlElement queryContinue = rootElement.getChild("query-continue").getChild(elementName);
-      return queryContinue.getAttributeValueOpt(attributeKey);
+      return visitor.queryContinue;
+    }
+  }
+
+  /**
+   * Like {@link #parseXmlHasMore(ParsedResponse, String, String, String)} for
+   * {@link ResponseFormat#JSON}, which always uses the <code>continue</code> object.
+   */
+  protected Optional<String> parseJsonHasMore(ParsedResponse response, String continueKey) {
+    Optional<ImmutableMap<String, String>> visited = response.getVisitedContinue();
+    if (visited.isPresent()) {
+      return Optional.fromNullable(visited.get().get(continueKey));
+    }
+    JsonContinueVisitor visitor = new JsonContinueVisitor(continueKey);
+    JsonPullConverter.visit(response.getText(), visitor, "continue");
+    return visitor.newContinue;
+  }
+
+  /**
+   * @param path of a list like <code>query.allpages</code>
+   * @return the titles of all list items
+   */
+  protected ImmutableList<String> parseJsonTitles(ParsedResponse response, String path) {
+    final ImmutableList.Builder<String> titles = ImmutableList.builder();
+    response.visitJson(new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode item) {
+        titles.add(Checked.nonNull(item.path("title").textValue(), "title"));
+      }
+    }, path);
+    return titles.build();
+  }
+
+  private static class JsonContinueVisitor implements JsonPullConverter.Visitor {
+
+    private final String continueKey;
+    private Optional<String> newContinue = Optional.absent();
+
+    JsonContinueVisitor(String continueKey) {
+      this.continueKey = continueKey;
+    }
+
+    @Override
+    public void visit(String path, JsonNode node) {
+      if (node.hasNonNull(continueKey)) {
+        newContinue = Optional.of(node.get(continueKey).asText());
+      }
+    }
+  }
+
+  /**
+   * Like {@link #parseXmlHasMore(String, String, String, String)}, but reuses the tree or the
+   * visit of the given response, if there was one.
+   */
+  protected Optional<String> parseXmlHasMore(ParsedResponse response, String elementName,
+      String attributeKey, String newContinueKey) {
+    if (response.isTreeParsed()) {
+      XmlElement root = response.getRootElement();
+      Optional<XmlElement> newContinue = root.getChildOpt("continue");
+      if (newContinue.isPresent()) {
+        return newContinue.get().getAttributeValueOpt(newContinueKey);
+      }
+      // XXX fallback for < MW1_19
+      return Optional.fromNullable(root.getChild("query-continue").getChild(elementName)
+          .getAttributeValue(attributeKey));
+    }
+    Optional<ImmutableMap<String, String>> visited = response.getVisitedContinue();
+    if (visited.isPresent()) {
+      return Optional.fromNullable(visited.get().get(newContinueKey));
+    }
+    return parseXmlHasMore(response.getText(), elementName, attributeKey, newContinueKey);
+  }
+
+  private static class ContinueVisitor implements XmlPullConverter.Visitor {
+
+    private final String elementName;
+    private final String attributeKey;
+    private final String newContinueKey;
+    private boolean hasContinue = false;
+    private Optional<String> newContinue = Optional.absent();
+    private Optional<String> queryContinue = Optional.absent();
+
+    ContinueVisitor(String elementName, String attributeKey, String newContinueKey) {
+      this.elementName = elementName;
+      this.attributeKey = attributeKey;
+      this.newContinueKey = newContinueKey;
+    }
+
+    @Override
+    public void visit(XmlPullElement element) {
+      String parentName = element.getParentName();
+      if (element.getName().equals("continue") && parentName.equals("api")) {
+        hasContinue = true;
+        newContinue = element.getAttributeValueOpt(newContinueKey);
+      } else if (element.getName().equals(elementName) && parentName.equals("query-continue")) {
+        queryContinue = element.getAttributeValueOpt(attributeKey);
+      }
     }
   }
 
@@ -127,33 +480,176 @@ public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneabl
   protected abstract HttpAction prepareNextRequest();
 
   private void doCollection() {
+    if (prefetch != null) {
+      inner.init = false;
+      while (!titleIterator.hasNext()) {
+        Optional<PageAction> page = prefetch.nextPage();
+        if (!page.isPresent()) {
+          break;
+        }
+        startPage(page.get().msg, page.get().pageInfo);
+        titleIterator = warnIfRepeated(page.get().elements).iterator();
+      }
+      return;
+    }
 
     if (inner.init || (!titleIterator.hasNext() && hasNextPageInfo())) {
       inner.init = false;
       inner.setHasMoreMessages(true);
       inner.msg = prepareNextRequest();
+      startPage(inner.msg, nextPageInfoOpt());
       bot.getPerformedAction(inner);
     }
   }
 
+  /**
+   * Is called before the elements of a page are returned; checks the request of a resumed query
+   * and writes the checkpoints.
+   *
+   * @param pageInfo the continuation of the request
+   */
+  private void startPage(HttpAction request, Optional<String> pageInfo) {
+    String requestString = request.getRequest();
+    if (resume.isPresent()) {
+      String expected = resume.get().getRequest();
+      resume = Optional.absent();
+      if (!expected.equals(requestString)) {
+        throw new IllegalStateException("the checkpoint belongs to another query; expected " +
+            expected + ", but was " + requestString);
+      }
+    }
+    if (checkpointFile.isPresent() && pageCount % checkpointInterval == 0) {
+      new QueryCheckpoint(requestString, pageInfo, pageCount).write(checkpointFile.get());
+    }
+    pageCount++;
+  }
+
   /**
    * @param s content form the remote api; maybe xml or json.
    *          It depends on {@link #prepareNextRequest()}
    * @return elements that was found in the given string
+   * @throws UnsupportedOperationException if a query neither implements this method nor
+   *                                       {@link #parsesResponseOnce()}
    */
-  protected abstract ImmutableList<T> parseElements(String s);
+  protected ImmutableList<T> parseElements(String s) {
+    if (!parsesResponseOnce()) {
+      throw notImplemented("parseElements(String)");
+    }
+    return parseElements(ParsedResponse.of(s));
+  }
+
+  /**
+   * @return the elements of the current page, which were not iterated yet, or else of the next
+   * page; empty, if there are no more elements
+   */
+  ImmutableList<T> nextPageElements() {
+    doCollection();
+    return ImmutableList.copyOf(titleIterator);
+  }
+
+  private ImmutableList<T> warnIfRepeated(ImmutableList<T> newTitles) {
+    if (log.isWarnEnabled()) {
+      if (oldTitlesForLogging.equals(newTitles) && !oldTitlesForLogging.isEmpty()) {
+        log.warn("previous response has same payload");
+        // namespaces or same edits in recentchanges
+      }
+      oldTitlesForLogging = newTitles;
+    }
+    return newTitles;
+  }
+
+  /**
+   * Like {@link #parseElements(ParsedResponse)}, but the returned elements are parsed while they
+   * are iterated. {@link #parseHasMore(ParsedResponse)} is called after the last element was
+   * iterated, so that it does not read the remaining elements ahead.
+   *
+   * @return absent, if all elements are parsed at once with {@link #parseElements(ParsedResponse)}
+   */
+  @Beta
+  protected Optional<Iterator<T>> parseElementsLazily(ParsedResponse response) {
+    return Optional.absent();
+  }
 
   /**
    * @param s content form the remote api; maybe xml or json.
    * @return a token, that will be used from {@link #prepareNextRequest()}
+   * @throws UnsupportedOperationException if a query neither implements this method nor
+   *                                       {@link #parsesResponseOnce()}
+   */
+  protected Optional<String> parseHasMore(final String s) {
+    if (!parsesResponseOnce()) {
+      throw notImplemented("parseHasMore(String)");
+    }
+    return parseHasMore(ParsedResponse.of(s));
+  }
+
+  /**
+   * A query implements either the {@link String} based parse methods, which get the text of each
+   * response, or it returns true here and implements {@link #parseElements(ParsedResponse)} and
+   * {@link #parseHasMore(ParsedResponse)}; then the {@link String} based methods parse a new
+   * response with them.
+   * <p/>
+   * While iterating, {@link #parseHasMore(ParsedResponse)} is called after
+   * {@link #parseElements(ParsedResponse)} (or after the last element of
+   * {@link #parseElementsLazily(ParsedResponse)}) with the same response; so it may use the
+   * continuation, which the parsing of the elements has visited. It must not depend on it, because
+   * {@link #parseHasMore(String)} passes a response, which was not visited yet.
+   */
+  @Beta
+  protected boolean parsesResponseOnce() {
+    return false;
+  }
+
+  /**
+   * Like {@link #parseElements(String)}; see {@link #parsesResponseOnce()}.
    */
-  protected abstract Optional<String> parseHasMore(final String s);
+  @Beta
+  protected ImmutableList<T> parseElements(ParsedResponse response) {
+    if (parsesResponseOnce()) {
+      throw notImplemented("parseElements(ParsedResponse)");
+    }
+    return parseElements(response.getText());
+  }
+
+  /**
+   * Like {@link #parseHasMore(String)}; see {@link #parsesResponseOnce()}.
+   */
+  @Beta
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    if (parsesResponseOnce()) {
+      throw notImplemented("parseHasMore(ParsedResponse)");
+    }
+    return parseHasMore(response.getText());
+  }
+
+  private UnsupportedOperationException notImplemented(String method) {
+    return new UnsupportedOperationException(getClass().getName() + " must implement " + method);
+  }
 
   protected MediaWikiBot bot() {
     return bot;
   }
 
-  class QueryAction extends MWAction {
+  /**
+   * @return the format of the bot, when this query was created
+   */
+  protected ResponseFormat responseFormat() {
+    return responseFormat;
+  }
+
+  /**
+   * @return the pool of the bot, when this query was created; for repetitive strings of the
+   * returned elements
+   */
+  protected StringPool stringPool() {
+    return stringPool;
+  }
+
+  protected boolean isJsonFormat() {
+    return responseFormat == ResponseFormat.JSON;
+  }
+
+  class QueryAction extends MWAction implements ReturningStreamProcessor {
 
     private HttpAction msg;
     private boolean init = true;
@@ -171,21 +667,184 @@ public abstract class BaseQuery<T> implements Iterable<T>, Iterator<T>, Cloneabl
      */
     @Override
     public final String processAllReturningText(final String s) {
-      ImmutableList<T> newTitles = parseElements(s);
-      setNextPageInfo(parseHasMore(s).orNull());
-      if (log.isWarnEnabled()) {
-        if (oldTitlesForLogging.equals(newTitles) && !oldTitlesForLogging.isEmpty()) {
-          log.warn("previous response has same payload");
-          // namespaces or same edits in recentchanges
-        }
-        oldTitlesForLogging = newTitles;
+      return process(ParsedResponse.of(s));
+    }
+
+    /**
+     * Reads the body into a byte array and hands it to the parsers without decoding it into a
+     * {@link String}, unless a query only implements the {@link String} based parse methods.
+     */
+    @Override
+    public final String processReturningStream(InputStream body, Charset charset,
+        HttpAction action) throws IOException {
+      return process(ParsedResponse.of(ByteStreams.toByteArray(body), charset));
+    }
+
+    private String process(ParsedResponse response) {
+      Optional<Iterator<T>> lazyTitles = parseElementsLazily(response);
+      if (lazyTitles.isPresent()) {
+        setNextPageInfo(null);
+        titleIterator = new LazyPage(lazyTitles.get(), response);
+        return "";
       }
+      ImmutableList<T> newTitles = parseElements(response);
+      setNextPageInfo(parseHasMore(response).orNull());
+      titleIterator = warnIfRepeated(newTitles).iterator();
+      return "";
+    }
+  }
+
+  /**
+   * The elements of {@link #parseElementsLazily(ParsedResponse)}; reads the continuation of the
+   * response, when there are no more elements.
+   */
+  private class LazyPage extends AbstractIterator<T> {
 
-      titleIterator = newTitles.iterator();
+    private final Iterator<T> elements;
+    private final ParsedResponse response;
+
+    LazyPage(Iterator<T> elements, ParsedResponse response) {
+      this.elements = elements;
+      this.response = response;
+    }
+
+    @Override
+    protected T computeNext() {
+      if (elements.hasNext()) {
+        return elements.next();
+      }
+      setNextPageInfo(parseHasMore(response).orNull());
+      return endOfData();
+    }
+  }
+
+  /**
+   * Fetches and parses one page for {@link Prefetch}, without changing the state of the query.
+   */
+  private class PageAction extends MWAction implements ReturningStreamProcessor {
+
+    private final HttpAction msg;
+    private final Optional<String> pageInfo;
+    private ImmutableList<T> elements = ImmutableList.of();
+    private Optional<String> nextPageInfo = Optional.absent();
+
+    PageAction(HttpAction msg, Optional<String> pageInfo) {
+      this.msg = msg;
+      this.pageInfo = pageInfo;
+    }
+
+    @Override
+    public HttpAction getNextMessage() {
+      return msg;
+    }
+
+    @Override
+    public String processAllReturningText(String s) {
+      return process(ParsedResponse.of(s));
+    }
+
+    @Override
+    public String processReturningStream(InputStream body, Charset charset, HttpAction action)
+        throws IOException {
+      return process(ParsedResponse.of(ByteStreams.toByteArray(body), charset));
+    }
+
+    private String process(ParsedResponse response) {
+      elements = parseElements(response);
+      nextPageInfo = Optionals.absentIfEmpty(parseHasMore(response).orNull());
       return "";
     }
   }
 
+  /**
+   * The pages fetched ahead, in order; only the last of them may still wait for its response,
+   * because each request needs the continuation of its predecessor. All fields and the
+   * {@link #nextPageInfoOpt()} of the query are guarded by this.
+   */
+  private class Prefetch {
+
+    private final int depth;
+    private final Deque<ListenableFuture<PageAction>> pages = new ArrayDeque<>();
+    private ListenableFuture<PageAction> last = null;
+
+    Prefetch(int depth) {
+      this.depth = depth;
+    }
+
+    /**
+     * Blocks until the next page is fetched. If that fails, the exception is thrown and the page
+     * is requested again by the next call, like without prefetching.
+     *
+     * @return the next page or absent, if there are no more pages
+     */
+    Optional<PageAction> nextPage() {
+      ListenableFuture<PageAction> head;
+      synchronized (this) {
+        schedule();
+        head = pages.peek();
+      }
+      if (head == null) {
+        return Optional.absent();
+      }
+      PageAction page;
+      try {
+        page = Futures.getUnchecked(head);
+      } catch (UncheckedExecutionException e) {
+        synchronized (this) {
+          pages.poll();
+          if (head == last) {
+            // nothing follows a failed page, and the page info is still the one of its request
+            last = null;
+          }
+        }
+        throw Throwables.propagate(e.getCause());
+      }
+      synchronized (this) {
+        pages.poll();
+        schedule();
+      }
+      return Optional.of(page);
+    }
+
+    /**
+     * Requests the page after the last one, if that is done, has a continuation and there is
+     * space left; is called again, when the new page is done.
+     */
+    private void schedule() {
+      if (pages.size() >= depth) {
+        return;
+      }
+      // the first page is requested with the initial page info, e.g. of a resumed query, and a
+      // failed page with its own
+      if (last != null) {
+        if (!last.isDone()) {
+          return;
+        }
+        Optional<String> lastPageInfo;
+        try {
+          lastPageInfo = Futures.getUnchecked(last).nextPageInfo;
+        } catch (UncheckedExecutionException e) {
+          // is thrown to the iterating thread
+          return;
+        }
+        if (!lastPageInfo.isPresent()) {
+          return;
+        }
+        setNextPageInfo(lastPageInfo.get());
+      }
+      last = bot.getPerformedActionAsync(new PageAction(prepareNextRequest(), nextPageInfoOpt()));
+      pages.add(last);
+      last.addListener(new Runnable() {
+        @Override
+        public void run() {
+          synchronized (Prefetch.this) {
+            schedule();
+          }
+        }
+      }, MoreExecutors.directExecutor());
+    }
+  }
+
   @Override
   protected Object clone() throws CloneNotSupportedException {
     super.clone();
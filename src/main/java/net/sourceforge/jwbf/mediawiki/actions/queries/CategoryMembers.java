@@ -18,9 +18,7 @@
  */
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
-import javax.annotation.Nonnull;
-import java.util.List;
-
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Optional;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
@@ -28,8 +26,10 @@ import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.internal.Checked;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
-import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
@@ -49,11 +49,6 @@ abstract class CategoryMembers extends BaseQuery<CategoryItem> {
 
   private static final Logger log = LoggerFactory.getLogger(CategoryMembers.class);
 
-  /**
-   * constant value for the bllimit-parameter. *
-   */
-  protected static final int LIMIT = 50;
-
   final String categoryName;
   private final String namespaceStr;
   final ImmutableList<Integer> namespace;
@@ -66,6 +61,11 @@ abstract class CategoryMembers extends BaseQuery<CategoryItem> {
     this.categoryName = Checked.nonNull(categoryName, "categoryName").replace(" ", "_");
   }
 
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
   /**
    * generates the next MediaWiki-request (GetMethod) and adds it to msgs.
    *
@@ -93,46 +93,65 @@ abstract class CategoryMembers extends BaseQuery<CategoryItem> {
    * gets the information about a follow-up page from a provided api response. If there is one, a
    * new request is added to msgs by calling generateRequest.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  public Optional<String> parseHasMore(final String xml) {
-    return parseXmlHasMore(xml, "categorymembers", "cmcontinue", "cmcontinue");
+  public Optional<String> parseHasMore(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonHasMore(response, "cmcontinue");
+    }
+    return parseXmlHasMore(response, "categorymembers", "cmcontinue", "cmcontinue");
+  }
+
+  @Override
+  protected boolean parsesResponseOnce() {
+    return true;
   }
 
   /**
    * picks the article name from a MediaWiki api response.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  public ImmutableList<CategoryItem> parseElements(String xml) {
-    return parseArticles(xml, toCategoryItem());
+  public ImmutableList<CategoryItem> parseElements(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonItems(response);
+    }
+    return parseXmlItems(response);
+  }
 
+  <T> ImmutableList<T> parseArticles(ParsedResponse response,
+      NonnullFunction<CategoryItem, T> f) {
+    return FluentIterable.from(parseElements(response)).transform(f).toList();
   }
 
-  private NonnullFunction<XmlElement, CategoryItem> toCategoryItem() {
-    return new NonnullFunction<XmlElement, CategoryItem>() {
-      @Nonnull
+  private ImmutableList<CategoryItem> parseXmlItems(ParsedResponse response) {
+    final ImmutableList.Builder<CategoryItem> builder = ImmutableList.builder();
+    response.visit(new XmlPullConverter.Visitor() {
       @Override
-      protected CategoryItem applyNonnull(@Nonnull XmlElement input) {
-        String title = input.getAttributeValueNonNull("title");
-        int namespace = Integer.parseInt(input.getAttributeValueNonNull("ns"));
-        int pageId = Integer.parseInt(input.getAttributeValueNonNull("pageid"));
-        return new CategoryItem(title, namespace, pageId);
-
+      public void visit(XmlPullElement element) {
+        if (element.getParentName().equals("categorymembers")) {
+          String title = element.getAttributeValueNonNull("title");
+          int namespace = Integer.parseInt(element.getAttributeValueNonNull("ns"));
+          int pageId = Integer.parseInt(element.getAttributeValueNonNull("pageid"));
+          builder.add(new CategoryItem(stringPool().intern(title), namespace, pageId));
+        }
       }
-    };
+    }, "cm");
+    return builder.build();
   }
 
-  <T> ImmutableList<T> parseArticles(String xml, NonnullFunction<XmlElement, T> f) {
-    Optional<XmlElement> child = XmlConverter.getChildOpt(xml, "query", "categorymembers");
-    if (child.isPresent()) {
-      List<XmlElement> children = child.get().getChildren();
-      return FluentIterable.from(children).transform(f).toList();
-    } else {
-      return ImmutableList.of();
-    }
+  private ImmutableList<CategoryItem> parseJsonItems(ParsedResponse response) {
+    final ImmutableList.Builder<CategoryItem> builder = ImmutableList.builder();
+    response.visitJson(new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode cm) {
+        String title = stringPool().intern(Checked.nonNull(cm.path("title").textValue(), "title"));
+        builder.add(new CategoryItem(title, cm.path("ns").asInt(), cm.path("pageid").asInt()));
+      }
+    }, "query.categorymembers");
+    return builder.build();
   }
 
   private RequestBuilder newRequestBuilder() {
@@ -143,10 +162,10 @@ abstract class CategoryMembers extends BaseQuery<CategoryItem> {
 
     return requestBuilder //
         .action("query") //
-        .formatXml() //
+        .format(responseFormat()) //
         .paramNewContinue(bot().getVersion()) //
         .param("list", "categorymembers") //
-        .param("cmlimit", LIMIT) //
+        .param("cmlimit", limitValue()) //
         .param("cmtitle", "Category:" + MediaWiki.urlEncode(categoryName)) //
         // TODO: do not add Category: - instead, change other methods' descs (e.g.
         // in MediaWikiBot)
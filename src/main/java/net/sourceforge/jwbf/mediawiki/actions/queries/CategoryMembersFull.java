@@ -19,8 +19,6 @@ public class CategoryMembersFull extends CategoryMembers {
 
   private static final Logger log = LoggerFactory.getLogger(CategoryMembersFull.class);
 
-  private boolean init = true;
-
   public CategoryMembersFull(MediaWikiBot bot, String categoryName,
       ImmutableList<Integer> namespaces) {
     super(bot, categoryName, namespaces);
@@ -32,11 +30,10 @@ public class CategoryMembersFull extends CategoryMembers {
 
   @Override
   public HttpAction prepareNextRequest() {
-    if (init) {
-      init = false;
-      return generateFirstRequest();
-    } else {
+    if (hasNextPageInfo()) {
       return generateContinueRequest(getNextPageInfo());
+    } else {
+      return generateFirstRequest();
     }
   }
 
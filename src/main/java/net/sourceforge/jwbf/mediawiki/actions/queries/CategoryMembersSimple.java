@@ -18,18 +18,19 @@
  */
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
-import javax.annotation.Nonnull;
+import java.nio.file.Path;
 import java.util.Iterator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.Checked;
-import net.sourceforge.jwbf.core.internal.NonnullFunction;
-import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+import net.sourceforge.jwbf.mediawiki.contentRep.CategoryItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,13 +78,70 @@ public class CategoryMembersSimple extends BaseQuery<String> {
   }
 
   @Override
-  protected ImmutableList<String> parseElements(String s) {
-    return cm.parseArticles(s, toTitleFunction());
+  protected boolean parsesResponseOnce() {
+    return true;
   }
 
   @Override
-  protected Optional<String> parseHasMore(String s) {
-    return cm.parseHasMore(s);
+  protected ImmutableList<String> parseElements(ParsedResponse response) {
+    return cm.parseArticles(response, CategoryItem.toTitleStringFunction());
+  }
+
+  @Override
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    return cm.parseHasMore(response);
+  }
+
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CategoryMembersSimple withLimit(int limit) {
+    cm.withLimit(limit);
+    super.withLimit(limit);
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CategoryMembersSimple withPrefetch(int depth) {
+    cm.withPrefetch(depth);
+    super.withPrefetch(depth);
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CategoryMembersSimple withCheckpoints(Path file, int everyPages) {
+    cm.withCheckpoints(file, everyPages);
+    super.withCheckpoints(file, everyPages);
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CategoryMembersSimple resumeFrom(QueryCheckpoint checkpoint) {
+    cm.resumeFrom(checkpoint);
+    super.resumeFrom(checkpoint);
+    return this;
+  }
+
+  @Override
+  ImmutableList<String> nextPageElements() {
+    return FluentIterable.from(cm.nextPageElements()) //
+        .transform(CategoryItem.toTitleStringFunction()) //
+        .toList();
   }
 
   @Override
@@ -101,15 +159,4 @@ public class CategoryMembersSimple extends BaseQuery<String> {
     return cm.next().getTitle();
   }
 
-  static NonnullFunction<XmlElement, String> toTitleFunction() {
-    return new NonnullFunction<XmlElement, String>() {
-      @Nonnull
-      @Override
-      public String applyNonnull(@Nonnull XmlElement input) {
-        return input.getAttributeValueNonNull("title");
-
-      }
-    };
-  }
-
 }
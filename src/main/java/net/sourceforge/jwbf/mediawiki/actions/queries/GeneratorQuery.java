@@ -0,0 +1,251 @@
+package net.sourceforge.jwbf.mediawiki.actions.queries;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.annotations.Beta;
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import net.sourceforge.jwbf.core.actions.RequestBuilder;
+import net.sourceforge.jwbf.core.actions.util.ActionException;
+import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
+import net.sourceforge.jwbf.core.internal.Checked;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
+import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
+import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.actions.editing.GetRevision;
+import net.sourceforge.jwbf.mediawiki.actions.editing.RevisionParser;
+import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+
+/**
+ * Lists pages with a generator and reads their latest revision with the same requests; e.g. the
+ * content of all members of a category without a {@link GetRevision} for each batch of titles.
+ * <p/>
+ * A continuation has several values, e.g. of the generator and of the revisions, which are kept
+ * together as one next page info. Pages without a revision in a response are skipped; if the
+ * revisions of a batch do not fit into one response, they follow in the next one.
+ * <p/>
+ * See also: <a href="https://www.mediawiki.org/wiki/API:Query#Generators">API:Query</a>
+ */
+@Beta
+public class GeneratorQuery extends BaseQuery<SimpleArticle> {
+
+  /**
+   * The supported lists, which generate the pages.
+   */
+  public enum Generator {
+    CATEGORYMEMBERS("categorymembers", "gcm"), //
+    ALLPAGES("allpages", "gap"), //
+    BACKLINKS("backlinks", "gbl"), //
+    EMBEDDEDIN("embeddedin", "gei");
+
+    private final String name;
+    private final String prefix;
+
+    Generator(String name, String prefix) {
+      this.name = name;
+      this.prefix = prefix;
+    }
+  }
+
+  /**
+   * All revision properties, except {@link GetRevision#COMPACT_TEXT}.
+   */
+  public static final int ALL_PROPERTIES = GetRevision.CONTENT | GetRevision.TIMESTAMP |
+      GetRevision.USER | GetRevision.COMMENT | GetRevision.IDS | GetRevision.FLAGS;
+
+  private static final Joiner.MapJoiner CONTINUE_JOINER =
+      Joiner.on('&').withKeyValueSeparator("=");
+  private static final Splitter.MapSplitter CONTINUE_SPLITTER =
+      Splitter.on('&').withKeyValueSeparator('=');
+
+  private final Generator generator;
+  private final Optional<String> title;
+  private final ImmutableList<Integer> namespaces;
+  private final int properties;
+  private final RevisionParser parser;
+
+  private GeneratorQuery(MediaWikiBot bot, Generator generator, Optional<String> title,
+      ImmutableList<Integer> namespaces, int properties) {
+    super(bot);
+    this.generator = generator;
+    this.title = title;
+    this.namespaces = namespaces;
+    this.properties = properties;
+    this.parser = new RevisionParser(properties, stringPool());
+  }
+
+  /**
+   * @param categoryTitle like "Category:Buildings"
+   */
+  public static Builder categoryMembers(MediaWikiBot bot, String categoryTitle) {
+    return new Builder(bot, Generator.CATEGORYMEMBERS, Checked.nonNull(categoryTitle, "title"));
+  }
+
+  public static Builder allPages(MediaWikiBot bot) {
+    return new Builder(bot, Generator.ALLPAGES, null);
+  }
+
+  /**
+   * @param title of the page, which is linked by the listed pages
+   */
+  public static Builder backlinks(MediaWikiBot bot, String title) {
+    return new Builder(bot, Generator.BACKLINKS, Checked.nonNull(title, "title"));
+  }
+
+  /**
+   * @param templateTitle like "Template:Babel"
+   */
+  public static Builder embeddedIn(MediaWikiBot bot, String templateTitle) {
+    return new Builder(bot, Generator.EMBEDDEDIN, Checked.nonNull(templateTitle, "title"));
+  }
+
+  @Override
+  protected HttpAction prepareNextRequest() {
+    ApiRequestBuilder requestBuilder = new ApiRequestBuilder();
+    requestBuilder.action("query") //
+        .format(responseFormat()) //
+        .param("generator", generator.name) //
+        .param(generator.prefix + "limit", limitValue()) //
+        .param("prop", MediaWiki.urlEncode("revisions|info")) //
+        .param("rvprop", GetRevision.getDataProperties(properties));
+    if (title.isPresent()) {
+      requestBuilder.param(generator.prefix + "title", MediaWiki.urlEncode(title.get()));
+    }
+    if (!namespaces.isEmpty()) {
+      requestBuilder.param(generator.prefix + "namespace",
+          MediaWiki.urlEncodedNamespace(namespaces));
+    }
+    if (hasNextPageInfo()) {
+      // contains the continue value, too
+      addParams(requestBuilder, CONTINUE_SPLITTER.split(getNextPageInfo()));
+    } else {
+      requestBuilder.paramNewContinue(bot().getVersion());
+    }
+    return requestBuilder.buildGet();
+  }
+
+  private static void addParams(RequestBuilder requestBuilder, Map<String, String> params) {
+    for (Map.Entry<String, String> param : params.entrySet()) {
+      requestBuilder.param(param.getKey(), param.getValue());
+    }
+  }
+
+  @Override
+  protected boolean parsesResponseOnce() {
+    return true;
+  }
+
+  @Override
+  protected ImmutableList<SimpleArticle> parseElements(ParsedResponse response) {
+    final ImmutableList.Builder<SimpleArticle> articles = ImmutableList.builder();
+    parser.parse(response, responseFormat(), new RevisionParser.Callback() {
+      @Override
+      public void onPage(SimpleArticle article, boolean hasRevision) {
+        if (hasRevision) {
+          articles.add(article);
+        }
+      }
+    });
+    return articles.build();
+  }
+
+  /**
+   * @return all values of the <code>continue</code> element as encoded query string
+   */
+  @Override
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    Optional<ImmutableMap<String, String>> values = response.getVisitedContinue();
+    if (!values.isPresent()) {
+      values = visitContinue(response);
+    }
+    if (!values.isPresent()) {
+      throw new ActionException("generator queries need MediaWiki 1.21 or later");
+    }
+    if (values.get().isEmpty()) {
+      return Optional.absent();
+    }
+    return Optional.of(CONTINUE_JOINER.join(Maps.transformValues(values.get(),
+        new Function<String, String>() {
+          @Override
+          public String apply(String input) {
+            return MediaWiki.urlEncode(input);
+          }
+        })));
+  }
+
+  private Optional<ImmutableMap<String, String>> visitContinue(ParsedResponse response) {
+    if (isJsonFormat()) {
+      response.visitJson(new JsonPullConverter.Visitor() {
+        @Override
+        public void visit(String path, JsonNode node) {
+          // only the continuation is needed
+        }
+      });
+    } else {
+      response.visit(new XmlPullConverter.Visitor() {
+        @Override
+        public void visit(XmlPullElement element) {
+          // only the continuation is needed
+        }
+      });
+    }
+    return response.getVisitedContinue();
+  }
+
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
+  @Override
+  protected Iterator<SimpleArticle> copy() {
+    return new GeneratorQuery(bot(), generator, title, namespaces, properties);
+  }
+
+  public static class Builder {
+
+    private final MediaWikiBot bot;
+    private final Generator generator;
+    private final Optional<String> title;
+    private ImmutableList<Integer> namespaces = ImmutableList.of();
+    private int properties = ALL_PROPERTIES;
+
+    Builder(MediaWikiBot bot, Generator generator, String title) {
+      this.bot = Checked.nonNull(bot, "bot");
+      this.generator = generator;
+      this.title = Optional.fromNullable(title);
+    }
+
+    /**
+     * Only list pages in these namespaces.
+     */
+    public Builder withNamespaces(int... namespaces) {
+      this.namespaces = MediaWiki.nullSafeCopyOf(namespaces);
+      return this;
+    }
+
+    /**
+     * @param properties of the revisions, like {@link GetRevision#CONTENT}; defaults to
+     *                   {@link #ALL_PROPERTIES}
+     */
+    public Builder withProperties(int properties) {
+      this.properties = properties;
+      return this;
+    }
+
+    public GeneratorQuery build() {
+      return new GeneratorQuery(bot, generator, title, namespaces, properties);
+    }
+  }
+}
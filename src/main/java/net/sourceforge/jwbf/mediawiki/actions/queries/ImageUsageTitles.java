@@ -25,7 +25,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
@@ -45,22 +45,18 @@ public class ImageUsageTitles extends BaseQuery<String> {
 
   private static final Logger log = LoggerFactory.getLogger(ImageUsageTitles.class);
 
-  private final int limit;
-
   private final MediaWikiBot bot;
 
   private final String imageName;
   private final ImmutableList<Integer> namespaces;
 
   public ImageUsageTitles(MediaWikiBot bot, String imageName, int... namespaces) {
-    this(bot, 50, imageName, MWAction.nullSafeCopyOf(namespaces));
+    this(bot, imageName, MWAction.nullSafeCopyOf(namespaces));
   }
 
-  ImageUsageTitles(MediaWikiBot bot, int limit, String imageName,
-      ImmutableList<Integer> namespaces) {
+  ImageUsageTitles(MediaWikiBot bot, String imageName, ImmutableList<Integer> namespaces) {
     super(bot);
     this.bot = bot;
-    this.limit = limit;
     this.imageName = imageName;
     this.namespaces = namespaces;
   }
@@ -73,22 +69,27 @@ public class ImageUsageTitles extends BaseQuery<String> {
    * gets the information about a follow-up page from a provided api response. If there is one, a
    * new request is added to msgs by calling generateRequest.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  protected Optional<String> parseHasMore(final String xml) {
-    return parseXmlHasMore(xml, "imageusage", "iucontinue", "iucontinue");
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    return parseXmlHasMore(response, "imageusage", "iucontinue", "iucontinue");
+  }
+
+  @Override
+  protected boolean parsesResponseOnce() {
+    return true;
   }
 
   /**
    * picks the article name from a MediaWiki api response.
    *
-   * @param s text for parsing
+   * @param response for parsing
    */
   @Override
-  protected ImmutableList<String> parseElements(String s) {
+  protected ImmutableList<String> parseElements(ParsedResponse response) {
     ImmutableList.Builder<String> titleCollection = ImmutableList.builder();
-    Optional<XmlElement> childOpt = XmlConverter.getChildOpt(s, "query", "imageusage");
+    Optional<XmlElement> childOpt = response.getChildOpt("query", "imageusage");
     if (childOpt.isPresent()) {
       for (XmlElement element : childOpt.get().getChildren("iu")) {
         titleCollection.add(element.getAttributeValue("title"));
@@ -105,7 +106,7 @@ public class ImageUsageTitles extends BaseQuery<String> {
         .formatXml() //
         .param("iutitle", MediaWiki.urlEncode(imageName)) //
         .param("list", "imageusage") //
-        .param("iulimit", limit) //
+        .param("iulimit", limitValue()) //
         .param("iunamespace", MediaWiki.urlEncodedNamespace(namespaces));
 
     Optional<String> ilcontinue = nextPageInfoOpt();
@@ -116,12 +117,17 @@ public class ImageUsageTitles extends BaseQuery<String> {
 
   }
 
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   protected Iterator<String> copy() {
-    return new ImageUsageTitles(bot, limit, imageName, namespaces);
+    return new ImageUsageTitles(bot, imageName, namespaces);
   }
 
 }
@@ -20,17 +20,19 @@ package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import javax.annotation.Nonnull;
 import java.util.Iterator;
-import java.util.List;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
-import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import net.sourceforge.jwbf.core.StringPool;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
-import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
@@ -61,8 +63,6 @@ public class LogEvents extends BaseQuery<LogItem> {
   public static final String PATROL = "patrol";
   public static final String MERGE = "merge";
 
-  private final int limit;
-
   /**
    * Collection that will contain the result (titles of articles linking to the target) after
    * performing the action has finished.
@@ -75,7 +75,7 @@ public class LogEvents extends BaseQuery<LogItem> {
    * @param type of like {@link #MOVE}
    */
   public LogEvents(MediaWikiBot bot, String type) {
-    this(bot, 50, ImmutableList.<String>of(type));
+    this(bot, ImmutableList.<String>of(type));
   }
 
   /**
@@ -84,7 +84,7 @@ public class LogEvents extends BaseQuery<LogItem> {
    */
   @Deprecated
   public LogEvents(MediaWikiBot bot, String[] type) {
-    this(bot, 50, type);
+    this(bot, MWAction.nullSafeCopyOf(type));
   }
 
   /**
@@ -110,10 +110,13 @@ public class LogEvents extends BaseQuery<LogItem> {
   }
 
   LogEvents(MediaWikiBot bot, int limit, ImmutableList<String> logtypes) {
+    this(bot, logtypes);
+    withLimit(limit);
+  }
+
+  LogEvents(MediaWikiBot bot, ImmutableList<String> logtypes) {
     super(bot);
     this.type = logtypes; // String because logtypes is an extension point
-    Preconditions.checkArgument(limit > 0, "limit must be > 0, but was " + limit);
-    this.limit = limit;
   }
 
   private RequestBuilder generateRequest(ImmutableList<String> logtypes) {
@@ -121,9 +124,9 @@ public class LogEvents extends BaseQuery<LogItem> {
     RequestBuilder requestBuilder = new ApiRequestBuilder() //
         .action("query") //
         .paramNewContinue(bot().getVersion()) //
-        .formatXml() //
+        .format(responseFormat()) //
         .param("list", "logevents") //
-        .param("lelimit", limit) //
+        .param("lelimit", limitValue()) //
         ;
 
     if (logtypes.size() > 0) {
@@ -133,28 +136,49 @@ public class LogEvents extends BaseQuery<LogItem> {
   }
 
   @Override
-  protected ImmutableList<LogItem> parseElements(String xml) {
-
-    ImmutableList.Builder<LogItem> builder = ImmutableList.builder();
-    Optional<XmlElement> child = XmlConverter.getChildOpt(xml, "query", "logevents");
-    if (child.isPresent()) {
-      List<XmlElement> items = child.get().getChildren("item");
-      for (XmlElement item : items) {
-        String title = item.getAttributeValue("title");
-        String typeOf = item.getAttributeValue("type");
-        String user = item.getAttributeValue("user");
-        builder.add(new LogItem(title, typeOf, user));
+  protected boolean parsesResponseOnce() {
+    return true;
+  }
 
-      }
+  @Override
+  protected ImmutableList<LogItem> parseElements(ParsedResponse response) {
+
+    final ImmutableList.Builder<LogItem> builder = ImmutableList.builder();
+    if (isJsonFormat()) {
+      response.visitJson(new JsonPullConverter.Visitor() {
+        @Override
+        public void visit(String path, JsonNode item) {
+          String title = item.path("title").textValue();
+          String typeOf = item.path("type").textValue();
+          String user = item.path("user").textValue();
+          StringPool pool = stringPool();
+          builder.add(new LogItem(pool.intern(title), pool.intern(typeOf), pool.intern(user)));
+        }
+      }, "query.logevents");
+      return builder.build();
     }
+    response.visit(new XmlPullConverter.Visitor() {
+      @Override
+      public void visit(XmlPullElement item) {
+        if (item.getParentName().equals("logevents")) {
+          String title = item.getAttributeValue("title");
+          String typeOf = item.getAttributeValue("type");
+          String user = item.getAttributeValue("user");
+          StringPool pool = stringPool();
+          builder.add(new LogItem(pool.intern(title), pool.intern(typeOf), pool.intern(user)));
+        }
+      }
+    }, "item");
     return builder.build();
 
   }
 
   @Override
-  protected Optional<String> parseHasMore(final String s) {
-    if (bot().getVersion().greaterEqThen(MediaWiki.Version.MW1_23)) {
-      return parseXmlHasMore(s, "logevents", "lestart", "lecontinue");
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    if (isJsonFormat()) {
+      return parseJsonHasMore(response, "lecontinue");
+    } else if (bot().getVersion().greaterEqThen(MediaWiki.Version.MW1_23)) {
+      return parseXmlHasMore(response, "logevents", "lestart", "lecontinue");
     } else {
       log.warn("continuation is not supported");
       return Optional.absent();
@@ -175,7 +199,7 @@ public class LogEvents extends BaseQuery<LogItem> {
 
   @Override
   protected Iterator<LogItem> copy() {
-    return new LogEvents(bot(), limit, type);
+    return new LogEvents(bot(), type);
   }
 
   static Function<LogItem, String> toTitles() {
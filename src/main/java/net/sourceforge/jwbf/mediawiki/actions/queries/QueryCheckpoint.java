@@ -0,0 +1,145 @@
+package net.sourceforge.jwbf.mediawiki.actions.queries;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import net.sourceforge.jwbf.core.internal.Checked;
+
+/**
+ * The position of a {@link BaseQuery}: the request of a page with its continuation and the number
+ * of pages before it. A query resumed with {@link BaseQuery#resumeFrom(QueryCheckpoint)} starts
+ * with this page again; see {@link BaseQuery#withCheckpoints(Path, int)}.
+ */
+@Beta
+public final class QueryCheckpoint {
+
+  private static final String REQUEST = "request";
+  private static final String NEXT_PAGE_INFO = "nextPageInfo";
+  private static final String PAGE_COUNT = "pageCount";
+
+  private final String request;
+  private final Optional<String> nextPageInfo;
+  private final long pageCount;
+
+  QueryCheckpoint(String request, Optional<String> nextPageInfo, long pageCount) {
+    this.request = Checked.nonNull(request, REQUEST);
+    this.nextPageInfo = Checked.nonNull(nextPageInfo, NEXT_PAGE_INFO);
+    this.pageCount = pageCount;
+  }
+
+  /**
+   * @return the request of the page, which contains all parameters of the query
+   */
+  public String getRequest() {
+    return request;
+  }
+
+  /**
+   * @return the continuation of the page; absent for the first page
+   */
+  public Optional<String> getNextPageInfo() {
+    return nextPageInfo;
+  }
+
+  /**
+   * @return the number of pages before the page
+   */
+  public long getPageCount() {
+    return pageCount;
+  }
+
+  /**
+   * @throws IllegalStateException if the file is not readable
+   * @throws IllegalArgumentException if the file is no checkpoint
+   */
+  public static QueryCheckpoint read(Path file) {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    String request = properties.getProperty(REQUEST);
+    String pageCount = properties.getProperty(PAGE_COUNT);
+    if (request == null || pageCount == null) {
+      throw new IllegalArgumentException(file + " is no query checkpoint");
+    }
+    return new QueryCheckpoint(request,
+        Optional.fromNullable(properties.getProperty(NEXT_PAGE_INFO)), Long.parseLong(pageCount));
+  }
+
+  /**
+   * Replaces the file at once, so that it contains this or the previous checkpoint, even if the
+   * process is stopped while writing.
+   *
+   * @throws IllegalStateException if the file is not writable
+   */
+  public void write(Path file) {
+    Properties properties = new Properties();
+    properties.setProperty(REQUEST, request);
+    if (nextPageInfo.isPresent()) {
+      properties.setProperty(NEXT_PAGE_INFO, nextPageInfo.get());
+    }
+    properties.setProperty(PAGE_COUNT, Long.toString(pageCount));
+    Path absoluteFile = file.toAbsolutePath();
+    try {
+      Path temp = Files.createTempFile(absoluteFile.getParent(),
+          absoluteFile.getFileName().toString(), ".tmp");
+      try {
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+          properties.store(writer, "jwbf query checkpoint");
+        }
+        move(temp, absoluteFile);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof QueryCheckpoint) {
+      QueryCheckpoint that = (QueryCheckpoint) obj;
+      return Objects.equals(request, that.request) && //
+          Objects.equals(nextPageInfo, that.nextPageInfo) && //
+          pageCount == that.pageCount;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(request, nextPageInfo, pageCount);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this) //
+        .add(REQUEST, request) //
+        .add(NEXT_PAGE_INFO, nextPageInfo) //
+        .add(PAGE_COUNT, pageCount) //
+        .toString();
+  }
+}
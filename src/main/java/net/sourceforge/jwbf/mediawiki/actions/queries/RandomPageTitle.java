@@ -4,6 +4,7 @@ import com.google.common.base.Optional;
 import net.sourceforge.jwbf.core.Optionals;
 import net.sourceforge.jwbf.core.actions.Get;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.mapper.CompiledXpath;
 import net.sourceforge.jwbf.mapper.XmlConverter;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
@@ -20,6 +21,9 @@ public class RandomPageTitle extends MWAction {
 
   private static final Logger log = LoggerFactory.getLogger(RandomPageTitle.class);
 
+  private static final CompiledXpath TITLE_XPATH =
+      XmlConverter.compileXpath("/api/query/random/page/@title");
+
   private final Get msg;
   private final MediaWikiBot bot;
 
@@ -58,7 +62,7 @@ public class RandomPageTitle extends MWAction {
    */
   @Override
   public String processAllReturningText(String xml) {
-    String xpathResult = XmlConverter.evaluateXpath(xml, "/api/query/random/page/@title");
+    String xpathResult = TITLE_XPATH.evaluate(xml);
     title = Optionals.absentIfEmpty(xpathResult);
     log.debug("Title: {}", title);
     return "";
@@ -19,15 +19,15 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import java.util.Iterator;
-import java.util.List;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
-import net.sourceforge.jwbf.mapper.XmlElement;
+import net.sourceforge.jwbf.mapper.JsonPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullConverter;
+import net.sourceforge.jwbf.mapper.XmlPullElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.actions.util.MWAction;
@@ -47,11 +47,6 @@ public class RecentchangeTitles extends BaseQuery<String> {
 
   private static final Logger log = LoggerFactory.getLogger(RecentchangeTitles.class);
 
-  /**
-   * value for the bllimit-parameter. *
-   */
-  private static final int LIMIT = 50;
-
   private final MediaWikiBot bot;
 
   private final int[] namespaces;
@@ -67,9 +62,9 @@ public class RecentchangeTitles extends BaseQuery<String> {
 
     RequestBuilder requestBuilder = new ApiRequestBuilder() //
         .action("query") //
-        .formatXml() //
+        .format(responseFormat()) //
         .param("list", "recentchanges") //
-        .param("rclimit", LIMIT) //
+        .param("rclimit", limitValue()) //
         ;
     if (namespace != null) {
       requestBuilder.param("rcnamespace", MediaWiki.urlEncode(MWAction.createNsString(namespace)));
@@ -110,24 +105,26 @@ public class RecentchangeTitles extends BaseQuery<String> {
    */
   @Override
   protected ImmutableList<String> parseElements(String s) {
-    XmlElement root = XmlConverter.getRootElement(s);
-    List<String> titleCollection = Lists.newArrayList();
-    findContent(root, titleCollection);
-    return ImmutableList.copyOf(titleCollection);
-
-  }
-
-  private void findContent(final XmlElement root, List<String> titleCollection) {
-
-    for (XmlElement xmlElement : root.getChildren()) {
-      if (xmlElement.getQualifiedName().equalsIgnoreCase("rc")) {
-        titleCollection.add(MediaWiki.htmlUnescape(xmlElement.getAttributeValue("title")));
-        setNextPageInfo(xmlElement.getAttributeValue("timestamp"));
-      } else {
-        findContent(xmlElement, titleCollection);
+    final ImmutableList.Builder<String> titleCollection = ImmutableList.builder();
+    if (isJsonFormat()) {
+      JsonPullConverter.visit(s, new JsonPullConverter.Visitor() {
+        @Override
+        public void visit(String path, JsonNode rc) {
+          titleCollection.add(rc.path("title").asText());
+          setNextPageInfo(rc.path("timestamp").asText());
+        }
+      }, "query.recentchanges");
+      return titleCollection.build();
+    }
+    XmlPullConverter.visit(s, new XmlPullConverter.Visitor() {
+      @Override
+      public void visit(XmlPullElement element) {
+        titleCollection.add(MediaWiki.htmlUnescape(element.getAttributeValue("title")));
+        setNextPageInfo(element.getAttributeValue("timestamp"));
       }
+    }, "rc");
+    return titleCollection.build();
 
-    }
   }
 
   @Override
@@ -1,9 +1,12 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
@@ -11,8 +14,8 @@ import com.google.common.primitives.Ints;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.contentRep.SearchResult;
-import net.sourceforge.jwbf.core.contentRep.SearchResultList;
-import net.sourceforge.jwbf.mapper.JsonMapper;
+import net.sourceforge.jwbf.mapper.JsonPage;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
@@ -96,11 +99,6 @@ public class Search extends BaseQuery<SearchResult> {
 
   private static final Logger log = LoggerFactory.getLogger(Search.class);
 
-  /**
-   * Constant value for the srlimit-parameter.
-   */
-  private static final int LIMIT = 50;
-  private final JsonMapper mapper = new JsonMapper();
   private final String query;
 
   private final Set<SearchWhat> what;
@@ -111,7 +109,7 @@ public class Search extends BaseQuery<SearchResult> {
 
   private final ImmutableList<Integer> namespaces;
 
-  private SearchResultList resultList;
+  private JsonPage<SearchResult> page;
 
   /**
    * Create a search request
@@ -157,7 +155,7 @@ public class Search extends BaseQuery<SearchResult> {
         .param("srwhat", joinParam(what)) //
         .param("srinfo", joinParam(searchInfo)) //
         .param("srprop", joinParam(props)) //
-        .param("srlimit", LIMIT);
+        .param("srlimit", limitValue());
 
     if (hasNextPageInfo()) {
       requestBuilder.param("sroffset", getNextPageInfo());
@@ -173,25 +171,51 @@ public class Search extends BaseQuery<SearchResult> {
 
   @Override
   protected ImmutableList<SearchResult> parseElements(String json) {
-    this.resultList = mapper.get(json, SearchResultList.class);
-    return ImmutableList.copyOf(resultList.getResults());
+    return ImmutableList.copyOf(parsePage(json));
+  }
+
+  @Override
+  protected Optional<Iterator<SearchResult>> parseElementsLazily(ParsedResponse response) {
+    return Optional.<Iterator<SearchResult>>of(parsePage(response.getText()));
+  }
+
+  private JsonPage<SearchResult> parsePage(String json) {
+    this.page = JsonPage.of(json, "search", SearchResult.class, stringPool());
+    return page;
   }
 
   @Override
   protected Optional<String> parseHasMore(String s) {
-    if (resultList.canContinue()) {
-      return Optional.of(Integer.toString(resultList.getOffset()));
+    if (page.getContinue("continue").isPresent()) {
+      return page.getContinue("sroffset");
     } else {
       return Optional.absent();
     }
   }
 
+  /**
+   * @return the number of hits or zero, if {@link SearchInfo#totalhits} was not requested
+   */
   public int getTotalHits() {
-    return resultList.getTotalHits();
+    return page.getQueryField("searchinfo").transform(new Function<JsonNode, Integer>() {
+      @Override
+      public Integer apply(JsonNode searchinfo) {
+        return searchinfo.path("totalhits").asInt();
+      }
+    }).or(0);
   }
 
+  /**
+   * @return the suggestion or null, if there is none or {@link SearchInfo#suggestion} was not
+   * requested
+   */
   public String getSuggestion() {
-    return resultList.getSuggestion();
+    return page.getQueryField("searchinfo").transform(new Function<JsonNode, String>() {
+      @Override
+      public String apply(JsonNode searchinfo) {
+        return searchinfo.path("suggestion").textValue();
+      }
+    }).orNull();
   }
 
 }
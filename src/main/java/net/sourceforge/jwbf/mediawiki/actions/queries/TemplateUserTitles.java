@@ -26,7 +26,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
-import net.sourceforge.jwbf.mapper.XmlConverter;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mapper.XmlElement;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
@@ -51,35 +51,37 @@ public class TemplateUserTitles extends BaseQuery<String> {
 
   private final String templateName;
   private final ImmutableList<Integer> namespaces;
-  private final int limit;
 
   public TemplateUserTitles(MediaWikiBot bot, String templateName, int... namespaces) {
-    this(bot, 50, templateName, MWAction.nullSafeCopyOf(namespaces));
+    this(bot, templateName, MWAction.nullSafeCopyOf(namespaces));
   }
 
-  TemplateUserTitles(MediaWikiBot bot, int limit, String templateName,
-      ImmutableList<Integer> namespaces) {
+  TemplateUserTitles(MediaWikiBot bot, String templateName, ImmutableList<Integer> namespaces) {
     super(bot);
     this.bot = bot;
     this.templateName = templateName;
     this.namespaces = namespaces;
-    this.limit = limit;
   }
 
   /**
    * gets the information about a follow-up page from a provided api response. If there is one, a
    * new request is added to msgs by calling generateRequest.
    *
-   * @param xml text for parsing
+   * @param response for parsing
    */
   @Override
-  protected Optional<String> parseHasMore(final String xml) {
-    return parseXmlHasMore(xml, "embeddedin", "eicontinue", "eicontinue");
+  protected Optional<String> parseHasMore(ParsedResponse response) {
+    return parseXmlHasMore(response, "embeddedin", "eicontinue", "eicontinue");
   }
 
   @Override
-  protected ImmutableList<String> parseElements(String xml) {
-    Optional<XmlElement> children = XmlConverter.getChildOpt(xml, "query", "embeddedin");
+  protected boolean parsesResponseOnce() {
+    return true;
+  }
+
+  @Override
+  protected ImmutableList<String> parseElements(ParsedResponse response) {
+    Optional<XmlElement> children = response.getChildOpt("query", "embeddedin");
     ImmutableList.Builder<String> titleCollection = ImmutableList.builder();
     if (children.isPresent()) {
       for (XmlElement e : children.get().getChildren("ei")) {
@@ -97,7 +99,7 @@ public class TemplateUserTitles extends BaseQuery<String> {
         .paramNewContinue(bot.getVersion()) //
         .formatXml() //
         .param("list", "embeddedin") //
-        .param("eilimit", limit) //
+        .param("eilimit", limitValue()) //
         .param("eititle", MediaWiki.urlEncode(templateName)) //
         ;
 
@@ -115,9 +117,14 @@ public class TemplateUserTitles extends BaseQuery<String> {
 
   }
 
+  @Override
+  protected boolean isPrefetchable() {
+    return true;
+  }
+
   @Override
   protected Iterator<String> copy() {
-    return new TemplateUserTitles(bot, limit, templateName, namespaces);
+    return new TemplateUserTitles(bot, templateName, namespaces);
   }
 
 }
@@ -1,6 +1,7 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import com.google.common.base.Optional;
@@ -11,7 +12,8 @@ import net.sourceforge.jwbf.core.actions.RequestBuilder;
 import net.sourceforge.jwbf.core.actions.util.ActionException;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.TimeConverter;
-import net.sourceforge.jwbf.mapper.JsonMapper;
+import net.sourceforge.jwbf.mapper.JsonPage;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
@@ -149,9 +151,6 @@ class WatchList extends BaseQuery<WatchResponse> {
 
   private static final Logger log = LoggerFactory.getLogger(WatchList.class);
 
-  private final JsonMapper mapper = new JsonMapper();
-
-  private final Optional<Integer> limit;
   private final Date start;
   private final Date end;
   private final Direction dir;
@@ -167,7 +166,7 @@ class WatchList extends BaseQuery<WatchResponse> {
   private final boolean showAnonymous;
   private final boolean showMinor;
 
-  private WatchListResults responseList;
+  private JsonPage<WatchResponse> page;
 
   private WatchList(Builder builder) {
     super(builder.bot);
@@ -176,7 +175,9 @@ class WatchList extends BaseQuery<WatchResponse> {
         throw new ActionException("Please login first or set owner and token");
       }
     }
-    this.limit = builder.limit;
+    if (builder.limit.isPresent()) {
+      withLimit(builder.limit.get());
+    }
     this.start = builder.start;
     this.end = builder.end;
     this.dir = builder.dir;
@@ -241,11 +242,7 @@ class WatchList extends BaseQuery<WatchResponse> {
     }
     requestBuilder.param("wlshow", createShowParamValue());
 
-    if (limit.isPresent()) {
-      requestBuilder.param("wllimit", limit.get());
-    } else {
-      requestBuilder.param("wllimit", "max");
-    }
+    requestBuilder.param("wllimit", limitValue());
     if (hasNextPageInfo()) {
       requestBuilder.param("wlcontinue", getNextPageInfo());
     }
@@ -275,17 +272,22 @@ class WatchList extends BaseQuery<WatchResponse> {
 
   @Override
   protected ImmutableList<WatchResponse> parseElements(String json) {
-    this.responseList = mapper.get(json, WatchListResults.class);
-    return ImmutableList.copyOf(responseList.getResults());
+    return ImmutableList.copyOf(parsePage(json));
+  }
+
+  @Override
+  protected Optional<Iterator<WatchResponse>> parseElementsLazily(ParsedResponse response) {
+    return Optional.<Iterator<WatchResponse>>of(parsePage(response.getText()));
+  }
+
+  private JsonPage<WatchResponse> parsePage(String json) {
+    this.page = JsonPage.of(json, "watchlist", WatchResponse.class, stringPool());
+    return page;
   }
 
   @Override
   protected Optional<String> parseHasMore(String s) {
-    if (responseList.canContinue()) {
-      return Optional.of(responseList.getContinueToken());
-    } else {
-      return Optional.absent();
-    }
+    return page.getContinue("wlcontinue");
   }
 
   public static Builder from(MediaWikiBot bot) {
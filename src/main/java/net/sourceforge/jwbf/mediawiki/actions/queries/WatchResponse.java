@@ -5,8 +5,10 @@ import java.util.Date;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonNaming;
 import com.google.common.base.MoreObjects;
+import net.sourceforge.jwbf.mapper.PooledStringDeserializer;
 import net.sourceforge.jwbf.mediawiki.actions.queries.WatchList.EditType;
 
 /**
@@ -35,8 +37,10 @@ public class WatchResponse {
   private final boolean bot;
   private final boolean newFlag;
 
-  public WatchResponse(@JsonProperty("ns") int ns, @JsonProperty("title") String title,
-      @JsonProperty("user") String user, @JsonProperty("comment") String comment,
+  public WatchResponse(@JsonProperty("ns") int ns,
+      @JsonProperty("title") @JsonDeserialize(using = PooledStringDeserializer.class) String title,
+      @JsonProperty("user") @JsonDeserialize(using = PooledStringDeserializer.class) String user,
+      @JsonProperty("comment") String comment,
       @JsonProperty("parsedcomment") String parsedComment, @JsonProperty("timestamp") //
   @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'hh:mm:ss'Z'") //
       Date timestamp, @JsonProperty("notificationtimestamp") //
@@ -1,5 +1,7 @@
 package net.sourceforge.jwbf.mediawiki.actions.util;
 
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableSet;
 import net.sourceforge.jwbf.core.actions.util.ProcessException;
 
 /**
@@ -24,4 +26,19 @@ public class ApiException extends ProcessException {
   public String getCode() {
     return code;
   }
+
+  /**
+   * @param codes like "maxlag", "readonly" or "ratelimited"
+   * @return a predicate which matches api exceptions with one of the given codes; e.g. to retry
+   * them with a {@link net.sourceforge.jwbf.core.actions.RetryPolicy}
+   */
+  public static Predicate<Throwable> withCode(String... codes) {
+    final ImmutableSet<String> codeSet = ImmutableSet.copyOf(codes);
+    return new Predicate<Throwable>() {
+      @Override
+      public boolean apply(Throwable input) {
+        return input instanceof ApiException && codeSet.contains(((ApiException) input).getCode());
+      }
+    };
+  }
 }
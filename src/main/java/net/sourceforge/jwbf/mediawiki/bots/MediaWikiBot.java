@@ -4,9 +4,14 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import java.net.URL;
 
+import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.sourceforge.jwbf.core.StringPool;
 import net.sourceforge.jwbf.core.actions.ContentProcessable;
 import net.sourceforge.jwbf.core.actions.HttpActionClient;
 import net.sourceforge.jwbf.core.actions.util.ActionException;
@@ -18,6 +23,7 @@ import net.sourceforge.jwbf.core.contentRep.Userinfo;
 import net.sourceforge.jwbf.core.internal.Checked;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.MediaWiki.Version;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.editing.GetRevision;
 import net.sourceforge.jwbf.mediawiki.actions.editing.PostDelete;
 import net.sourceforge.jwbf.mediawiki.actions.editing.PostModifyContent;
@@ -58,11 +64,14 @@ public class MediaWikiBot implements WikiBot {
 
   private LoginData login = null;
 
-  private Version version = null;
-  private Userinfo ui = null;
+  private volatile Version version = null;
+  private volatile Userinfo ui = null;
 
-  private boolean loginChangeUserInfo = false;
-  private boolean loginChangeVersion = false;
+  private volatile boolean loginChangeUserInfo = false;
+  private volatile boolean loginChangeVersion = false;
+
+  private volatile ResponseFormat responseFormat = ResponseFormat.XML;
+  private volatile StringPool stringPool = StringPool.none();
 
   @Inject
   private HttpBot bot;
@@ -178,7 +187,9 @@ public class MediaWikiBot implements WikiBot {
 
   // TODO 'data' is not very descriptive
   SimpleArticle readData(int properties, String name) {
-    return getPerformedAction(new GetRevision(null, name, properties)).getArticle();
+    GetRevision action =
+        new GetRevision(ImmutableList.of(name), properties, responseFormat, stringPool);
+    return getPerformedAction(action).getArticle();
   }
 
   // TODO 'data' is not very descriptive
@@ -188,7 +199,7 @@ public class MediaWikiBot implements WikiBot {
 
   // TODO 'data' is not very descriptive
   public ImmutableList<SimpleArticle> readData(ImmutableList<String> names) {
-    return getPerformedAction(new GetRevision(names, DEFAULT_READ_PROPERTIES)).asList();
+    return getPerformedAction(newGetRevision(names)).asList();
   }
 
   /**
@@ -207,14 +218,18 @@ public class MediaWikiBot implements WikiBot {
 
   // TODO 'data' is not very descriptive
   public ImmutableList<Optional<SimpleArticle>> readDataOpt(ImmutableList<String> names) {
-    return getPerformedAction(new GetRevision(names, DEFAULT_READ_PROPERTIES)).asListOpt();
+    return getPerformedAction(newGetRevision(names)).asListOpt();
   }
 
   // TODO 'data' is not very descriptive
   public Optional<SimpleArticle> readDataOpt(String name) {
-    return getPerformedAction(new GetRevision(null, name, DEFAULT_READ_PROPERTIES))
-        .getArticleOpt();
+    return getPerformedAction(newGetRevision(ImmutableList.of(name))).getArticleOpt();
+  }
+
+  private GetRevision newGetRevision(ImmutableList<String> names) {
+    return new GetRevision(names, DEFAULT_READ_PROPERTIES, responseFormat, stringPool);
   }
+
   /**
    * @param name of article in a mediawiki like "Main Page"
    * @return a content representation of requested article, never null
@@ -290,12 +305,16 @@ public class MediaWikiBot implements WikiBot {
    * @deprecated use {@link #getPerformedAction(ContentProcessable)} instead
    */
   @Deprecated
-  synchronized String performAction(ContentProcessable a) {
+  String performAction(ContentProcessable a) {
+    checkNotSelfExecuting(a);
+    return bot().performAction(a);
+  }
+
+  private static void checkNotSelfExecuting(ContentProcessable a) {
     if (a.isSelfExecuter()) {
       throw new ActionException(
           "this is a selfexcecuting action, " + "please do not perform this action manually");
     }
-    return bot().performAction(a);
   }
 
   public <T extends ContentProcessable> T getPerformedAction(T answer) {
@@ -304,6 +323,23 @@ public class MediaWikiBot implements WikiBot {
     return answer;
   }
 
+  /**
+   * Like {@link #getPerformedAction(ContentProcessable)}, but without blocking the caller.
+   *
+   * @return a future of the given action, which is done when the action was performed
+   */
+  @Beta
+  public <T extends ContentProcessable> ListenableFuture<T> getPerformedActionAsync(
+      final T answer) {
+    checkNotSelfExecuting(answer);
+    return Futures.transform(bot().performActionAsync(answer), new Function<String, T>() {
+      @Override
+      public T apply(String input) {
+        return answer;
+      }
+    });
+  }
+
   public <T extends ContentProcessable> T getPerformedAction(Class<T> clazz) {
     T answer;
     try {
@@ -344,7 +380,44 @@ public class MediaWikiBot implements WikiBot {
   @Nonnull
   public Siteinfo getSiteinfo() {
     // TODO cache value see getVersion
-    return getPerformedAction(Siteinfo.class);
+    return getPerformedAction(new Siteinfo(responseFormat, Siteinfo.GENERAL, Siteinfo.NAMESPACES,
+        Siteinfo.INTERWIKIMAP));
+  }
+
+  /**
+   * @see #setResponseFormat(ResponseFormat)
+   */
+  @Beta
+  public ResponseFormat getResponseFormat() {
+    return responseFormat;
+  }
+
+  /**
+   * Selects the wire format of actions, which support more than one; default is
+   * {@link ResponseFormat#XML}. {@link ResponseFormat#JSON} requires
+   * {@link Version#MW1_25} or higher.
+   */
+  @Beta
+  public void setResponseFormat(ResponseFormat responseFormat) {
+    this.responseFormat = Checked.nonNull(responseFormat, "response format");
+  }
+
+  /**
+   * @see #setStringPool(StringPool)
+   */
+  @Beta
+  public StringPool getStringPool() {
+    return stringPool;
+  }
+
+  /**
+   * @param stringPool deduplicates titles, user names and log types of articles and query
+   *                   results, which are created after this call; default is
+   *                   {@link StringPool#none()}
+   */
+  @Beta
+  public void setStringPool(StringPool stringPool) {
+    this.stringPool = Checked.nonNull(stringPool, "string pool");
   }
 
   /**
@@ -11,10 +11,13 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Iterables;
@@ -134,6 +137,28 @@ public class JettyServer extends Server implements AutoCloseable {
     };
   }
 
+  public static ContextHandler gzipTextHandler(final String text) {
+    return new ContextHandler() {
+      @Override
+      public void doHandle(String arg0, Request request, HttpServletRequest arg2,
+          HttpServletResponse response) throws IOException, ServletException {
+
+        String acceptEncoding = Strings.nullToEmpty(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (acceptEncoding.contains("gzip")) {
+          response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+          try (GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream())) {
+            out.write(text.getBytes(Charsets.UTF_8));
+          }
+        } else {
+          response.getWriter().print(text);
+        }
+        request.setHandled(true);
+      }
+
+    };
+  }
+
   public static String entry(String key, String value) {
     return key + "=" + value + "";
   }
@@ -0,0 +1,62 @@
+package net.sourceforge.jwbf.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class StringPoolTest {
+
+  @Test
+  public void testIntern() {
+    // GIVEN
+    StringPool pool = StringPool.withCapacity(16);
+    String first = new String("Main Page");
+
+    // WHEN
+    String pooled = pool.intern(first);
+    String second = pool.intern(new String("Main Page"));
+
+    // THEN
+    assertSame(first, pooled);
+    assertSame(first, second);
+    assertNull(pool.intern(null));
+  }
+
+  @Test
+  public void testNone() {
+    // GIVEN
+    StringPool pool = StringPool.none();
+    String first = new String("Main Page");
+    pool.intern(first);
+
+    // WHEN
+    String second = pool.intern(new String("Main Page"));
+
+    // THEN
+    assertNotSame(first, second);
+    assertEquals(0, pool.capacity());
+  }
+
+  @Test
+  public void testCapacity() {
+    assertEquals(1, StringPool.withCapacity(1).capacity());
+    assertEquals(1024, StringPool.withCapacity(1000).capacity());
+    assertEquals(1024, StringPool.withCapacity(1024).capacity());
+  }
+
+  @Test
+  public void testCapacity_invalid() {
+    try {
+      // GIVEN / WHEN
+      StringPool.withCapacity(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("capacity must be in (0, 2^30]", e.getMessage());
+    }
+  }
+}
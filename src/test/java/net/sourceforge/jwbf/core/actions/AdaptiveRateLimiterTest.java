@@ -0,0 +1,97 @@
+package net.sourceforge.jwbf.core.actions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class AdaptiveRateLimiterTest {
+
+  private static final double DELTA = 0.0001;
+
+  private final ManualTicker ticker = new ManualTicker();
+
+  private final AdaptiveRateLimiter testee = AdaptiveRateLimiter.builder() //
+      .withInitialRate(4) //
+      .withRateBounds(1, 5) //
+      .withIncrease(2) //
+      .withTargetLatency(100, TimeUnit.MILLISECONDS) //
+      .withCongestionSignal(ApiException.withCode("maxlag")) //
+      .withTicker(ticker) //
+      .build();
+
+  @Test
+  public void testIncrease() {
+    // WHEN
+    testee.onResponse(50);
+
+    // THEN
+    assertEquals(4.5, testee.getRate(), DELTA);
+  }
+
+  @Test
+  public void testIncrease_max() {
+    // WHEN
+    for (int i = 0; i < 10; i++) {
+      testee.onResponse(50);
+    }
+
+    // THEN
+    assertEquals(5, testee.getRate(), DELTA);
+  }
+
+  @Test
+  public void testDecrease_slowResponse() {
+    // WHEN
+    testee.onResponse(150);
+
+    // THEN
+    assertEquals(2, testee.getRate(), DELTA);
+  }
+
+  @Test
+  public void testDecrease_onlyOncePerTargetLatency() {
+    // WHEN
+    testee.onFailure(new ApiException("maxlag", "lagged"));
+    testee.onFailure(status(503));
+    ticker.advance(100);
+    testee.onFailure(status(429));
+    ticker.advance(100);
+    testee.onFailure(status(429));
+
+    // THEN
+    assertEquals(1, testee.getRate(), DELTA);
+  }
+
+  @Test
+  public void testIgnoredFailures() {
+    // WHEN
+    testee.onFailure(status(404));
+    testee.onFailure(new ApiException("badtoken", "invalid"));
+
+    // THEN
+    assertEquals(4, testee.getRate(), DELTA);
+  }
+
+  private static HttpStatusException status(int code) {
+    return new HttpStatusException("invalid status: " + code, code, Optional.<Long>absent());
+  }
+
+  private static class ManualTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import static com.google.common.net.HttpHeaders.CONNECTION;
 import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.HttpHeaders.HOST;
+import static com.google.common.net.HttpHeaders.RETRY_AFTER;
 import static com.google.common.net.HttpHeaders.USER_AGENT;
 import static net.sourceforge.jwbf.JettyServer.entry;
 import static org.junit.Assert.assertEquals;
@@ -15,30 +16,47 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
 import com.google.common.io.ByteSource;
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.sourceforge.jwbf.GAssert;
 import net.sourceforge.jwbf.JWBF;
 import net.sourceforge.jwbf.JettyServer;
 import net.sourceforge.jwbf.Logging;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
@@ -47,7 +65,12 @@ import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HttpContext;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.ContextHandler;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 public class HttpActionClientTest {
@@ -568,6 +591,461 @@ public class HttpActionClientTest {
     }
   }
 
+  @Test
+  public void testPerformAction_concurrent() throws Exception {
+    final int parallelRequests = 4;
+    final CyclicBarrier barrier = new CyclicBarrier(parallelRequests);
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(new ContextHandler() {
+        @Override
+        public void doHandle(String target, Request request, HttpServletRequest req,
+            HttpServletResponse response) throws IOException, ServletException {
+          try {
+            // every request waits until all requests have reached the server
+            response.getWriter().print(barrier.await(5, TimeUnit.SECONDS) >= 0);
+          } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+            response.getWriter().print(false);
+          }
+          response.setStatus(HttpServletResponse.SC_OK);
+          request.setHandled(true);
+        }
+      });
+      server.startSilent();
+
+      final HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withConnectionPool(parallelRequests, parallelRequests) //
+          .build();
+      final Get get = new Get(server.getTestUrl());
+      ExecutorService executor = Executors.newFixedThreadPool(parallelRequests);
+      List<Future<String>> futures = new ArrayList<>();
+
+      // WHEN
+      for (int i = 0; i < parallelRequests; i++) {
+        futures.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() {
+            return hac.get(get);
+          }
+        }));
+      }
+
+      // THEN
+      for (Future<String> future : futures) {
+        assertEquals("true\n", future.get(10, TimeUnit.SECONDS));
+      }
+      executor.shutdown();
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testPerformActionAsync() throws Exception {
+    JettyServer server = new JettyServer();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // GIVEN
+      server.setHandler(JettyServer.textHandler("async"));
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withExecutor(executor) //
+          .build();
+      GetPage action = new GetPage("/");
+
+      // WHEN
+      ListenableFuture<String> result = hac.performActionAsync(action);
+
+      // THEN
+      assertEquals("async\n", result.get(10, TimeUnit.SECONDS));
+      assertEquals("async\n", action.getText());
+    } finally {
+      executor.shutdown();
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testPerformAction_streamProcessor() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(JettyServer.textHandler("a\r\nb"));
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.of(server.getTestUrl());
+      final List<String> bodies = new ArrayList<>();
+      GetPage action = new StreamingGetPage(bodies);
+
+      // WHEN
+      String result = hac.performAction(action);
+
+      // THEN
+      assertEquals("streamed", result);
+      GAssert.assertEquals(ImmutableList.of("a\r\nb"), ImmutableList.copyOf(bodies));
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  private static class StreamingGetPage extends GetPage implements ReturningStreamProcessor {
+    private final List<String> bodies;
+
+    StreamingGetPage(List<String> bodies) {
+      super("/");
+      this.bodies = bodies;
+    }
+
+    @Override
+    public String processReturningStream(InputStream body, Charset charset, HttpAction action)
+        throws IOException {
+      bodies.add(CharStreams.toString(new InputStreamReader(body, charset)));
+      return "streamed";
+    }
+
+    @Override
+    public String processReturningText(String s, HttpAction hm) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Test
+  public void testCompression() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      String text = Strings.repeat("compress me ", 1000);
+      server.setHandler(JettyServer.gzipTextHandler(text));
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.of(server.getTestUrl());
+
+      // WHEN
+      String result = hac.get(new Get(server.getTestUrl()));
+
+      // THEN
+      assertEquals(text + "\n", result);
+      TransferCounter counter = hac.getTransferCounter();
+      assertEquals(text.length(), counter.getContentBytes());
+      assertTrue("wire bytes: " + counter.getWireBytes(), counter.getWireBytes() < 200);
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testCompression_disabled() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      String text = Strings.repeat("compress me ", 1000);
+      server.setHandler(JettyServer.gzipTextHandler(text));
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withCompression(false) //
+          .build();
+
+      // WHEN
+      String result = hac.get(new Get(server.getTestUrl()));
+
+      // THEN
+      assertEquals(text + "\n", result);
+      TransferCounter counter = hac.getTransferCounter();
+      assertEquals(text.length(), counter.getContentBytes());
+      assertEquals(text.length(), counter.getWireBytes());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRetry() {
+    final AtomicInteger requests = new AtomicInteger();
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(new ContextHandler() {
+        @Override
+        public void doHandle(String target, Request request, HttpServletRequest req,
+            HttpServletResponse response) throws IOException, ServletException {
+          if (requests.incrementAndGet() < 3) {
+            response.setHeader(RETRY_AFTER, "0");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+          } else {
+            response.getWriter().print("ok");
+            response.setStatus(HttpServletResponse.SC_OK);
+          }
+          request.setHandled(true);
+        }
+      });
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRetryPolicy(RetryPolicy.builder() //
+              .withBackoff(1, 10, TimeUnit.MILLISECONDS) //
+              .build()) //
+          .build();
+
+      // WHEN
+      String result = hac.get(new Get(server.getTestUrl()));
+
+      // THEN
+      assertEquals("ok\n", result);
+      assertEquals(3, requests.get());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRetry_failureWhileProcessing() {
+    final AtomicInteger requests = new AtomicInteger();
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(new ContextHandler() {
+        @Override
+        public void doHandle(String target, Request request, HttpServletRequest req,
+            HttpServletResponse response) throws IOException, ServletException {
+          requests.incrementAndGet();
+          response.getWriter().print("truncated");
+          response.setStatus(HttpServletResponse.SC_OK);
+          request.setHandled(true);
+        }
+      });
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRetryPolicy(RetryPolicy.builder() //
+              .withBackoff(1, 10, TimeUnit.MILLISECONDS) //
+              .build()) //
+          .build();
+      GetPage action = new GetPage("/") {
+        @Override
+        public String processReturningText(String s, HttpAction hm) {
+          throw new IllegalArgumentException(new IOException("unexpected end of input"));
+        }
+      };
+
+      try {
+        // WHEN
+        hac.performAction(action);
+        fail();
+      } catch (IllegalArgumentException e) {
+        // THEN
+        assertEquals("java.io.IOException: unexpected end of input", e.getMessage());
+      }
+      assertEquals(1, requests.get());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRetry_streamReadFailure() {
+    final AtomicInteger requests = new AtomicInteger();
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(new ContextHandler() {
+        @Override
+        public void doHandle(String target, Request request, HttpServletRequest req,
+            HttpServletResponse response) throws IOException, ServletException {
+          response.setStatus(HttpServletResponse.SC_OK);
+          if (requests.incrementAndGet() == 1) {
+            response.setContentLength(1000);
+            response.getOutputStream().print("trunc");
+            response.flushBuffer();
+            // closes the connection before the announced length was sent
+            request.getHttpChannel().getEndPoint().close();
+          } else {
+            response.getOutputStream().print("complete");
+          }
+          request.setHandled(true);
+        }
+      });
+      server.startSilent();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRetryPolicy(RetryPolicy.builder() //
+              .withBackoff(1, 10, TimeUnit.MILLISECONDS) //
+              .build()) //
+          .build();
+      final List<String> bodies = new ArrayList<>();
+      GetPage action = new StreamingGetPage(bodies) {
+        @Override
+        public String processReturningStream(InputStream body, Charset charset,
+            HttpAction action) {
+          try {
+            return super.processReturningStream(body, charset, action);
+          } catch (IOException e) {
+            // like a parser, which hides the cause
+            throw new IllegalArgumentException("invalid body");
+          }
+        }
+      };
+
+      // WHEN
+      String result = hac.performAction(action);
+
+      // THEN
+      assertEquals("streamed", result);
+      GAssert.assertEquals(ImmutableList.of("complete"), ImmutableList.copyOf(bodies));
+      assertEquals(2, requests.get());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRateLimiterFeedback() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      ContextHandler handler = JettyServer.textHandler("a");
+      handler.setContextPath("/found");
+      server.setHandler(handler);
+      server.startSilent();
+      RequestRateLimiter rateLimiter = mock(RequestRateLimiter.class);
+      when(rateLimiter.getRate()).thenReturn(3.0);
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRateLimiter(rateLimiter) //
+          .build();
+
+      // WHEN
+      hac.get(new Get(server.getTestUrl() + "found"));
+      try {
+        hac.get(new Get(server.getTestUrl() + "missing"));
+        fail();
+      } catch (HttpStatusException e) {
+        // expected
+      }
+
+      // THEN
+      verify(rateLimiter, Mockito.times(2)).acquire();
+      verify(rateLimiter).onResponse(Mockito.anyLong());
+      verify(rateLimiter).onFailure(Mockito.isA(HttpStatusException.class));
+      assertEquals(Optional.of(3.0), hac.getRequestRate());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRequestListener() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      ContextHandler handler = JettyServer.textHandler("abc");
+      handler.setContextPath("/found");
+      server.setHandler(handler);
+      server.startSilent();
+      RequestListener listener = mock(RequestListener.class);
+      RequestMetrics metrics = new RequestMetrics();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRequestListener(listener) //
+          .withRequestListener(metrics) //
+          .build();
+
+      // WHEN
+      hac.performAction(new GetPage("/found"));
+      try {
+        hac.performAction(new GetPage("/missing"));
+        fail();
+      } catch (HttpStatusException e) {
+        // expected
+      }
+
+      // THEN
+      ArgumentCaptor<RequestEvent> events = ArgumentCaptor.forClass(RequestEvent.class);
+      verify(listener, Mockito.times(2)).onStart(events.capture());
+      verify(listener, Mockito.times(2)).onFirstByte(Mockito.any(RequestEvent.class));
+      verify(listener).onComplete(events.getAllValues().get(0));
+      verify(listener).onFailure(Mockito.eq(events.getAllValues().get(1)),
+          Mockito.isA(HttpStatusException.class));
+      RequestEvent completed = events.getAllValues().get(0);
+      assertEquals(GetPage.class.getName(), completed.getActionType());
+      assertEquals("GET", completed.getMethod());
+      assertEquals(200, completed.getStatusCode());
+      assertEquals(3, completed.getContentBytes());
+      assertEquals(404, events.getAllValues().get(1).getStatusCode());
+
+      LatencyHistogram histogram = metrics.getHistograms().get(GetPage.class.getName());
+      assertEquals(2, histogram.getCount());
+      assertEquals(1, histogram.getFailureCount());
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRequestListener_failureLatency() {
+    JettyServer server = new JettyServer();
+    try {
+      // GIVEN
+      server.setHandler(new ContextHandler() {
+        @Override
+        public void doHandle(String target, Request request, HttpServletRequest servletRequest,
+            HttpServletResponse response) throws IOException, ServletException {
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+          request.setHandled(true);
+        }
+      });
+      server.startSilent();
+      RequestMetrics metrics = new RequestMetrics();
+      HttpActionClient hac = HttpActionClient.builder() //
+          .withUrl(server.getTestUrl()) //
+          .withRequestListener(metrics) //
+          .build();
+
+      // WHEN
+      try {
+        hac.performAction(new GetPage("/slow"));
+        fail();
+      } catch (HttpStatusException e) {
+        // expected
+      }
+
+      // THEN
+      LatencyHistogram histogram = metrics.getHistograms().get(GetPage.class.getName());
+      assertEquals(1, histogram.getCount());
+      assertEquals(1, histogram.getFailureCount());
+      long latency = histogram.getTotalMillis();
+      assertTrue("latency " + latency, latency >= 100 && latency < 10000);
+    } finally {
+      server.stopSilent();
+    }
+  }
+
+  @Test
+  public void testRetryAfterMillisOf() {
+    // GIVEN
+    HttpResponse seconds = mock(HttpResponse.class);
+    when(seconds.getFirstHeader(RETRY_AFTER)).thenReturn(new BasicHeader(RETRY_AFTER, " 5 "));
+    HttpResponse invalid = mock(HttpResponse.class);
+    when(invalid.getFirstHeader(RETRY_AFTER)).thenReturn(new BasicHeader(RETRY_AFTER, "soon"));
+    HttpResponse missing = mock(HttpResponse.class);
+
+    // WHEN / THEN
+    assertEquals(Optional.of(5000L), HttpActionClient.retryAfterMillisOf(seconds));
+    assertEquals(Optional.absent(), HttpActionClient.retryAfterMillisOf(invalid));
+    assertEquals(Optional.absent(), HttpActionClient.retryAfterMillisOf(missing));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWithConnectionPool_perRouteGreaterThanTotal() {
+    HttpActionClient.builder().withConnectionPool(2, 3);
+  }
+
   private ImmutableList<Long> toRanges(Iterable<Long> ints) {
     ImmutableList<Long> intList = ImmutableList.copyOf(ints);
     Builder<Long> builder = ImmutableList.builder();
@@ -676,7 +1154,8 @@ public class HttpActionClientTest {
   public void testExecute() throws IOException {
     // GIVEN
     HttpClient failClient = mock(HttpClient.class);
-    when(failClient.execute(Mockito.isA(HttpUriRequest.class))).thenThrow(IOException.class);
+    when(failClient.execute(Mockito.isA(HttpUriRequest.class), Mockito.isA(HttpContext.class)))
+        .thenThrow(IOException.class);
     testee = HttpActionClient.builder().withUrl("http://localhost/") //
         .withClient(failClient).build();
     HttpRequestBase requestBase = mock(HttpRequestBase.class);
@@ -0,0 +1,59 @@
+package net.sourceforge.jwbf.core.actions;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testRecord() {
+    // GIVEN
+    LatencyHistogram testee = new LatencyHistogram();
+
+    // WHEN
+    testee.record(0, 10);
+    testee.record(1, 10);
+    testee.record(3, 10);
+    testee.record(100, 10);
+    testee.recordFailure(5);
+
+    // THEN
+    assertEquals(5, testee.getCount());
+    assertEquals(1, testee.getFailureCount());
+    assertEquals(109, testee.getTotalMillis());
+    assertEquals(40, testee.getTotalBytes());
+    long[] buckets = testee.getBucketCounts();
+    assertEquals(1, buckets[0]);
+    assertEquals(1, buckets[1]);
+    assertEquals(1, buckets[2]);
+    assertEquals(1, buckets[3]);
+    assertEquals(1, buckets[7]);
+    assertEquals(3, testee.getPercentileMillis(0.5));
+    assertEquals(127, testee.getPercentileMillis(1));
+  }
+
+  @Test
+  public void testRecordFailure_notSent() {
+    // GIVEN
+    LatencyHistogram testee = new LatencyHistogram();
+
+    // WHEN
+    testee.recordFailure(-1);
+
+    // THEN
+    assertEquals(0, testee.getCount());
+    assertEquals(1, testee.getFailureCount());
+    assertEquals(0, testee.getBucketCounts()[0]);
+  }
+
+  @Test
+  public void testEmpty() {
+    // GIVEN
+    LatencyHistogram testee = new LatencyHistogram();
+
+    // WHEN / THEN
+    assertEquals(0, testee.getPercentileMillis(0.99));
+    assertEquals(0, testee.getMeanMillis(), 0.0001);
+  }
+}
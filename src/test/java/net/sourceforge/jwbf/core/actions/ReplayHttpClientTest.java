@@ -0,0 +1,178 @@
+package net.sourceforge.jwbf.core.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import net.sourceforge.jwbf.JettyServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+public class ReplayHttpClientTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final JettyServer server = new JettyServer();
+
+  @After
+  public void after() {
+    server.stopSilent();
+  }
+
+  @Test
+  public void testRecordAndReplay() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("test.replay");
+    server.setHandler(JettyServer.gzipTextHandler("recorded"));
+    server.startSilent();
+    String url = server.getTestUrl();
+    HttpActionClient recording = HttpActionClient.builder() //
+        .withUrl(url) //
+        .withRecordingTo(archive) //
+        .build();
+    assertEquals("recorded\n", recording.get(new Get(url + "?a=1")));
+    assertEquals("recorded\n", recording.get(new Get(url + "?a=2")));
+    server.stopSilent();
+
+    // WHEN
+    HttpActionClient replay = HttpActionClient.builder() //
+        .withUrl(url) //
+        .withReplayFrom(archive, false) //
+        .build();
+
+    // THEN
+    assertEquals("recorded\n", replay.get(new Get(url + "?a=2")));
+    assertEquals("recorded\n", replay.get(new Get(url + "?a=1")));
+    assertEquals("recorded\n", replay.get(new Get(url + "?a=1")));
+  }
+
+  @Test
+  public void testRecord_transferBytes() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("bytes.replay");
+    server.setHandler(JettyServer.textHandler("recorded"));
+    server.startSilent();
+    String url = server.getTestUrl();
+    RequestListener listener = mock(RequestListener.class);
+    HttpActionClient recording = HttpActionClient.builder() //
+        .withUrl(url) //
+        .withRecordingTo(archive) //
+        .withRequestListener(listener) //
+        .build();
+
+    // WHEN
+    recording.get(new Get(url + "?a=1"));
+
+    // THEN
+    ArgumentCaptor<RequestEvent> event = ArgumentCaptor.forClass(RequestEvent.class);
+    verify(listener).onComplete(event.capture());
+    assertEquals("recorded".length(), event.getValue().getWireBytes());
+    assertEquals("recorded".length(), event.getValue().getContentBytes());
+  }
+
+  @Test
+  public void testReplayUnknownRequest() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("empty.replay");
+    new RecordingHttpClient(null, archive).close();
+    HttpActionClient replay = HttpActionClient.builder() //
+        .withUrl("http://localhost/") //
+        .withReplayFrom(archive, false) //
+        .build();
+
+    try {
+      // WHEN
+      replay.get(new Get("http://localhost/?a=1"));
+      fail();
+    } catch (IllegalStateException e) {
+      // THEN
+      assertEquals("java.io.IOException: no recorded response for GET http://localhost/?a=1",
+          e.getMessage());
+    }
+  }
+
+  @Test
+  public void testRecordAndReplay_post() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("post.replay");
+    server.setHandler(JettyServer.echoHandler());
+    server.startSilent();
+    String url = server.getTestUrl();
+    HttpActionClient recording = HttpActionClient.builder() //
+        .withUrl(url) //
+        .withRecordingTo(archive) //
+        .build();
+    String first = recording.post(RequestBuilder.of(url).postParam("a", "1").buildPost());
+    String second = recording.post(RequestBuilder.of(url).postParam("a", "2").buildPost());
+    server.stopSilent();
+
+    // WHEN
+    HttpActionClient replay = HttpActionClient.builder() //
+        .withUrl(url) //
+        .withReplayFrom(archive, false) //
+        .build();
+
+    // THEN
+    assertEquals(second, replay.post(RequestBuilder.of(url).postParam("a", "2").buildPost()));
+    assertEquals(first, replay.post(RequestBuilder.of(url).postParam("a", "1").buildPost()));
+  }
+
+  @Test
+  public void testReplay_longStrings() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("long.replay");
+    String url = "http://localhost/?a=" + Strings.repeat("x", 70000);
+    String value = Strings.repeat("\u00e4", 40000);
+    ImmutableList<Map.Entry<String, String>> headers =
+        ImmutableList.of(Maps.immutableEntry("X-Long", value));
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new GZIPOutputStream(new FileOutputStream(archive))))) {
+      RecordedExchange.writeHeader(out);
+      new RecordedExchange("GET " + url, 200, "OK", headers, "body".getBytes("UTF-8"), 0)
+          .writeTo(out);
+    }
+
+    // WHEN
+    try (ReplayHttpClient replay = new ReplayHttpClient(archive, false);
+        CloseableHttpResponse response = replay.execute(new HttpGet(url))) {
+
+      // THEN
+      assertEquals(value, response.getFirstHeader("X-Long").getValue());
+      assertEquals("body", EntityUtils.toString(response.getEntity()));
+    }
+  }
+
+  @Test
+  public void testGetConnectionManager() throws IOException {
+    // GIVEN
+    File archive = folder.newFile("empty.replay");
+    new RecordingHttpClient(null, archive).close();
+
+    // WHEN
+    try (ReplayHttpClient replay = new ReplayHttpClient(archive, false)) {
+
+      // THEN
+      assertNotNull(replay.getConnectionManager().getSchemeRegistry());
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package net.sourceforge.jwbf.core.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.net.HttpHeaders;
+import net.sourceforge.jwbf.JettyServer;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.ContextHandler;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ResponseCacheTest {
+
+  private final JettyServer server = new JettyServer();
+  private final AtomicInteger downloads = new AtomicInteger();
+
+  @After
+  public void after() {
+    server.stopSilent();
+  }
+
+  @Test
+  public void testRevalidate() {
+    // GIVEN
+    HttpActionClient client = clientWith(etagHandler("\"v1\""));
+    Get get = new Get(server.getTestUrl() + "?a=b");
+
+    // WHEN
+    String first = client.get(get);
+    String second = client.get(get);
+
+    // THEN
+    assertEquals("content\n", first);
+    assertEquals("content\n", second);
+    assertEquals(1, downloads.get());
+    ResponseCache cache = client.getResponseCache().get();
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRate(), 0.0001);
+  }
+
+  @Test
+  public void testRevalidate_transferBytes() {
+    // GIVEN
+    server.setHandler(etagHandler("\"v1\""));
+    server.startSilent();
+    RequestListener listener = mock(RequestListener.class);
+    HttpActionClient client = HttpActionClient.builder() //
+        .withUrl(server.getTestUrl()) //
+        .withResponseCache(ResponseCache.builder().build()) //
+        .withRequestListener(listener) //
+        .build();
+    Get get = new Get(server.getTestUrl() + "?a=b");
+
+    // WHEN
+    client.get(get);
+    client.get(get);
+
+    // THEN
+    ArgumentCaptor<RequestEvent> events = ArgumentCaptor.forClass(RequestEvent.class);
+    verify(listener, times(2)).onComplete(events.capture());
+    List<RequestEvent> completed = events.getAllValues();
+    assertEquals("content".length(), completed.get(0).getWireBytes());
+    assertEquals("content".length(), completed.get(0).getContentBytes());
+    // not modified
+    assertEquals(0, completed.get(1).getWireBytes());
+    assertEquals(0, completed.get(1).getContentBytes());
+    assertEquals("content".length(), client.getTransferCounter().getContentBytes());
+  }
+
+  @Test
+  public void testWithoutValidator() {
+    // GIVEN
+    HttpActionClient client = clientWith(etagHandler(""));
+    Get get = new Get(server.getTestUrl());
+
+    // WHEN
+    client.get(get);
+    client.get(get);
+
+    // THEN
+    assertEquals(2, downloads.get());
+    ResponseCache cache = client.getResponseCache().get();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  private HttpActionClient clientWith(ContextHandler handler) {
+    server.setHandler(handler);
+    server.startSilent();
+    return HttpActionClient.builder() //
+        .withUrl(server.getTestUrl()) //
+        .withResponseCache(ResponseCache.builder().withMaximumSize(10).build()) //
+        .build();
+  }
+
+  private ContextHandler etagHandler(final String etag) {
+    return new ContextHandler() {
+      @Override
+      public void doHandle(String target, Request request, HttpServletRequest req,
+          HttpServletResponse response) throws IOException, ServletException {
+        if (!etag.isEmpty() && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+          response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        } else {
+          downloads.incrementAndGet();
+          if (!etag.isEmpty()) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+          }
+          response.getWriter().print("content");
+          response.setStatus(HttpServletResponse.SC_OK);
+        }
+        request.setHandled(true);
+      }
+    };
+  }
+}
@@ -0,0 +1,99 @@
+package net.sourceforge.jwbf.core.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Optional;
+import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.actions.util.HttpStatusException;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class RetryPolicyTest {
+
+  private static final HttpAction GET = new Get("/");
+  private static final HttpAction POST = new Post("/");
+  private static final Optional<Long> NO_RETRY_AFTER = Optional.absent();
+
+  private final RetryPolicy testee = RetryPolicy.builder() //
+      .withMaxAttempts(3) //
+      .withBackoff(100, 1000, TimeUnit.MILLISECONDS) //
+      .retryOn(ApiException.withCode("maxlag")) //
+      .build();
+
+  @Test
+  public void testNone() {
+    // GIVEN
+    RuntimeException failure = status(503);
+
+    // WHEN / THEN
+    assertFalse(RetryPolicy.none().getDelayMillis(1, failure, GET, NO_RETRY_AFTER).isPresent());
+  }
+
+  @Test
+  public void testBackoff() {
+    // GIVEN
+    RuntimeException failure = status(503);
+
+    // WHEN
+    long first = testee.getDelayMillis(1, failure, GET, NO_RETRY_AFTER).get();
+    long second = testee.getDelayMillis(2, failure, GET, NO_RETRY_AFTER).get();
+    Optional<Long> third = testee.getDelayMillis(3, failure, GET, NO_RETRY_AFTER);
+
+    // THEN
+    assertTrue("first: " + first, first >= 50 && first <= 100);
+    assertTrue("second: " + second, second >= 100 && second <= 200);
+    assertFalse(third.isPresent());
+  }
+
+  @Test
+  public void testRetryAfter() {
+    // GIVEN
+    RuntimeException failure = status(429);
+
+    // WHEN
+    long delay = testee.getDelayMillis(1, failure, GET, Optional.of(700L)).get();
+    long cappedDelay = testee.getDelayMillis(1, failure, GET, Optional.of(5000L)).get();
+
+    // THEN
+    assertEquals(700, delay);
+    assertEquals(1000, cappedDelay);
+  }
+
+  @Test
+  public void testIdempotency() {
+    // GIVEN
+    RuntimeException lostResponse = new IllegalStateException(new IOException("reset"));
+    RuntimeException notConnected = new IllegalStateException(new ConnectException("refused"));
+
+    // WHEN / THEN
+    assertTrue(isRetried(lostResponse, GET));
+    assertFalse(isRetried(lostResponse, POST));
+    assertTrue(isRetried(notConnected, POST));
+    assertTrue(isRetried(status(502), GET));
+    assertFalse(isRetried(status(502), POST));
+    assertTrue(isRetried(status(503), POST));
+    assertTrue(isRetried(status(429), POST));
+    assertFalse(isRetried(status(404), GET));
+  }
+
+  @Test
+  public void testRetryOn() {
+    // WHEN / THEN
+    assertTrue(isRetried(new ApiException("maxlag", "lagged"), POST));
+    assertFalse(isRetried(new ApiException("badtoken", "invalid token"), GET));
+  }
+
+  private boolean isRetried(RuntimeException failure, HttpAction action) {
+    return testee.getDelayMillis(1, failure, action, NO_RETRY_AFTER).isPresent();
+  }
+
+  private static HttpStatusException status(int code) {
+    return new HttpStatusException("invalid status: " + code, code, NO_RETRY_AFTER);
+  }
+}
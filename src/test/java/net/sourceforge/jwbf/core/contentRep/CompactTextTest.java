@@ -0,0 +1,108 @@
+package net.sourceforge.jwbf.core.contentRep;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Charsets;
+import org.junit.Test;
+
+public class CompactTextTest {
+
+  private static final String MIXED = "a\u00e4\u20ac\ud83d\ude00z";
+
+  @Test
+  public void testAscii() {
+    // GIVEN
+    CompactText text = CompactText.of("#REDIRECT [[Any]]");
+
+    // WHEN / THEN
+    assertEquals(17, text.length());
+    assertEquals(17, text.byteLength());
+    assertEquals('R', text.charAt(1));
+    assertEquals("Any", text.subSequence(12, 15));
+    assertEquals("#REDIRECT [[Any]]", text.toString());
+  }
+
+  @Test
+  public void testMultiByte() {
+    // GIVEN
+    CompactText text = CompactText.of(MIXED);
+
+    // WHEN / THEN
+    assertEquals(MIXED.length(), text.length());
+    assertEquals(11, text.byteLength());
+    for (int i = MIXED.length() - 1; i >= 0; i--) {
+      assertEquals(MIXED.charAt(i), text.charAt(i));
+    }
+    for (int i = 0; i < MIXED.length(); i++) {
+      assertEquals(MIXED.charAt(i), text.charAt(i));
+    }
+    assertEquals(MIXED.substring(1, 5), text.subSequence(1, 5));
+    assertEquals(MIXED, text.toString());
+  }
+
+  @Test
+  public void testDirectBuffer() {
+    // GIVEN
+    byte[] bytes = ("xx" + MIXED).getBytes(Charsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    buffer.position(2);
+
+    // WHEN
+    CompactText text = CompactText.of(buffer);
+
+    // THEN
+    assertEquals(MIXED, text.toString());
+    assertEquals(CompactText.of(MIXED), text);
+    assertEquals(CompactText.of(MIXED).hashCode(), text.hashCode());
+  }
+
+  @Test
+  public void testMatcher() {
+    // GIVEN
+    Pattern pattern = Pattern.compile("#(.*)redirect (.*)", Pattern.CASE_INSENSITIVE);
+
+    // WHEN / THEN
+    assertEquals(true, pattern.matcher(CompactText.of("#redirect [[\u00c4]]")).matches());
+    assertEquals(false, pattern.matcher(CompactText.of("\u00c4 #redirect [[A]]")).matches());
+  }
+
+  @Test
+  public void testCharAt_outOfBounds() {
+    try {
+      // GIVEN / WHEN
+      CompactText.of(MIXED).charAt(MIXED.length());
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      // THEN
+      assertEquals("index: 6, length: 6", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testSerialize() throws Exception {
+    // GIVEN
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+      objectOut.writeObject(CompactText.of(MIXED));
+    }
+
+    // WHEN
+    Object result;
+    try (ObjectInputStream objectIn =
+        new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      result = objectIn.readObject();
+    }
+
+    // THEN
+    assertEquals(CompactText.of(MIXED), result);
+  }
+}
@@ -25,6 +25,11 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -275,6 +280,65 @@ public class SimpleArticleTest {
     assertTrue(article.isRedirect());
   }
 
+  @Test
+  public void testCompactText() {
+    // GIVEN
+    SimpleArticle other = new SimpleArticle();
+    other.setText("#redirect [[A]]");
+
+    // WHEN
+    article.setCompactText(CompactText.of("#redirect [[A]]"));
+
+    // THEN
+    assertTrue(article.isRedirect());
+    assertTrue(article.getTextSequence() instanceof CompactText);
+    assertEquals(other, article);
+    assertEquals(other.hashCode(), article.hashCode());
+    assertEquals("#redirect [[A]]", article.getText());
+    assertEquals("#redirect [[A]]", article.getTextSequence());
+  }
+
+  @Test
+  public void testCompactText_equals() {
+    // GIVEN
+    SimpleArticle other = new SimpleArticle();
+    other.setCompactText(CompactText.of("a\u00e4b"));
+    article.setText("a\u00e4c");
+
+    // WHEN / THEN
+    assertFalse(article.equals(other));
+    assertFalse(other.equals(article));
+    article.setCompactText(CompactText.of("a\u00e4b"));
+    assertEquals(other, article);
+    assertEquals(other.hashCode(), article.hashCode());
+    assertTrue(article.getTextSequence() instanceof CompactText);
+  }
+
+  @Test
+  public void testCompactText_serialize() throws Exception {
+    // GIVEN
+    article.setTitle("A");
+    article.setCompactText(CompactText.of("a\u00e4b"));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // WHEN
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+      objectOut.writeObject(article);
+    }
+    SimpleArticle result;
+    try (ObjectInputStream objectIn =
+        new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+      result = (SimpleArticle) objectIn.readObject();
+    }
+
+    // THEN
+    assertEquals("a\u00e4b", result.getText());
+    assertEquals(article, result);
+    assertTrue(article.getTextSequence() instanceof CompactText);
+    // the same serialized form as without compact texts
+    assertEquals(null, ObjectStreamClass.lookup(SimpleArticle.class).getField("compactText"));
+  }
+
   @Test
   @Ignore
   public void testIsRedirectLocale() {
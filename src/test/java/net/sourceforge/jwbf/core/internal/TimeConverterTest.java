@@ -0,0 +1,80 @@
+package net.sourceforge.jwbf.core.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+public class TimeConverterTest {
+
+  @Test
+  public void testParseIsoMillis() {
+    assertEquals(1414176105000L, TimeConverter.parseIsoMillis("2014-10-24T18:41:45Z"));
+    assertEquals(0L, TimeConverter.parseIsoMillis("1970-01-01T00:00:00Z"));
+    assertEquals(951782400000L, TimeConverter.parseIsoMillis("2000-02-29T00:00:00Z"));
+    assertEquals(-1000L, TimeConverter.parseIsoMillis("1969-12-31T23:59:59Z"));
+    assertEquals(1414176105000L,
+        TimeConverter.parseIsoMillis(new StringBuilder("2014-10-24T18:41:45Z")));
+  }
+
+  @Test
+  public void testParseIsoMillis_invalid() {
+    assertEquals(TimeConverter.INVALID_MILLIS, TimeConverter.parseIsoMillis(null));
+    assertEquals(TimeConverter.INVALID_MILLIS, TimeConverter.parseIsoMillis(""));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("2014-10-24 18:41:45Z"));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("2014-10-24T18:41:45Z "));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("2014-1a-24T18:41:45Z"));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("2014-02-29T18:41:45Z"));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("2014-10-24T24:00:00Z"));
+    assertEquals(TimeConverter.INVALID_MILLIS,
+        TimeConverter.parseIsoMillis("1500-10-24T18:41:45Z"));
+  }
+
+  @Test
+  public void testFrom_lenientFallback() {
+    // GIVEN
+    String timestamp = "2014-02-29T18:41:45Z";
+
+    // WHEN
+    Optional<Date> result = TimeConverter.from(timestamp, TimeConverter.YYYYMMDD_T_HHMMSS_Z);
+
+    // THEN
+    assertEquals("2014-03-01T18:41:45Z", TimeConverter.valueOf(result.get()));
+  }
+
+  @Test
+  public void testLikeSimpleDateFormat() throws Exception {
+    // GIVEN
+    SimpleDateFormat format = TimeConverter.newFormatter(TimeConverter.YYYYMMDD_T_HHMMSS_Z);
+    Random random = new Random(7);
+    long[] fixed = {Long.MIN_VALUE / 2, -12219292800001L, 0, -1, 1, 253402300800000L};
+
+    for (int i = 0; i < 10000 + fixed.length; i++) {
+      long millis;
+      if (i < fixed.length) {
+        millis = fixed[i];
+      } else {
+        millis = (long) ((random.nextDouble() - 0.2) * 8000000000000L);
+      }
+
+      // WHEN
+      String formatted = TimeConverter.formatIso(millis);
+
+      // THEN
+      String expected = format.format(new Date(millis));
+      assertEquals(expected, formatted);
+      if (millis >= 0 && formatted.length() == 20) {
+        assertEquals(format.parse(expected).getTime(), TimeConverter.parseIsoMillis(formatted));
+      }
+    }
+  }
+}
@@ -10,9 +10,10 @@ import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Charsets;
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
@@ -79,10 +80,10 @@ public class JsonMapperTest {
     // GIVEN
     JsonMapper.JacksonToJsonFunction testee = new JsonMapper.JacksonToJsonFunction() {
       @Override
-      ObjectMapper newObjectMapper() {
-        ObjectMapper mock = mock(ObjectMapper.class);
+      ObjectReader newReader(Class<?> clazz) {
+        ObjectReader mock = mock(ObjectReader.class);
         try {
-          doThrow(IOException.class).when(mock).readValue(isA(String.class), isA(Class.class));
+          doThrow(IOException.class).when(mock).readValue(isA(String.class));
         } catch (IOException e) {
           fail();
         }
@@ -95,6 +96,30 @@ public class JsonMapperTest {
     fail();
   }
 
+  @Test
+  public void testGet_sharedReader() {
+    // GIVEN
+    String content =
+        getContent(JWBF.urlToFile(Resources.getResource("mediawiki/v1-22/siteinfo.json")));
+    final AtomicInteger readers = new AtomicInteger();
+    JsonMapper.JacksonToJsonFunction counting = new JsonMapper.JacksonToJsonFunction() {
+      @Override
+      ObjectReader newReader(Class<?> clazz) {
+        readers.incrementAndGet();
+        return super.newReader(clazz);
+      }
+    };
+
+    // WHEN
+    SiteInfoData first = (SiteInfoData) counting.toJson(content, SiteInfoData.class);
+    SiteInfoData second = (SiteInfoData) counting.toJson(content, SiteInfoData.class);
+
+    // THEN
+    assertEquals("Main Page", first.getMainpage());
+    assertEquals("Main Page", second.getMainpage());
+    assertEquals(1, readers.get());
+  }
+
   String getContent(File file) {
     String content;
     try {
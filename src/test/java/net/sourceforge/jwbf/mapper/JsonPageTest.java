@@ -0,0 +1,116 @@
+package net.sourceforge.jwbf.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.NoSuchElementException;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.core.StringPool;
+import net.sourceforge.jwbf.core.contentRep.SearchResult;
+import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class JsonPageTest {
+
+  private final String search = TestHelper.wikiResponse(MediaWiki.Version.MW1_23, "search.json");
+
+  @Test
+  public void testIterate() {
+    // GIVEN
+    JsonPage<SearchResult> page = JsonPage.of(search, "search", SearchResult.class);
+
+    // WHEN
+    ImmutableList<SearchResult> results = ImmutableList.copyOf(page);
+
+    // THEN
+    assertEquals(5, results.size());
+    assertEquals("Design/WikiFont", results.get(0).getTitle());
+    assertEquals(8159, results.get(0).getSize());
+    assertEquals("Parsoid/Bibliography", results.get(1).getTitle());
+    assertFalse(page.hasNext());
+  }
+
+  @Test
+  public void testStringPool() {
+    // GIVEN
+    String json = "{\"query\":{\"search\":[{\"title\":\"A\"},{\"title\":\"A\"}]}}";
+    StringPool pool = StringPool.withCapacity(8);
+
+    // WHEN
+    ImmutableList<SearchResult> results =
+        ImmutableList.copyOf(JsonPage.of(json, "search", SearchResult.class, pool));
+
+    // THEN
+    assertEquals("A", results.get(0).getTitle());
+    assertSame(results.get(0).getTitle(), results.get(1).getTitle());
+  }
+
+  @Test
+  public void testContinue() {
+    // GIVEN
+    JsonPage<SearchResult> page = JsonPage.of(search, "search", SearchResult.class);
+
+    // WHEN / THEN
+    assertEquals(Optional.of("5"), page.getContinue("sroffset"));
+    assertEquals(Optional.of("-||"), page.getContinue("continue"));
+    assertEquals(Optional.absent(), page.getContinue("other"));
+    assertEquals("Design/WikiFont", page.next().getTitle());
+  }
+
+  @Test
+  public void testQueryFieldDuringIteration() {
+    // GIVEN
+    String json = "{\"query\":{\"search\":[{\"title\":\"A\"},{\"title\":\"B\"}]," //
+        + "\"searchinfo\":{\"totalhits\":2}}}";
+    JsonPage<SearchResult> page = JsonPage.of(json, "search", SearchResult.class);
+
+    // WHEN
+    String first = page.next().getTitle();
+    int totalHits = page.getQueryField("searchinfo").get().path("totalhits").asInt();
+
+    // THEN
+    assertEquals("A", first);
+    assertEquals(2, totalHits);
+    assertEquals("B", page.next().getTitle());
+    assertFalse(page.hasNext());
+    assertEquals(Optional.absent(), page.getContinue("sroffset"));
+  }
+
+  @Test
+  public void testWithoutQuery() {
+    // GIVEN
+    JsonPage<SearchResult> page = JsonPage.of("{\"batchcomplete\":\"\"}", "search",
+        SearchResult.class);
+
+    // WHEN / THEN
+    assertFalse(page.hasNext());
+    assertEquals(Optional.absent(), page.getQueryField("searchinfo"));
+    try {
+      page.next();
+      fail();
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testError() {
+    // GIVEN
+    String json = "{\"error\":{\"code\":\"srsearch-text-disabled\",\"info\":\"disabled\"}}";
+
+    try {
+      // WHEN
+      JsonPage.of(json, "search", SearchResult.class);
+      fail();
+    } catch (ApiException e) {
+      // THEN
+      assertEquals("API ERROR CODE: srsearch-text-disabled VALUE: disabled", e.getMessage());
+    }
+  }
+}
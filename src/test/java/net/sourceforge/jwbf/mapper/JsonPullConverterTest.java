@@ -0,0 +1,96 @@
+package net.sourceforge.jwbf.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Resources;
+import net.sourceforge.jwbf.GAssert;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class JsonPullConverterTest {
+
+  @Test
+  public void testVisit() throws Exception {
+    // GIVEN
+    final ImmutableList.Builder<String> visited = ImmutableList.builder();
+
+    // WHEN
+    try (InputStream json = Resources.getResource("mediawiki/any/revisions.json").openStream()) {
+      JsonPullConverter.visit(json, Charsets.UTF_8, new JsonPullConverter.Visitor() {
+        @Override
+        public void visit(String path, JsonNode node) {
+          visited.add(path + " " + node.path("title").asText(node.path("rvcontinue").asText()));
+        }
+      }, "continue", "query.pages");
+    }
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of( //
+        "continue 13559", //
+        "query.pages A", //
+        "query.pages B" //
+    ), visited.build());
+  }
+
+  @Test
+  public void testVisit_skipUnselected() {
+    // GIVEN
+    String json = "{\"warnings\":{\"query\":{\"*\":\"a\"}}," + //
+        "\"query\":{\"other\":[1,{\"a\":[]}]," + //
+        "\"nested\":{\"list\":[\"x\",\"y\"]}},\"list\":[\"z\"]}";
+    final ImmutableList.Builder<String> visited = ImmutableList.builder();
+
+    // WHEN
+    JsonPullConverter.visit(json, new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode node) {
+        visited.add(path + " " + node.asText());
+      }
+    }, "query.nested.list");
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of( //
+        "query.nested.list x", //
+        "query.nested.list y" //
+    ), visited.build());
+  }
+
+  @Test
+  public void testVisit_error() {
+    // GIVEN
+    String json = "{\"error\":{\"code\":\"readapidenied\",\"info\":\"You need read permission\"}}";
+
+    try {
+      // WHEN
+      JsonPullConverter.visit(json, new JsonPullConverter.Visitor() {
+        @Override
+        public void visit(String path, JsonNode node) {
+          fail();
+        }
+      }, "query.pages");
+      fail();
+    } catch (ApiException e) {
+      // THEN
+      assertEquals("readapidenied", e.getCode());
+      assertEquals("You need read permission", e.getValue());
+    }
+  }
+
+  @Test
+  public void testVisit_invalid() {
+    try {
+      // GIVEN / WHEN
+      JsonPullConverter.visit("<api/>", null);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("<api/> is no valid json", e.getMessage());
+    }
+  }
+}
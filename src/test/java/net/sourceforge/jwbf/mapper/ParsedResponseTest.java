@@ -0,0 +1,167 @@
+package net.sourceforge.jwbf.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import net.sourceforge.jwbf.GAssert;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class ParsedResponseTest {
+
+  private static final XmlPullConverter.Visitor NO_VISITOR = new XmlPullConverter.Visitor() {
+    @Override
+    public void visit(XmlPullElement element) {
+      // do nothing
+    }
+  };
+
+  @Test
+  public void testGetRootElement_memoized() {
+    // GIVEN
+    ParsedResponse response = ParsedResponse.of(TestHelper.anyWikiResponse("embeddedin_1.xml"));
+    assertFalse(response.isTreeParsed());
+
+    // WHEN
+    XmlElement root = response.getRootElement();
+
+    // THEN
+    assertTrue(response.isTreeParsed());
+    assertSame(root, response.getRootElementWithError());
+    assertEquals(5, response.getChildOpt("query", "embeddedin").get().getChildren("ei").size());
+    assertEquals(Optional.absent(), response.getChildOpt("query", "allpages"));
+  }
+
+  @Test
+  public void testGetRootElement_error() {
+    // GIVEN
+    ParsedResponse response =
+        ParsedResponse.of("<api><error code=\"badtoken\" info=\"Invalid token\"/></api>");
+
+    // WHEN
+    XmlElement withError = response.getRootElementWithError();
+    try {
+      response.getRootElement();
+      fail();
+    } catch (ApiException e) {
+      // THEN
+      assertTrue(withError.getErrorElement().isPresent());
+      assertEquals("badtoken", e.getCode());
+    }
+  }
+
+  @Test
+  public void testVisit_continue() {
+    // GIVEN
+    String xml = "<api><continue eicontinue=\"10|Babel|37163\" continue=\"-||\"/>" + //
+        "<query><embeddedin><ei title=\"A\"/><ei title=\"B\"/></embeddedin></query></api>";
+    ParsedResponse response = ParsedResponse.of(xml);
+    final ImmutableList.Builder<String> titles = ImmutableList.builder();
+    assertEquals(Optional.absent(), response.getVisitedContinue());
+
+    // WHEN
+    response.visit(new XmlPullConverter.Visitor() {
+      @Override
+      public void visit(XmlPullElement element) {
+        titles.add(element.getAttributeValue("title"));
+      }
+    }, "ei");
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of("A", "B"), titles.build());
+    assertEquals(ImmutableMap.of("eicontinue", "10|Babel|37163", "continue", "-||"),
+        response.getVisitedContinue().get());
+    assertFalse(response.isTreeParsed());
+  }
+
+  @Test
+  public void testVisit_withoutContinue() {
+    // GIVEN
+    ParsedResponse response = ParsedResponse.of("<api><query/></api>");
+
+    // WHEN
+    response.visit(NO_VISITOR, "ei");
+
+    // THEN
+    assertEquals(Optional.of(ImmutableMap.<String, String>of()), response.getVisitedContinue());
+  }
+
+  @Test
+  public void testVisit_queryContinue() {
+    // GIVEN
+    ParsedResponse response = ParsedResponse.of(TestHelper.anyWikiResponse("embeddedin_1.xml"));
+
+    // WHEN
+    response.visit(NO_VISITOR, "ei");
+
+    // THEN
+    assertEquals(Optional.absent(), response.getVisitedContinue());
+  }
+
+  @Test
+  public void testVisitJson_continue() {
+    // GIVEN
+    ParsedResponse response = ParsedResponse.of(TestHelper.anyWikiResponse("revisions.json"));
+    final ImmutableList.Builder<String> titles = ImmutableList.builder();
+
+    // WHEN
+    response.visitJson(new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode node) {
+        titles.add(node.path("title").asText());
+      }
+    }, "query.pages");
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of("A", "B"), titles.build());
+    assertEquals("13559", response.getVisitedContinue().get().get("rvcontinue"));
+  }
+
+  @Test
+  public void testOfBytes_visit() {
+    // GIVEN
+    byte[] body = TestHelper.anyWikiResponse("revisions.json").getBytes(Charsets.UTF_8);
+    ParsedResponse response = ParsedResponse.of(body, Charsets.UTF_8);
+    final ImmutableList.Builder<String> titles = ImmutableList.builder();
+
+    // WHEN
+    response.visitJson(new JsonPullConverter.Visitor() {
+      @Override
+      public void visit(String path, JsonNode node) {
+        titles.add(node.path("title").asText());
+      }
+    }, "query.pages");
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of("A", "B"), titles.build());
+    assertEquals("13559", response.getVisitedContinue().get().get("rvcontinue"));
+    assertFalse(response.isTextDecoded());
+  }
+
+  @Test
+  public void testOfBytes_rootElement() {
+    // GIVEN
+    String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" + //
+        "<api><p title=\"\u00c4rger\"/></api>";
+    ParsedResponse response = ParsedResponse.of(xml.getBytes(Charsets.ISO_8859_1),
+        Charsets.ISO_8859_1);
+
+    // WHEN
+    XmlElement root = response.getRootElement();
+
+    // THEN
+    assertEquals("\u00c4rger", root.getChild("p").getAttributeValue("title"));
+    assertFalse(response.isTextDecoded());
+    assertEquals(xml, response.getText());
+    assertTrue(response.isTextDecoded());
+  }
+}
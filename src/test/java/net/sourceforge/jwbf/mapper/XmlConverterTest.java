@@ -2,12 +2,18 @@ package net.sourceforge.jwbf.mapper;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import com.google.common.base.Charsets;
 import com.google.common.base.Optional;
 import com.google.common.io.Resources;
 import net.sourceforge.jwbf.TestHelper;
 import net.sourceforge.jwbf.mediawiki.actions.queries.BaseQueryTest;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
 import org.junit.Test;
 
 public class XmlConverterTest {
@@ -58,6 +64,37 @@ public class XmlConverterTest {
     fail();
   }
 
+  @Test
+  public void testGetChildOpt_stream() {
+    // GIVEN
+    InputStream xml = toStream("<api><query><pages><page title=\"A\"/></pages></query></api>");
+
+    // WHEN
+    Optional<XmlElement> result = XmlConverter.getChildOpt(xml, Charsets.UTF_8, "query", "pages");
+
+    // THEN
+    assertEquals("A", result.get().getChild("page").getAttributeValue("title"));
+  }
+
+  @Test
+  public void testGetChildOpt_stream_error() {
+    // GIVEN
+    InputStream xml = toStream("<api><error code=\"a\" info=\"b\"/></api>");
+
+    try {
+      // WHEN
+      XmlConverter.getChildOpt(xml, Charsets.UTF_8, "query");
+      fail();
+    } catch (ApiException e) {
+      // THEN
+      assertEquals("a", e.getCode());
+    }
+  }
+
+  private static InputStream toStream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(Charsets.UTF_8));
+  }
+
   @Test
   public void testGetChildSeq_unknown() {
     // GIVEN
@@ -81,4 +118,52 @@ public class XmlConverterTest {
     // THEN
     assertEquals(Optional.absent(), first);
   }
+
+  @Test
+  public void testEvaluateXpath() {
+    // GIVEN
+    String xml = TestHelper.anyWikiResponse("embeddedin_1.xml");
+
+    // WHEN
+    String result = XmlConverter.evaluateXpath(xml, "/api/query/embeddedin/ei[2]/@title");
+
+    // THEN
+    assertEquals("User:Piotr Gasiorowski", result);
+    assertEquals("", XmlConverter.evaluateXpath(xml, "/api/query/allpages/p/@title"));
+  }
+
+  @Test
+  public void testCompileXpath_cached() throws Exception {
+    // GIVEN
+    final CompiledXpath xpath = XmlConverter.compileXpath("/api/query/embeddedin/ei[1]/@title");
+    final String xml = TestHelper.anyWikiResponse("embeddedin_1.xml");
+    final String[] otherThreadResult = new String[1];
+
+    // WHEN
+    Thread other = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        otherThreadResult[0] = xpath.evaluate(xml);
+      }
+    });
+    other.start();
+    other.join();
+
+    // THEN
+    assertSame(xpath, XmlConverter.compileXpath("/api/query/embeddedin/ei[1]/@title"));
+    assertEquals("User:AxelBoldt", xpath.evaluate(xml));
+    assertEquals("User:AxelBoldt", otherThreadResult[0]);
+  }
+
+  @Test
+  public void testCompileXpath_invalid() {
+    try {
+      // GIVEN / WHEN
+      XmlConverter.compileXpath("/api/[");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("invalid xpath: /api/[", e.getMessage());
+    }
+  }
 }
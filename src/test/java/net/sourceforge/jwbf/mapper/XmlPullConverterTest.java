@@ -0,0 +1,105 @@
+package net.sourceforge.jwbf.mapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Resources;
+import net.sourceforge.jwbf.GAssert;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.mediawiki.actions.util.ApiException;
+import org.junit.Test;
+
+public class XmlPullConverterTest {
+
+  @Test
+  public void testVisit() {
+    // GIVEN
+    String xml = TestHelper.anyWikiResponse("embeddedin_1.xml");
+    final ImmutableList.Builder<String> visited = ImmutableList.builder();
+
+    // WHEN
+    XmlPullConverter.visit(xml, new XmlPullConverter.Visitor() {
+      @Override
+      public void visit(XmlPullElement element) {
+        visited.add(element.getParentName() + "/" + element.getName() + " " +
+            element.getAttributeValueOpt("title").or(element.getAttributeValueOpt("eicontinue"))
+                .orNull());
+      }
+    }, "ei", "embeddedin");
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of( //
+        "query-continue/embeddedin 10|Babel|37163", //
+        "query/embeddedin null", //
+        "embeddedin/ei User:AxelBoldt", //
+        "embeddedin/ei User:Piotr Gasiorowski", //
+        "embeddedin/ei User:RobLa", //
+        "embeddedin/ei User:Taral", //
+        "embeddedin/ei User:Ap" //
+    ), visited.build());
+  }
+
+  @Test
+  public void testVisit_text() throws Exception {
+    // GIVEN
+    final ImmutableList.Builder<String> visited = ImmutableList.builder();
+
+    // WHEN
+    try (InputStream xml = Resources.getResource("mediawiki/any/revisions.xml").openStream()) {
+      XmlPullConverter.visit(xml, Charsets.UTF_8, new XmlPullConverter.Visitor() {
+        @Override
+        public void visit(XmlPullElement element) {
+          if (element.getName().equals("rev")) {
+            visited.add(element.getAttributeValue("revid") + " " + element.getText());
+          } else {
+            visited.add(element.getAttributeValue("title"));
+          }
+        }
+      }, "page", "rev");
+    }
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of("A", "B", "13560 #REDIRECT [[Any]]"), visited.build());
+  }
+
+  @Test
+  public void testVisit_error() {
+    // GIVEN
+    String xml = "<api><error code=\"readapidenied\" info=\"no read permission\" /></api>";
+
+    try {
+      // WHEN
+      XmlPullConverter.visit(xml, new XmlPullConverter.Visitor() {
+        @Override
+        public void visit(XmlPullElement element) {
+          fail();
+        }
+      }, "query");
+      fail();
+    } catch (ApiException e) {
+      // THEN
+      assertEquals("API ERROR CODE: readapidenied VALUE: no read permission", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testVisit_invalid() {
+    try {
+      // GIVEN / WHEN
+      XmlPullConverter.visit("<a>", new XmlPullConverter.Visitor() {
+        @Override
+        public void visit(XmlPullElement element) {
+          // do nothing
+        }
+      }, "a");
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("<a> is no valid xml", e.getMessage());
+    }
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 import net.sourceforge.jwbf.TestHelper;
 import net.sourceforge.jwbf.core.actions.ParamTuple;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.actions.editing.GetApiToken.Intoken;
 import org.junit.Test;
 
@@ -32,6 +33,20 @@ public class GetApiTokenTest {
     assertEquals(token, testee.get().token());
   }
 
+  @Test
+  public void testProcessReturningText_json() {
+    // GIVEN
+    testee = new GetApiToken(Intoken.EDIT, "test", ResponseFormat.JSON);
+    String json = "{\"batchcomplete\":true,\"query\":{\"pages\":[{\"pageid\":964," + //
+        "\"ns\":0,\"title\":\"42\",\"edittoken\":\"e0691d5329779f0c+\\\\\"}]}}";
+
+    // WHEN
+    testee.processReturningText(json, testee.popAction());
+
+    // THEN
+    assertEquals(new ParamTuple<>("token", "e0691d5329779f0c+\\"), testee.get().token());
+  }
+
   @Test
   public void testProcessReturningText_requestMissmatch() {
     // GIVEN
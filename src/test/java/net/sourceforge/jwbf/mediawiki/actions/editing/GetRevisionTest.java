@@ -1,7 +1,21 @@
 package net.sourceforge.jwbf.mediawiki.actions.editing;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Resources;
+import net.sourceforge.jwbf.TestHelper;
+import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.contentRep.CompactText;
+import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import org.junit.Test;
 
 public class GetRevisionTest {
@@ -17,4 +31,109 @@ public class GetRevisionTest {
         GetRevision.getDataProperties(GetRevision.IDS | GetRevision.USER | GetRevision.IDS));
 
   }
+
+  @Test
+  public void testProcessReturningStream() throws IOException {
+    // GIVEN
+    GetRevision testee = new GetRevision(ImmutableList.of("B"), GetRevision.CONTENT);
+
+    // WHEN
+    try (InputStream body = Resources.getResource("mediawiki/any/revision.xml").openStream()) {
+      testee.processReturningStream(body, Charsets.UTF_8, testee.getNextMessage());
+    }
+
+    // THEN
+    SimpleArticle article = testee.getArticle();
+    assertEquals("B", article.getTitle());
+    assertEquals("#REDIRECT [[Any]]", article.getText());
+    assertEquals("13560", article.getRevisionId());
+  }
+
+  @Test
+  public void testProcessReturningStream_retried() throws IOException {
+    // GIVEN
+    GetRevision testee = new GetRevision(ImmutableList.of("A", "B"),
+        GetRevision.CONTENT, ResponseFormat.JSON);
+    HttpAction action = testee.getNextMessage();
+
+    // WHEN
+    for (int attempt = 0; attempt < 2; attempt++) {
+      try (InputStream body = Resources.getResource("mediawiki/any/revisions.json").openStream()) {
+        testee.processReturningStream(body, Charsets.UTF_8, action);
+      }
+    }
+
+    // THEN
+    assertEquals(2, testee.asListOpt().size());
+  }
+
+  @Test
+  public void testProcessReturningText_missing() {
+    // GIVEN
+    GetRevision testee = new GetRevision(ImmutableList.of("A", "B"), GetRevision.CONTENT);
+    String xml = TestHelper.anyWikiResponse("revisions.xml");
+
+    // WHEN
+    testee.processReturningText(xml, testee.getNextMessage());
+
+    // THEN
+    ImmutableList<Optional<SimpleArticle>> articles = testee.asListOpt();
+    assertEquals(2, articles.size());
+    assertFalse(articles.get(0).isPresent());
+    assertEquals("#REDIRECT [[Any]]", articles.get(1).get().getText());
+    assertEquals("Any", articles.get(1).get().getEditor());
+  }
+
+  @Test
+  public void testProcessReturningText_compact() {
+    // GIVEN
+    GetRevision testee = new GetRevision(ImmutableList.of("A", "B"),
+        GetRevision.CONTENT | GetRevision.COMPACT_TEXT);
+    String xml = TestHelper.anyWikiResponse("revisions.xml");
+
+    // WHEN
+    testee.processReturningText(xml, testee.getNextMessage());
+
+    // THEN
+    SimpleArticle article = testee.asListOpt().get(1).get();
+    assertTrue(article.getTextSequence() instanceof CompactText);
+    assertTrue(article.isRedirect());
+    assertEquals("#REDIRECT [[Any]]", article.getText());
+  }
+
+  @Test
+  public void testProcessReturningStream_json() throws IOException {
+    // GIVEN
+    GetRevision testee = new GetRevision(ImmutableList.of("A", "B"),
+        GetRevision.CONTENT | GetRevision.FLAGS, ResponseFormat.JSON);
+
+    // WHEN
+    try (InputStream body = Resources.getResource("mediawiki/any/revisions.json").openStream()) {
+      testee.processReturningStream(body, Charsets.UTF_8, testee.getNextMessage());
+    }
+
+    // THEN
+    ImmutableList<Optional<SimpleArticle>> articles = testee.asListOpt();
+    assertEquals(2, articles.size());
+    assertFalse(articles.get(0).isPresent());
+    SimpleArticle article = articles.get(1).get();
+    assertEquals("B", article.getTitle());
+    assertEquals("#REDIRECT [[Any]]", article.getText());
+    assertEquals("13560", article.getRevisionId());
+    assertEquals("Any", article.getEditor());
+    assertTrue(article.isMinorEdit());
+  }
+
+  @Test
+  public void testRequest_json() {
+    // GIVEN
+    GetRevision testee =
+        new GetRevision(ImmutableList.of("B"), GetRevision.CONTENT, ResponseFormat.JSON);
+
+    // WHEN
+    String request = testee.getNextMessage().getRequest();
+
+    // THEN
+    assertTrue(request, request.contains("format=json&formatversion=2"));
+  }
 }
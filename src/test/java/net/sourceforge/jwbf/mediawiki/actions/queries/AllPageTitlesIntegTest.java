@@ -24,7 +24,7 @@ public class AllPageTitlesIntegTest extends MocoIntegTest {
         .paramNewContinue(version()) //
         .param("format", "xml") //
         .param("list", "allpages") //
-        .param("aplimit", "50") //
+        .param("aplimit", "max") //
         ;
   }
 
@@ -42,7 +42,7 @@ public class AllPageTitlesTest {
 
     // THEN
     assertEquals(
-        "/api.php?action=query&apfilterredir=nonredirects&aplimit=50&format=xml&list=allpages", //
+        "/api.php?action=query&apfilterredir=nonredirects&aplimit=max&format=xml&list=allpages", //
         allPagesRequest.getRequest());
   }
 
@@ -58,7 +58,7 @@ public class AllPageTitlesTest {
     Get allPagesRequest = testee.generateRequest(from, prefix, rf, namespace);
 
     // THEN
-    assertEquals("/api.php?action=query&apfilterredir=nonredirects&aplimit=50"
+    assertEquals("/api.php?action=query&apfilterredir=nonredirects&aplimit=max"
         + "&apprefix=Test&format=xml&list=allpages", allPagesRequest.getRequest());
   }
 
@@ -74,7 +74,7 @@ public class AllPageTitlesTest {
     Get allPagesRequest = testee.generateRequest(from, prefix, rf, namespace);
 
     // THEN
-    assertEquals("/api.php?action=query&apfilterredir=nonredirects&aplimit=50"
+    assertEquals("/api.php?action=query&apfilterredir=nonredirects&aplimit=max"
         + "&apnamespace=14&format=xml&list=allpages", allPagesRequest.getRequest());
   }
 
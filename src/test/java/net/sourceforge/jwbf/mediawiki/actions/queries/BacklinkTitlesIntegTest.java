@@ -21,7 +21,7 @@ public class BacklinkTitlesIntegTest extends MocoIntegTest {
     return ApiMatcherBuilder.of() //
         .param("action", "query") //
         .param("blfilterredir", "all") //
-        .param("bllimit", "50") //
+        .param("bllimit", "max") //
         .param("bltitle", "Test") //
         .param("format", "xml") //
         .param("list", "backlinks") //
@@ -1,10 +1,22 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
+import static com.github.dreamhead.moco.Moco.status;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import com.github.dreamhead.moco.RequestMatcher;
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import net.sourceforge.jwbf.AbstractIntegTest;
 import net.sourceforge.jwbf.GAssert;
 import net.sourceforge.jwbf.Logging;
@@ -13,16 +25,24 @@ import net.sourceforge.jwbf.mediawiki.ApiMatcherBuilder;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
 import net.sourceforge.jwbf.mediawiki.MocoIntegTest;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class BaseQueryIntegTest extends AbstractIntegTest {
 
+  private static final String LAST_PAGE = "<api><query><embeddedin>" + //
+      "<ei pageid=\"37163\" ns=\"2\" title=\"User:Yargo\" /></embeddedin></query></api>";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
   static RequestMatcher embeddedinTwo() {
     return ApiMatcherBuilder.of() //
         .param("eicontinue", "10|Babel|37163") //
         .param("action", "query") //
         .param("format", "xml") //
-        .param("eilimit", "50") //
+        .param("eilimit", "max") //
         .param("einamespace", "2") //
         .param("eititle", "Template:Babel") //
         .param("list", "embeddedin") //
@@ -34,7 +54,7 @@ public class BaseQueryIntegTest extends AbstractIntegTest {
     return ApiMatcherBuilder.of() //
         .param("action", "query") //
         .param("format", "xml") //
-        .param("eilimit", "50") //
+        .param("eilimit", "max") //
         .param("einamespace", "2") //
         .param("eititle", "Template:Babel") //
         .param("list", "embeddedin") //
@@ -85,6 +105,134 @@ public class BaseQueryIntegTest extends AbstractIntegTest {
 
   }
 
+  @Test
+  public void testPrefetch() {
+
+    // GIVEN
+    MocoIntegTest.applySiteinfoXmlToServer(server, MediaWiki.Version.MW1_23, this.getClass());
+    for (int i = 0; i < 2; i++) {
+      server.request(embeddedinTwo()).response(LAST_PAGE);
+      server.request(embeddedinOne()).response(TestHelper.anyWikiResponse("embeddedin_1.xml"));
+    }
+    MediaWikiBot bot = new MediaWikiBot(host());
+    ImmutableList<String> expected = ImmutableList.of("User:AxelBoldt", "User:Piotr Gasiorowski",
+        "User:RobLa", "User:Taral", "User:Ap", "User:Yargo");
+
+    // WHEN
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER) //
+        .withPrefetch(2);
+
+    // THEN
+    GAssert.assertEquals(expected, ImmutableList.copyOf(testee.lazy()));
+    GAssert.assertEquals(expected, ImmutableList.copyOf((Iterator<String>) testee));
+  }
+
+  @Test
+  public void testPrefetch_failedPage() {
+
+    // GIVEN
+    MocoIntegTest.applySiteinfoXmlToServer(server, MediaWiki.Version.MW1_23, this.getClass());
+    server.request(embeddedinOne()).response(TestHelper.anyWikiResponse("embeddedin_1.xml"));
+    server.request(embeddedinTwo()).response(status(400));
+    server.request(embeddedinTwo()).response(LAST_PAGE);
+    MediaWikiBot bot = new MediaWikiBot(host());
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER) //
+        .withPrefetch(2);
+
+    // WHEN
+    ImmutableList<String> firstPage = ImmutableList.copyOf(Iterators.limit(testee, 5));
+    try {
+      testee.hasNext();
+      fail();
+    } catch (IllegalStateException e) {
+      GAssert.assertStartsWith("invalid status: HTTP/1.1 400 Bad Request;", e.getMessage());
+    }
+
+    // THEN
+    assertEquals(5, firstPage.size());
+    assertTrue(testee.hasNext());
+    assertEquals("User:Yargo", testee.next());
+    assertFalse(testee.hasNext());
+  }
+
+  private void applyTwoPages() {
+    MocoIntegTest.applySiteinfoXmlToServer(server, MediaWiki.Version.MW1_23, this.getClass());
+    server.request(embeddedinTwo()).response(LAST_PAGE);
+    server.request(embeddedinOne()).response(TestHelper.anyWikiResponse("embeddedin_1.xml"));
+  }
+
+  @Test
+  public void testPages() {
+
+    // GIVEN
+    applyTwoPages();
+    MediaWikiBot bot = new MediaWikiBot(host());
+
+    // WHEN
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER);
+    ImmutableList<ImmutableList<String>> pages = ImmutableList.copyOf(testee.pages());
+
+    // THEN
+    assertEquals(2, pages.size());
+    GAssert.assertEquals(ImmutableList.of("User:AxelBoldt", "User:Piotr Gasiorowski",
+        "User:RobLa", "User:Taral", "User:Ap"), pages.get(0));
+    GAssert.assertEquals(ImmutableList.of("User:Yargo"), pages.get(1));
+  }
+
+  @Test
+  public void testParallelTransform() {
+
+    // GIVEN
+    applyTwoPages();
+    MediaWikiBot bot = new MediaWikiBot(host());
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    Function<String, Integer> length = new Function<String, Integer>() {
+      @Override
+      public Integer apply(String input) {
+        return input.length();
+      }
+    };
+
+    // WHEN
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER);
+    ImmutableList<Integer> result =
+        ImmutableList.copyOf(testee.withPrefetch(1).parallelTransform(length, executor));
+    executor.shutdown();
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of(14, 22, 10, 10, 7, 10), result);
+  }
+
+  @Test
+  public void testCheckpoints_resume() {
+
+    // GIVEN
+    applyTwoPages();
+    server.request(embeddedinTwo()).response(LAST_PAGE);
+    server.request(embeddedinTwo()).response(LAST_PAGE);
+    MediaWikiBot bot = new MediaWikiBot(host());
+    Path file = folder.getRoot().toPath().resolve("embeddedin.checkpoint");
+    ImmutableList<String> lastPage = ImmutableList.of("User:Yargo");
+
+    // WHEN
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER) //
+        .withCheckpoints(file, 1);
+    assertEquals(6, ImmutableList.copyOf(testee.lazy()).size());
+    QueryCheckpoint checkpoint = QueryCheckpoint.read(file);
+
+    // THEN
+    assertEquals(Optional.of("10|Babel|37163"), checkpoint.getNextPageInfo());
+    assertEquals(1, checkpoint.getPageCount());
+    BaseQuery<String> resumed = new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER) //
+        .resumeFrom(checkpoint);
+    GAssert.assertEquals(lastPage, ImmutableList.copyOf(resumed.lazy()));
+    BaseQuery<String> prefetched =
+        new TemplateUserTitles(bot, "Template:Babel", MediaWiki.NS_USER) //
+            .withPrefetch(1) //
+            .resumeFrom(checkpoint);
+    GAssert.assertEquals(lastPage, ImmutableList.copyOf(prefetched.lazy()));
+  }
+
   @Test
   public void testLazy() {
 
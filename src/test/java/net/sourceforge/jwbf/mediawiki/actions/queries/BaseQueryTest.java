@@ -1,26 +1,41 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
 
+import java.nio.file.Paths;
 import java.util.Iterator;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import net.sourceforge.jwbf.GAssert;
+import net.sourceforge.jwbf.core.actions.ContentProcessable;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
+import net.sourceforge.jwbf.core.contentRep.SearchResult;
+import net.sourceforge.jwbf.core.contentRep.Userinfo;
+import net.sourceforge.jwbf.mapper.JsonPage;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mediawiki.ApiRequestBuilder;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.Spy;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
 @RunWith(MockitoJUnitRunner.class)
 public class BaseQueryTest {
 
+  private MediaWikiBot bot = Mockito.mock(MediaWikiBot.class);
+
   @Spy
-  BaseQuery<Object> testee = new BaseQuery<Object>(Mockito.mock(MediaWikiBot.class)) {
+  BaseQuery<Object> testee = new BaseQuery<Object>(bot) {
     @Override
     protected Iterator<Object> copy() {
       return ImmutableList.of().iterator();
@@ -84,6 +99,234 @@ public class BaseQueryTest {
     }
   }
 
+  @Test
+  public void testPages_copyIsNoQuery() {
+    // GIVEN
+    BaseQuery<Object> query = new BaseQuery<Object>(bot) {
+      @Override
+      protected Iterator<Object> copy() {
+        return ImmutableList.<Object>of("a", "b", "c").iterator();
+      }
+
+      @Override
+      protected HttpAction prepareNextRequest() {
+        return null;
+      }
+
+      @Override
+      protected ImmutableList<Object> parseElements(String s) {
+        return ImmutableList.of();
+      }
+
+      @Override
+      protected Optional<String> parseHasMore(String s) {
+        return Optional.absent();
+      }
+    }.withLimit(2);
+
+    // WHEN
+    ImmutableList<ImmutableList<Object>> pages = ImmutableList.copyOf(query.pages());
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.<ImmutableList<Object>>of( //
+        ImmutableList.<Object>of("a", "b"), ImmutableList.<Object>of("c")), pages);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testWithPrefetch_notPrefetchable() {
+    testee.withPrefetch(1);
+  }
+
+  @Test
+  public void testWithPrefetch_negative() {
+    try {
+      // GIVEN / WHEN
+      testee.withPrefetch(-1);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("prefetch depth must not be negative", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testLimitValue_max() {
+    assertEquals("max", testee.limitValue());
+  }
+
+  @Test
+  public void testLimitValue() {
+    // GIVEN / WHEN
+    testee.withLimit(20);
+
+    // THEN
+    assertEquals("20", testee.limitValue());
+  }
+
+  @Test
+  public void testLimitValue_highLimits() {
+    // GIVEN
+    Userinfo userinfo = Mockito.mock(Userinfo.class);
+    when(bot.getUserinfo()).thenReturn(userinfo);
+    when(userinfo.getRights()).thenReturn(ImmutableSet.of("read", "apihighlimits"));
+
+    // WHEN
+    testee.withLimit(1000);
+
+    // THEN
+    assertEquals("1000", testee.limitValue());
+    testee.withLimit(9000);
+    assertEquals("5000", testee.limitValue());
+  }
+
+  @Test
+  public void testLimitValue_lowLimits() {
+    // GIVEN
+    Userinfo userinfo = Mockito.mock(Userinfo.class);
+    when(bot.getUserinfo()).thenReturn(userinfo);
+    when(userinfo.getRights()).thenReturn(ImmutableSet.of("read"));
+
+    // WHEN
+    testee.withLimit(1000);
+
+    // THEN
+    assertEquals("500", testee.limitValue());
+  }
+
+  @Test
+  public void testWithLimit_zero() {
+    try {
+      // GIVEN / WHEN
+      testee.withLimit(0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("limit must be > 0, but was 0", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testWithCheckpoints_zero() {
+    try {
+      // GIVEN / WHEN
+      testee.withCheckpoints(Paths.get("checkpoint"), 0);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals("checkpoint interval must be > 0, but was 0", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testResumeFrom_otherQuery() {
+    // GIVEN
+    QueryCheckpoint checkpoint = new QueryCheckpoint("/api.php?action=query&list=allpages",
+        Optional.of("B"), 2);
+    BaseQuery<String> query = new TemplateUserTitles(bot, "Template:Babel") //
+        .resumeFrom(checkpoint);
+
+    try {
+      // WHEN
+      query.hasNext();
+      fail();
+    } catch (IllegalStateException e) {
+      // THEN
+      GAssert.assertStartsWith("the checkpoint belongs to another query; " +
+          "expected /api.php?action=query&list=allpages, but was /api.php?action=query" +
+          "&eicontinue=B", e.getMessage());
+      Mockito.verify(bot, Mockito.never()) //
+          .getPerformedAction(Mockito.any(ContentProcessable.class));
+    }
+  }
+
+  @Test
+  public void testParseElementsLazily_continueAfterLastElement() {
+    // GIVEN
+    final String json = "{\"query\":{\"search\":[{\"title\":\"A\"},{\"title\":\"B\"}]}}";
+    when(bot.getPerformedAction(Mockito.any(ContentProcessable.class))) //
+        .thenAnswer(new Answer<ContentProcessable>() {
+          @Override
+          public ContentProcessable answer(InvocationOnMock invocation) {
+            ContentProcessable action = (ContentProcessable) invocation.getArguments()[0];
+            action.processReturningText(json, null);
+            return action;
+          }
+        });
+    final ImmutableList.Builder<Boolean> unreadAtParseHasMore = ImmutableList.builder();
+    BaseQuery<SearchResult> lazyQuery = new BaseQuery<SearchResult>(bot) {
+      private JsonPage<SearchResult> page;
+
+      @Override
+      protected Iterator<SearchResult> copy() {
+        return this;
+      }
+
+      @Override
+      protected HttpAction prepareNextRequest() {
+        return new ApiRequestBuilder().action("query").buildGet();
+      }
+
+      @Override
+      protected Optional<Iterator<SearchResult>> parseElementsLazily(ParsedResponse response) {
+        page = JsonPage.of(response.getText(), "search", SearchResult.class);
+        return Optional.<Iterator<SearchResult>>of(page);
+      }
+
+      @Override
+      protected ImmutableList<SearchResult> parseElements(String s) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      protected Optional<String> parseHasMore(String s) {
+        unreadAtParseHasMore.add(page.hasNext());
+        return page.getContinue("sroffset");
+      }
+    };
+
+    // WHEN
+    String first = lazyQuery.next().getTitle();
+
+    // THEN
+    assertEquals("A", first);
+    GAssert.assertEquals(ImmutableList.<Boolean>of(), unreadAtParseHasMore.build());
+    assertEquals("B", lazyQuery.next().getTitle());
+    assertFalse(lazyQuery.hasNext());
+    // the last page has no continue, which would have buffered all unread items
+    GAssert.assertEquals(ImmutableList.of(false), unreadAtParseHasMore.build());
+  }
+
+  @Test
+  public void testParseElements_parsesResponseOnceWithoutImplementation() {
+    // GIVEN
+    BaseQuery<Object> query = new BaseQuery<Object>(bot) {
+      @Override
+      protected Iterator<Object> copy() {
+        return this;
+      }
+
+      @Override
+      protected HttpAction prepareNextRequest() {
+        return null;
+      }
+
+      @Override
+      protected boolean parsesResponseOnce() {
+        return true;
+      }
+    };
+
+    try {
+      // WHEN
+      query.parseElements(emptyXml());
+      fail();
+    } catch (UnsupportedOperationException e) {
+      // THEN
+      String message = e.getMessage();
+      assertTrue(message, message.endsWith("must implement parseElements(ParsedResponse)"));
+    }
+  }
+
   public static String emptyXml() {
     return "<empty />";
   }
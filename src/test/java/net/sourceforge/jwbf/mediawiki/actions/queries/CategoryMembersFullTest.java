@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.GAssert;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
@@ -29,6 +30,20 @@ public class CategoryMembersFullTest {
 
   }
 
+  @Test
+  public void testPrepareNextRequest_resumed() {
+    // GIVEN
+    MediaWikiBot bot = Mockito.mock(MediaWikiBot.class);
+    CategoryMembersFull testee = new CategoryMembersFull(bot, "Test It");
+
+    // WHEN
+    testee.resumeFrom(new QueryCheckpoint("/api.php", Optional.of("page|B|2"), 1));
+
+    // THEN
+    GAssert.assertStartsWith("/api.php?action=query&cmcontinue=page%7CB%7C2",
+        testee.prepareNextRequest().getRequest());
+  }
+
   @Test
   public void test_innerFail() {
     // GIVEN
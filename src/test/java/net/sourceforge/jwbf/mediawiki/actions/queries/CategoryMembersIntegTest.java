@@ -24,7 +24,7 @@ public class CategoryMembersIntegTest extends MocoIntegTest {
   ApiMatcherBuilder newBaseMatcher() {
     return ApiMatcherBuilder.of() //
         .param("action", "query") //
-        .param("cmlimit", "50") //
+        .param("cmlimit", "max") //
             //.param("cmnamespace", "0") //
         .param("format", "xml") //
         .param("cmtitle", "Category:TestCat") //
@@ -9,7 +9,9 @@ import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.GAssert;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.core.internal.NonnullFunction;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+import net.sourceforge.jwbf.mediawiki.contentRep.CategoryItem;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -44,8 +46,8 @@ public class CategoryMembersSimpleTest {
   public void testParseArticleTitles() {
     // GIVE
     ImmutableList<String> mock = ImmutableList.of("a title");
-    when(categoryMembers.parseArticles(Mockito.eq("valid"), Mockito.any(NonnullFunction.class))) //
-        .thenReturn(mock);
+    when(categoryMembers.parseArticles(Mockito.any(ParsedResponse.class), //
+        Mockito.any(NonnullFunction.class))).thenReturn(mock);
 
     // WHEN
     ImmutableList<String> result = testee.parseElements("valid");
@@ -58,7 +60,8 @@ public class CategoryMembersSimpleTest {
   @Test
   public void testParseHasMore() {
     // GIVE
-    when(categoryMembers.parseHasMore("valid")).thenReturn(Optional.of("a"));
+    when(categoryMembers.parseHasMore(Mockito.any(ParsedResponse.class))) //
+        .thenReturn(Optional.of("a"));
 
     // WHEN
     Optional<String> result = testee.parseHasMore("valid");
@@ -67,4 +70,17 @@ public class CategoryMembersSimpleTest {
     assertEquals(Optional.of("a"), result);
 
   }
+
+  @Test
+  public void testNextPageElements() {
+    // GIVE
+    CategoryItem item = new CategoryItem("a title", 14, 7);
+    when(categoryMembers.nextPageElements()).thenReturn(ImmutableList.of(item));
+
+    // WHEN
+    ImmutableList<String> result = testee.nextPageElements();
+
+    // THEN
+    GAssert.assertEquals(ImmutableList.of("a title"), result);
+  }
 }
@@ -1,12 +1,17 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.util.Iterator;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import net.sourceforge.jwbf.core.actions.util.HttpAction;
 import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
 import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
 import net.sourceforge.jwbf.mediawiki.contentRep.CategoryItem;
 import org.junit.Test;
@@ -40,4 +45,22 @@ public class CategoryMembersTest {
     // THEN
     assertTrue(result.isEmpty());
   }
+
+  @Test
+  public void testParseJson() {
+    // GIVEN
+    MediaWikiBot bot = mock(MediaWikiBot.class);
+    when(bot.getResponseFormat()).thenReturn(ResponseFormat.JSON);
+    CategoryMembers jsonTestee = new CategoryMembersFull(bot, "A", ns);
+    String json = "{\"continue\":{\"cmcontinue\":\"page|4e|42\",\"continue\":\"-||\"}," + //
+        "\"query\":{\"categorymembers\":[{\"pageid\":42,\"ns\":0,\"title\":\"B\"}]}}";
+
+    // WHEN
+    ImmutableList<CategoryItem> result = jsonTestee.parseElements(json);
+    Optional<String> hasMore = jsonTestee.parseHasMore(json);
+
+    // THEN
+    assertEquals(ImmutableList.of(new CategoryItem("B", 0, 42)), result);
+    assertEquals(Optional.of("page|4e|42"), hasMore);
+  }
 }
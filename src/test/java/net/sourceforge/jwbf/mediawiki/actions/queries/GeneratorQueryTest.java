@@ -0,0 +1,143 @@
+package net.sourceforge.jwbf.mediawiki.actions.queries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import net.sourceforge.jwbf.core.actions.util.ActionException;
+import net.sourceforge.jwbf.core.contentRep.SimpleArticle;
+import net.sourceforge.jwbf.mapper.ParsedResponse;
+import net.sourceforge.jwbf.mediawiki.MediaWiki;
+import net.sourceforge.jwbf.mediawiki.ResponseFormat;
+import net.sourceforge.jwbf.mediawiki.actions.editing.GetRevision;
+import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GeneratorQueryTest {
+
+  private static final String XML = "<api><continue rvcontinue=\"20|21\" " + //
+      "gcmcontinue=\"page|4249|2\" continue=\"gcmcontinue||\"/><query><pages>" + //
+      "<page pageid=\"1\" ns=\"0\" title=\"A\" lastrevid=\"10\"><revisions>" + //
+      "<rev revid=\"10\" user=\"U\" timestamp=\"2014-10-24T18:41:45Z\" comment=\"c\" " + //
+      "minor=\"\">Text A</rev></revisions></page>" + //
+      "<page pageid=\"2\" ns=\"0\" title=\"B\" lastrevid=\"21\"/>" + //
+      "</pages></query></api>";
+
+  private static final String JSON = "{\"continue\":{\"gcmcontinue\":\"page|4249|2\"," + //
+      "\"continue\":\"gcmcontinue||\"},\"query\":{\"pages\":[" + //
+      "{\"pageid\":1,\"ns\":0,\"title\":\"A\",\"lastrevid\":10,\"revisions\":[" + //
+      "{\"revid\":10,\"user\":\"U\",\"timestamp\":\"2014-10-24T18:41:45Z\"," + //
+      "\"comment\":\"c\",\"minor\":true,\"content\":\"Text A\"}]}," + //
+      "{\"pageid\":2,\"ns\":0,\"title\":\"B\",\"lastrevid\":21}]}}";
+
+  @Mock
+  private MediaWikiBot bot;
+
+  @Test
+  public void testPrepareNextRequest() {
+    // GIVEN
+    when(bot.getVersion()).thenReturn(MediaWiki.Version.MW1_23);
+    GeneratorQuery testee = GeneratorQuery.categoryMembers(bot, "Category:A B") //
+        .withNamespaces(MediaWiki.NS_MAIN, MediaWiki.NS_TEMPLATE) //
+        .withProperties(GetRevision.CONTENT) //
+        .build();
+
+    // WHEN
+    String request = testee.prepareNextRequest().getRequest();
+
+    // THEN
+    assertEquals("/api.php?action=query&continue=-%7C%7C&format=xml" + //
+        "&gcmlimit=max&gcmnamespace=0%7C10&gcmtitle=Category%3AA+B" + //
+        "&generator=categorymembers&prop=revisions%7Cinfo&rvprop=content", request);
+  }
+
+  @Test
+  public void testPrepareNextRequest_continue() {
+    // GIVEN
+    GeneratorQuery testee = GeneratorQuery.allPages(bot).withProperties(GetRevision.IDS).build();
+    testee.setNextPageInfo(testee.parseHasMore(XML).get());
+
+    // WHEN
+    String request = testee.prepareNextRequest().getRequest();
+
+    // THEN
+    assertEquals("/api.php?action=query&continue=gcmcontinue%7C%7C&format=xml" + //
+        "&gaplimit=max&gcmcontinue=page%7C4249%7C2&generator=allpages" + //
+        "&prop=revisions%7Cinfo&rvcontinue=20%7C21&rvprop=ids", request);
+  }
+
+  @Test
+  public void testParseElements() {
+    // GIVEN
+    GeneratorQuery testee = GeneratorQuery.embeddedIn(bot, "Template:A").build();
+
+    // WHEN
+    ImmutableList<SimpleArticle> articles = testee.parseElements(XML);
+
+    // THEN
+    assertArticles(articles);
+  }
+
+  @Test
+  public void testParseElements_json() {
+    // GIVEN
+    when(bot.getResponseFormat()).thenReturn(ResponseFormat.JSON);
+    GeneratorQuery testee = GeneratorQuery.backlinks(bot, "A").build();
+    ParsedResponse response = ParsedResponse.of(JSON);
+
+    // WHEN
+    ImmutableList<SimpleArticle> articles = testee.parseElements(response);
+    Optional<String> nextPageInfo = testee.parseHasMore(response);
+
+    // THEN
+    assertArticles(articles);
+    assertEquals(Optional.of("gcmcontinue=page%7C4249%7C2&continue=gcmcontinue%7C%7C"),
+        nextPageInfo);
+  }
+
+  private static void assertArticles(ImmutableList<SimpleArticle> articles) {
+    assertEquals(1, articles.size());
+    SimpleArticle article = articles.get(0);
+    assertEquals("A", article.getTitle());
+    assertEquals("Text A", article.getText());
+    assertEquals("10", article.getRevisionId());
+    assertEquals("U", article.getEditor());
+    assertEquals("c", article.getEditSummary());
+    assertEquals(true, article.isMinorEdit());
+  }
+
+  @Test
+  public void testParseHasMore_lastPage() {
+    // GIVEN
+    GeneratorQuery testee = GeneratorQuery.allPages(bot).build();
+
+    // WHEN
+    Optional<String> nextPageInfo = testee.parseHasMore("<api><query><pages/></query></api>");
+
+    // THEN
+    assertEquals(Optional.<String>absent(), nextPageInfo);
+  }
+
+  @Test
+  public void testParseHasMore_queryContinue() {
+    // GIVEN
+    GeneratorQuery testee = GeneratorQuery.allPages(bot).build();
+    String xml = "<api><query-continue><allpages gapcontinue=\"B\"/></query-continue>" + //
+        "<query><pages/></query></api>";
+
+    try {
+      // WHEN
+      testee.parseHasMore(xml);
+      fail();
+    } catch (ActionException e) {
+      // THEN
+      assertEquals("generator queries need MediaWiki 1.21 or later", e.getMessage());
+    }
+  }
+}
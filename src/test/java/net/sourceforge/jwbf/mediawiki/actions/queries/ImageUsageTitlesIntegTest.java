@@ -42,7 +42,7 @@ public class ImageUsageTitlesIntegTest extends MocoIntegTest {
 
     // WHEN
     ImmutableList<String> imageUsageTitles =
-        new ImageUsageTitles(bot(), 3, "Any.gif", MediaWiki.NS_EVERY).getCopyOf(4);
+        new ImageUsageTitles(bot(), "Any.gif", MediaWiki.NS_EVERY).withLimit(3).getCopyOf(4);
 
     // THEN
     GAssert.assertEquals(
@@ -0,0 +1,71 @@
+package net.sourceforge.jwbf.mediawiki.actions.queries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import net.sourceforge.jwbf.GAssert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class QueryCheckpointTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testWriteRead() {
+    // GIVEN
+    Path file = folder.getRoot().toPath().resolve("query.checkpoint");
+    QueryCheckpoint checkpoint = new QueryCheckpoint(
+        "/api.php?action=query&eicontinue=10%7CBabel%7C37163", Optional.of("10|Babel|37163"), 7);
+
+    // WHEN
+    checkpoint.write(file);
+
+    // THEN
+    assertEquals(checkpoint, QueryCheckpoint.read(file));
+    // without temporary files
+    GAssert.assertEquals(ImmutableList.of("query.checkpoint"),
+        ImmutableList.copyOf(folder.getRoot().list()));
+  }
+
+  @Test
+  public void testWrite_replace() {
+    // GIVEN
+    Path file = folder.getRoot().toPath().resolve("query.checkpoint");
+    new QueryCheckpoint("/api.php?a=1", Optional.of("A"), 1).write(file);
+    QueryCheckpoint second = new QueryCheckpoint("/api.php?a=1", Optional.<String>absent(), 0);
+
+    // WHEN
+    second.write(file);
+
+    // THEN
+    QueryCheckpoint result = QueryCheckpoint.read(file);
+    assertEquals(second, result);
+    assertEquals(Optional.<String>absent(), result.getNextPageInfo());
+  }
+
+  @Test
+  public void testRead_noCheckpoint() throws IOException {
+    // GIVEN
+    Path file = folder.newFile("other.properties").toPath();
+    Files.write(file, "a=b".getBytes(StandardCharsets.UTF_8));
+
+    try {
+      // WHEN
+      QueryCheckpoint.read(file);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // THEN
+      assertEquals(file + " is no query checkpoint", e.getMessage());
+    }
+  }
+}
@@ -21,7 +21,7 @@ public class RecentchangeTitlesIntegTest extends AbstractIntegTest {
       .param("action", "query") //
       .param("format", "xml") //
       .param("list", "recentchanges") //
-      .param("rclimit", "50") //
+      .param("rclimit", "max") //
       .param("rcnamespace", "0") //
       .build();
 
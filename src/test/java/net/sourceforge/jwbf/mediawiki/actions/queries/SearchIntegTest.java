@@ -1,8 +1,10 @@
 package net.sourceforge.jwbf.mediawiki.actions.queries;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 
 import com.github.dreamhead.moco.RequestMatcher;
@@ -17,20 +19,22 @@ import net.sourceforge.jwbf.mediawiki.bots.MediaWikiBot;
 import org.junit.Test;
 
 public class SearchIntegTest extends AbstractIntegTest {
-  private static final ApiMatcherBuilder MATCHERS_COMMON = ApiMatcherBuilder.of() //
-      .param("action", "query") //
-      .param("continue", "-||") //
-      .param("format", "json") //
-      .param("list", "search") //
-      .param("srinfo", "totalhits") //
-      .param("srlimit", "50") //
-      .param("srnamespace", "0") //
-      .param("srprop", "size") //
-      .param("srsearch", "meaning") //
-      .param("srwhat", "text");
+  private static ApiMatcherBuilder newMatcherBuilder() {
+    return ApiMatcherBuilder.of() //
+        .param("action", "query") //
+        .param("continue", "-||") //
+        .param("format", "json") //
+        .param("list", "search") //
+        .param("srinfo", "totalhits") //
+        .param("srlimit", "max") //
+        .param("srnamespace", "0") //
+        .param("srprop", "size") //
+        .param("srsearch", "meaning") //
+        .param("srwhat", "text");
+  }
 
   private static RequestMatcher[] MATCHERS =
-      { MATCHERS_COMMON.build(), MATCHERS_COMMON.param("sroffset", "50").build() };
+      { newMatcherBuilder().build(), newMatcherBuilder().param("sroffset", "50").build() };
 
   private static String[] RESPONSES =
       { "{\"continue\":{\"sroffset\":50,\"continue\":\"-||\"},\"batchcomplete\":\"\"," +
@@ -185,6 +189,46 @@ public class SearchIntegTest extends AbstractIntegTest {
     assertTitlesEqual(secondBatchTitles, resultList, 50);
   }
 
+  @Test
+  public void testSearchinfo() {
+    // GIVEN
+    server.get(newMatcherBuilder().build()).response("{\"batchcomplete\":\"\"," +
+        "\"query\":{\"searchinfo\":{\"totalhits\":1,\"suggestion\":\"meeting\"}," +
+        "\"search\":[{\"ns\":0,\"title\":\"Flow\",\"size\":43020}]}}");
+    MediaWikiBot bot = new MediaWikiBot(host());
+    Search testee = newSearch(bot);
+
+    // WHEN
+    ImmutableList<SearchResult> results = ImmutableList.copyOf((Iterator<SearchResult>) testee);
+
+    // THEN
+    assertEquals(1, results.size());
+    assertEquals(1, testee.getTotalHits());
+    assertEquals("meeting", testee.getSuggestion());
+  }
+
+  @Test
+  public void testSearchinfo_missing() {
+    // GIVEN
+    server.get(newMatcherBuilder().build()).response("{\"batchcomplete\":\"\",\"query\":{" +
+        "\"search\":[{\"ns\":0,\"title\":\"Flow\",\"size\":43020}]}}");
+    MediaWikiBot bot = new MediaWikiBot(host());
+    Search testee = newSearch(bot);
+
+    // WHEN
+    ImmutableList<SearchResult> results = ImmutableList.copyOf((Iterator<SearchResult>) testee);
+
+    // THEN
+    assertEquals(1, results.size());
+    assertEquals(0, testee.getTotalHits());
+    assertNull(testee.getSuggestion());
+  }
+
+  private static Search newSearch(MediaWikiBot bot) {
+    return new Search(bot, "meaning", EnumSet.of(SearchWhat.text),
+        EnumSet.of(SearchInfo.totalhits), EnumSet.of(SearchProps.size), 0);
+  }
+
   private void assertTitlesEqual(ImmutableList<String> expected, List<SearchResult> actual,
       int offsetInActual) {
     for (int i = 0; i < expected.size(); i++) {
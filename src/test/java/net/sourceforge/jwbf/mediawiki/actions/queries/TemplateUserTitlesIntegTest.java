@@ -48,8 +48,8 @@ public class TemplateUserTitlesIntegTest extends MocoIntegTest {
     MediaWikiBot bot = new MediaWikiBot(host());
 
     // WHEN
-    TemplateUserTitles testee = new TemplateUserTitles(bot, 3, "Template:TestTemplate",
-        MWAction.nullSafeCopyOf(MediaWiki.NS_ALL));
+    BaseQuery<String> testee = new TemplateUserTitles(bot, "Template:TestTemplate",
+        MWAction.nullSafeCopyOf(MediaWiki.NS_ALL)).withLimit(3);
     ImmutableList<String> resultList = testee.getCopyOf(4);
 
     // THEN
@@ -1,6 +1,10 @@
 package net.sourceforge.jwbf.mediawiki.actions.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Predicate;
 
 import org.junit.Test;
 
@@ -16,4 +20,16 @@ public class ApiExceptionTest {
 
   }
 
+  @Test
+  public void testWithCode() {
+    // GIVEN
+    Predicate<Throwable> testee = ApiException.withCode("maxlag", "readonly");
+
+    // WHEN / THEN
+    assertTrue(testee.apply(new ApiException("maxlag", "lagged")));
+    assertTrue(testee.apply(new ApiException("readonly", "locked")));
+    assertFalse(testee.apply(new ApiException("badtoken", "invalid")));
+    assertFalse(testee.apply(new IllegalStateException("maxlag")));
+  }
+
 }
@@ -3,6 +3,7 @@ package net.sourceforge.jwbf.mediawiki.bots;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.isA;
@@ -12,6 +13,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.AbstractModule;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -130,6 +133,19 @@ public class MediaWikiBotTest {
     assertEquals(Version.UNKNOWN, version);
   }
 
+  @Test
+  public void testGetPerformedActionAsync() throws Exception {
+    // GIVEN
+    GetVersion action = new GetVersion();
+    when(client.performActionAsync(action)).thenReturn(Futures.immediateFuture(""));
+
+    // WHEN
+    ListenableFuture<GetVersion> result = testee.getPerformedActionAsync(action);
+
+    // THEN
+    assertSame(action, result.get());
+  }
+
   @Test
   public void testWriteContent_not_logged_in() {
     // GIVEN